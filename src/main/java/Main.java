@@ -1,4 +1,7 @@
 import edu.byu.cs.autograder.GradingException;
+import edu.byu.cs.autograder.compile.LocalMavenRepository;
+import edu.byu.cs.autograder.database.GradingDatabasePool;
+import edu.byu.cs.controller.TrafficController;
 import edu.byu.cs.server.endpointprovider.EndpointProvider;
 import edu.byu.cs.server.endpointprovider.EndpointProviderImpl;
 import edu.byu.cs.dataAccess.DaoService;
@@ -22,7 +25,10 @@ import java.util.Properties;
  * <ul>
  *     <li>Copies necessary resource files to the appropriate locations.</li>
  *     <li>Sets up application properties based on command-line arguments.</li>
+ *     <li>Seeds the local Maven repository shared by student builds.</li>
  *     <li>Initializes database access objects for SQL operations.</li>
+ *     <li>Sizes the grading pool from the stored configuration.</li>
+ *     <li>Creates a test database for each grader in the background.</li>
  *     <li>Starts the server to handle incoming requests.</li>
  *     <li>Reruns any submissions that are already in the queue.</li>
  * </ul>
@@ -35,6 +41,7 @@ public class Main {
     public static void main(String[] args) {
         ResourceUtils.copyResourceFiles("phases", new File(""));
         setupProperties(args);
+        LocalMavenRepository.getInstance().seedInBackground();
 
         try {
             DaoService.initializeSqlDAOs();
@@ -43,6 +50,10 @@ public class Main {
             throw new RuntimeException(e);
         }
 
+        TrafficController.getInstance().loadGraderThreadCount();
+        int graderThreadCount = TrafficController.getInstance().getGraderThreadCount();
+        Thread.ofVirtual().start(() -> GradingDatabasePool.getInstance().provision(graderThreadCount));
+
         new Server(endpointProvider).start();
 
         try {
@@ -93,6 +104,30 @@ public class Main {
             if(cmd.hasOption("client-id")){
                 properties.setProperty("client-id", cmd.getOptionValue("client-id"));
             }
+            if (cmd.hasOption("cache-path")) {
+                properties.setProperty("cache-path", cmd.getOptionValue("cache-path"));
+            }
+            if (cmd.hasOption("maven-daemon")) {
+                properties.setProperty("maven-daemon", cmd.getOptionValue("maven-daemon"));
+            }
+            if (cmd.hasOption("git-mirror-budget-mb")) {
+                properties.setProperty("git-mirror-budget-mb", cmd.getOptionValue("git-mirror-budget-mb"));
+            }
+            if (cmd.hasOption("in-process-test-compilation")) {
+                properties.setProperty("in-process-test-compilation", "true");
+            }
+            if (cmd.hasOption("grading-heap-mb")) {
+                properties.setProperty("grading-heap-mb", cmd.getOptionValue("grading-heap-mb"));
+            }
+            if (cmd.hasOption("grading-cpu-seconds")) {
+                properties.setProperty("grading-cpu-seconds", cmd.getOptionValue("grading-cpu-seconds"));
+            }
+            if (cmd.hasOption("grading-output-kb")) {
+                properties.setProperty("grading-output-kb", cmd.getOptionValue("grading-output-kb"));
+            }
+            if (cmd.hasOption("config-cache-seconds")) {
+                properties.setProperty("config-cache-seconds", cmd.getOptionValue("config-cache-seconds"));
+            }
         } catch (ParseException e) {
             throw new RuntimeException("Error parsing command line arguments", e);
         }
@@ -113,6 +148,14 @@ public class Main {
         options.addOption(null, "use-canvas", true, "Using Canvas");
         options.addOption(null, "disable-compilation", false, "Turn off student code compilation");
         options.addOption(null, "client-id", true, "Client ID for BYU OAuth");
+        options.addOption(null, "cache-path", true, "Directory for data reused between submissions");
+        options.addOption(null, "maven-daemon", true, "Maven Daemon (mvnd) executable used to compile student code");
+        options.addOption(null, "git-mirror-budget-mb", true, "Disk space in megabytes for local mirrors of student repos");
+        options.addOption(null, "in-process-test-compilation", false, "Compile tests inside the AutoGrader JVM instead of forking javac");
+        options.addOption(null, "grading-heap-mb", true, "Maximum heap in megabytes of the JVMs that run student code (0 for no limit)");
+        options.addOption(null, "grading-cpu-seconds", true, "CPU seconds a process running student code may use (0 for no limit)");
+        options.addOption(null, "grading-output-kb", true, "Kilobytes of test output kept for each submission");
+        options.addOption(null, "config-cache-seconds", true, "Seconds configuration values are cached before being read again");
         return options;
     }
 
@@ -1,5 +1,7 @@
 package edu.byu.cs.analytics;
 
+import edu.byu.cs.autograder.GradingException;
+import edu.byu.cs.autograder.git.GitHelper;
 import edu.byu.cs.canvas.CanvasException;
 import edu.byu.cs.canvas.CanvasService;
 import edu.byu.cs.canvas.model.CanvasSection;
@@ -14,7 +16,6 @@ import edu.byu.cs.util.FileUtils;
 import edu.byu.cs.util.PhaseUtils;
 import org.eclipse.jgit.annotations.NonNull;
 import org.eclipse.jgit.annotations.Nullable;
-import org.eclipse.jgit.api.CloneCommand;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.diff.DiffEntry;
@@ -492,11 +493,14 @@ public class CommitAnalytics {
                 if (student == null || student.repoUrl() == null) continue;
                 File repoPath = new File("./tmp-" + student.repoUrl().hashCode());
 
-                CloneCommand cloneCommand = Git.cloneRepository()
-                        .setURI(student.repoUrl())
-                        .setDirectory(repoPath);
+                try {
+                    GitHelper.fetchRepoFromUrl(student.repoUrl(), repoPath);
+                } catch (GradingException e) {
+                    FileUtils.removeDirectory(repoPath);
+                    continue;
+                }
 
-                try (Git git = cloneCommand.call()) {
+                try (Git git = Git.open(repoPath)) {
                     Iterable<RevCommit> commits = git.log().all().call();
                     ArrayList<Integer> timestamps = getAllTimestamps(commits);
                     commitMap.put(student.netId(), timestamps);
@@ -30,7 +30,15 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A template for fetching, compiling, and running student code
@@ -38,6 +46,12 @@ import java.util.EnumMap;
 public class Grader implements Runnable {
     private static final Logger LOGGER = LoggerFactory.getLogger(Grader.class);
 
+    /**
+     * Distinguishes graders created within the same second so that graders running in parallel
+     * never share a stage directory.
+     */
+    private static final AtomicLong graderSequence = new AtomicLong();
+
     /** DEV ONLY. Default: true. Skips compilation and evaluation of student projects. */
     private final boolean RUN_COMPILATION = ApplicationProperties.runCompilation();
 
@@ -65,7 +79,7 @@ public class Grader implements Runnable {
             repoUrl = RepoUrlValidator.clean(repoUrl);
         }
         String phasesPath = new File("./phases").getCanonicalPath();
-        long salt = Instant.now().getEpochSecond();
+        String salt = Instant.now().getEpochSecond() + "_" + graderSequence.incrementAndGet();
         String stagePath = new File("./tmp-" + repoUrl.hashCode() + "-" + salt).getCanonicalPath();
         File stageRepo = new File(stagePath, "repo");
 
@@ -79,7 +93,7 @@ public class Grader implements Runnable {
 
         // Init helpers
         LateDayCalculator lateDayCalculator = new LateDayCalculator();
-        this.dbHelper = new DatabaseHelper(salt, gradingContext);
+        this.dbHelper = new DatabaseHelper(gradingContext);
         this.gitHelper = new GitHelper(gradingContext, new DefaultGitVerificationStrategy(lateDayCalculator));
         this.compileHelper = new CompileHelper(gradingContext);
 
@@ -92,20 +106,21 @@ public class Grader implements Runnable {
     public void run() {
         observer.notifyStarted();
         CommitVerificationReport commitVerificationReport = null;
+        long startNanos = System.nanoTime();
         try {
-            // FIXME: remove this sleep. currently the grader is too quick for the client to keep up
-            Thread.sleep(1000);
-            commitVerificationReport = gitHelper.setUpAndVerifyHistory();
-            dbHelper.setUp();
+            timed(GradingStage.CLONE, gitHelper::setUp);
+            commitVerificationReport = timed(GradingStage.COMMIT_VERIFICATION, gitHelper::verifyCommitHistory);
+            timed(GradingStage.DATABASE_SETUP, dbHelper::setUp);
             if (RUN_COMPILATION && gradingContext.phase() != Phase.GitHub) {
                 compileHelper.compile();
-                new PreviousPhasePassoffTestGrader(gradingContext).runTests();
+                timed(GradingStage.PREVIOUS_PHASE_TESTS, () -> new PreviousPhasePassoffTestGrader(gradingContext).runTests());
             }
 
             RubricConfig rubricConfig = DaoService.getRubricConfigDao().getRubricConfig(gradingContext.phase());
             Rubric rubric = evaluateProject(RUN_COMPILATION ? rubricConfig : null, commitVerificationReport.result());
 
-            Submission submission = scorer.score(rubric, commitVerificationReport);
+            CommitVerificationReport report = commitVerificationReport;
+            Submission submission = timed(GradingStage.SCORING, () -> scorer.score(rubric, report));
             DaoService.getSubmissionDao().insertSubmission(submission);
 
             observer.notifyDone(submission);
@@ -115,40 +130,176 @@ public class Grader implements Runnable {
             LOGGER.error("Error running grader for user {} and repository {}", gradingContext.netId(),
                     gradingContext.repoUrl(), e);
         } finally {
+            GradingMetrics.getInstance().record(GradingStage.TOTAL, gradingContext.phase(),
+                    (System.nanoTime() - startNanos) / 1_000_000);
             dbHelper.cleanUp();
             FileUtils.removeDirectory(new File(gradingContext.stagePath()));
         }
     }
 
+    /**
+     * Runs the graders of every item in the rubric config
+     */
     private Rubric evaluateProject(RubricConfig rubricConfig, CommitVerificationResult commitVerificationResult) throws GradingException, DataAccessException {
         EnumMap<Rubric.RubricType, Rubric.RubricItem> rubricItems = new EnumMap<>(Rubric.RubricType.class);
         if (rubricConfig == null) {
             return new Rubric(new EnumMap<>(Rubric.RubricType.class), false, "No Rubric Config");
         }
 
-        for(Rubric.RubricType type : Rubric.RubricType.values()) {
-            RubricConfig.RubricConfigItem configItem = rubricConfig.items().get(type);
-            if(configItem != null) {
-                Rubric.Results results = switch (type) {
-                    // TODO: How can we fully remove this switch statement and rely on passed-in definitions instead
-                    // This code is violating the open-closed principle.
-                    case PASSOFF_TESTS -> new PassoffTestGrader(gradingContext).runTests();
-                    case UNIT_TESTS -> new UnitTestGrader(gradingContext).runTests();
-                    case EXTRA_CREDIT -> new ExtraCreditGrader(gradingContext).runTests();
-                    case QUALITY -> new QualityGrader(gradingContext).runQualityChecks();
-                    case GITHUB_REPO -> new GitHubAssignmentGrader().grade(commitVerificationResult);
-                    case GIT_COMMITS, GRADING_ISSUE -> null;
-                    // TODO: (end) This is the end of what we want to remove.
-                };
-                if (results != null) {
-                    rubricItems.put(type, new Rubric.RubricItem(configItem.category(), results, configItem.criteria()));
-                }
-            }
+        List<Rubric.RubricType> types = new ArrayList<>();
+        for (Rubric.RubricType type : Rubric.RubricType.values()) {
+            if (rubricConfig.items().get(type) != null) types.add(type);
+        }
+        List<List<Rubric.RubricType>> lanes = planLanes(types, PhaseUtils.testsUseDatabase(gradingContext.phase()));
+        EnumMap<Rubric.RubricType, Rubric.Results> results =
+                runLanes(lanes, type -> runItemGrader(type, commitVerificationResult));
+
+        for (Map.Entry<Rubric.RubricType, Rubric.Results> result : results.entrySet()) {
+            RubricConfig.RubricConfigItem configItem = rubricConfig.items().get(result.getKey());
+            rubricItems.put(result.getKey(),
+                    new Rubric.RubricItem(configItem.category(), result.getValue(), configItem.criteria()));
         }
 
         return new Rubric(rubricItems, false, "");
     }
 
+    /**
+     * Groups rubric types into lanes. Lanes run concurrently, and the types within a lane run
+     * one after another. Every type gets its own lane, except that when the tests use the database,
+     * the test types share a single lane so they don't interfere with each other's data.
+     *
+     * @param types the rubric types to grade, in the order they should be graded
+     * @param serializeTests whether the test types must run one after another
+     * @return the lanes, in the order of their first type
+     */
+    static List<List<Rubric.RubricType>> planLanes(List<Rubric.RubricType> types, boolean serializeTests) {
+        List<List<Rubric.RubricType>> lanes = new ArrayList<>();
+        List<Rubric.RubricType> testLane = new ArrayList<>();
+        for (Rubric.RubricType type : types) {
+            boolean isTestType = type == Rubric.RubricType.PASSOFF_TESTS || type == Rubric.RubricType.UNIT_TESTS
+                    || type == Rubric.RubricType.EXTRA_CREDIT;
+            if (serializeTests && isTestType) {
+                if (testLane.isEmpty()) lanes.add(testLane);
+                testLane.add(type);
+            } else {
+                lanes.add(List.of(type));
+            }
+        }
+        return lanes;
+    }
+
+    /**
+     * Runs each lane on its own virtual thread and waits for all of them to finish. If a grader
+     * fails, its exception is rethrown once every lane started before it has finished.
+     *
+     * @param lanes the lanes from {@link #planLanes(List, boolean)}
+     * @param itemGrader grades a single rubric type
+     * @return the results of every type the item grader returned results for
+     */
+    static EnumMap<Rubric.RubricType, Rubric.Results> runLanes(List<List<Rubric.RubricType>> lanes,
+            ItemGrader itemGrader) throws GradingException, DataAccessException {
+        EnumMap<Rubric.RubricType, Rubric.Results> results = new EnumMap<>(Rubric.RubricType.class);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<EnumMap<Rubric.RubricType, Rubric.Results>>> futures = new ArrayList<>();
+            for (List<Rubric.RubricType> lane : lanes) {
+                futures.add(executor.submit(() -> runLane(lane, itemGrader)));
+            }
+            for (Future<EnumMap<Rubric.RubricType, Rubric.Results>> future : futures) {
+                results.putAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GradingException("Interrupted while grading", e);
+        } catch (ExecutionException e) {
+            switch (e.getCause()) {
+                case GradingException ge -> throw ge;
+                case DataAccessException de -> throw de;
+                default -> throw new GradingException(e.getCause());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Runs the graders of the given rubric types one after another
+     */
+    private static EnumMap<Rubric.RubricType, Rubric.Results> runLane(List<Rubric.RubricType> types,
+            ItemGrader itemGrader) throws GradingException, DataAccessException {
+        EnumMap<Rubric.RubricType, Rubric.Results> laneResults = new EnumMap<>(Rubric.RubricType.class);
+        for (Rubric.RubricType type : types) {
+            Rubric.Results results = itemGrader.grade(type);
+            if (results != null) {
+                laneResults.put(type, results);
+            }
+        }
+        return laneResults;
+    }
+
+    /**
+     * Runs the grader of a single rubric type, timing it if its time is recorded
+     *
+     * @return the results, or null if the type isn't graded here
+     */
+    private Rubric.Results runItemGrader(Rubric.RubricType type, CommitVerificationResult commitVerificationResult)
+            throws GradingException, DataAccessException {
+        GradingStage stage = stageOf(type);
+        if (stage == null) {
+            return gradeItem(type, commitVerificationResult);
+        }
+        return timed(stage, () -> gradeItem(type, commitVerificationResult));
+    }
+
+    /**
+     * Grades a single rubric type
+     *
+     * @return the results, or null if the type isn't graded here
+     */
+    private Rubric.Results gradeItem(Rubric.RubricType type, CommitVerificationResult commitVerificationResult)
+            throws GradingException, DataAccessException {
+        return switch (type) {
+            // TODO: How can we fully remove this switch statement and rely on passed-in definitions instead
+            // This code is violating the open-closed principle.
+            case PASSOFF_TESTS -> new PassoffTestGrader(gradingContext).runTests();
+            case UNIT_TESTS -> new UnitTestGrader(gradingContext).runTests();
+            case EXTRA_CREDIT -> new ExtraCreditGrader(gradingContext).runTests();
+            case QUALITY -> new QualityGrader(gradingContext).runQualityChecks();
+            case GITHUB_REPO -> new GitHubAssignmentGrader().grade(commitVerificationResult);
+            case GIT_COMMITS, GRADING_ISSUE -> null;
+            // TODO: (end) This is the end of what we want to remove.
+        };
+    }
+
+    /**
+     * @return the stage the grader of a rubric type is timed as, or null if its time isn't recorded
+     */
+    private static GradingStage stageOf(Rubric.RubricType type) {
+        return switch (type) {
+            case PASSOFF_TESTS -> GradingStage.PASSOFF_TESTS;
+            case UNIT_TESTS -> GradingStage.UNIT_TESTS;
+            case EXTRA_CREDIT -> GradingStage.EXTRA_CREDIT_TESTS;
+            case QUALITY -> GradingStage.QUALITY;
+            case GITHUB_REPO, GIT_COMMITS, GRADING_ISSUE -> null;
+        };
+    }
+
+    /**
+     * Runs a step of grading and records how long it took, whether or not it succeeded
+     *
+     * @return the result of the step
+     */
+    private <T> T timed(GradingStage stage, GradingMetrics.TimedStep<T, GradingException, DataAccessException> step)
+            throws GradingException, DataAccessException {
+        return GradingMetrics.getInstance().timed(stage, gradingContext.phase(), step);
+    }
+
+    /**
+     * Runs a step of grading that has no result and records how long it took, whether or not it succeeded
+     */
+    private void timed(GradingStage stage, GradingMetrics.TimedTask<GradingException, DataAccessException> task)
+            throws GradingException, DataAccessException {
+        GradingMetrics.getInstance().timed(stage, gradingContext.phase(), task);
+    }
+
     private void handleException(GradingException ge, CommitVerificationReport cvr) {
         if(cvr == null) {
             observer.notifyError(ge.getMessage());
@@ -163,4 +314,14 @@ public class Grader implements Runnable {
         }
     }
 
+    /**
+     * Grades a single rubric type
+     */
+    @FunctionalInterface
+    interface ItemGrader {
+        /**
+         * @return the results, or null if the type isn't graded
+         */
+        Rubric.Results grade(Rubric.RubricType type) throws GradingException, DataAccessException;
+    }
 }
@@ -17,6 +17,7 @@ import java.io.File;
  * @param verificationConfig Several variables related to commit verification
  * @param observer        Used to notify the user of changes and issues during the grading process
  * @param admin           If the submission is an admin submission
+ * @param resourceUsage   Records the resources used by the processes that grade the submission
  */
 public record GradingContext(
         String netId,
@@ -31,5 +32,13 @@ public record GradingContext(
 
         // Others
         GradingObserver observer,
-        boolean admin
-) { }
+        boolean admin,
+        ResourceUsageRecorder resourceUsage
+) {
+    public GradingContext(String netId, Phase phase, String phasesPath, String stagePath, String repoUrl,
+                          File stageRepo, CommitVerificationConfig verificationConfig, GradingObserver observer,
+                          boolean admin) {
+        this(netId, phase, phasesPath, stagePath, repoUrl, stageRepo, verificationConfig, observer, admin,
+                new ResourceUsageRecorder());
+    }
+}
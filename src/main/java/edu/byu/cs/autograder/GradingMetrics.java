@@ -0,0 +1,160 @@
+package edu.byu.cs.autograder;
+
+import edu.byu.cs.autograder.compile.MavenBuildRunner;
+import edu.byu.cs.model.Phase;
+import edu.byu.cs.util.LatencyHistogram;
+import org.eclipse.jgit.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times each {@link GradingStage} of every submission graded since the AutoGrader started, so the
+ * stages that take the longest under load can be found.
+ * <br><br>
+ * Each stage is timed by running it through {@link #timed(GradingStage, Phase, TimedStep)}, which records
+ * how long the stage took when it ends, whether or not it succeeded. Timings are kept for each phase,
+ * and for all phases together.
+ */
+public class GradingMetrics {
+
+    private static GradingMetrics instance;
+
+    /**
+     * How much each new duration moves the recent duration of a stage
+     */
+    private static final double RECENT_WEIGHT = 0.2;
+
+    private final Instant since = Instant.now();
+    private final Map<StageKey, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final Map<StageKey, Double> recentMillis = new ConcurrentHashMap<>();
+
+    GradingMetrics() {}
+
+    public static synchronized GradingMetrics getInstance() {
+        if (instance == null) {
+            instance = new GradingMetrics();
+        }
+        return instance;
+    }
+
+    /**
+     * Runs a stage and records how long it took, whether or not it succeeded
+     *
+     * @param stage the stage to time
+     * @param phase the phase of the submission being graded
+     * @param step the work of the stage
+     * @return the result of the stage
+     */
+    public <T, E1 extends Exception, E2 extends Exception> T timed(GradingStage stage, Phase phase,
+                                                                   TimedStep<T, E1, E2> step) throws E1, E2 {
+        long startNanos = System.nanoTime();
+        try {
+            return step.run();
+        } finally {
+            record(stage, phase, (System.nanoTime() - startNanos) / 1_000_000);
+        }
+    }
+
+    /**
+     * Runs a stage that has no result and records how long it took, whether or not it succeeded
+     *
+     * @param stage the stage to time
+     * @param phase the phase of the submission being graded
+     * @param task the work of the stage
+     */
+    public <E1 extends Exception, E2 extends Exception> void timed(GradingStage stage, Phase phase,
+                                                                   TimedTask<E1, E2> task) throws E1, E2 {
+        this.<Void, E1, E2>timed(stage, phase, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Records how long a stage took
+     *
+     * @param stage the stage that ran
+     * @param phase the phase of the submission being graded
+     * @param millis how long the stage took
+     */
+    public void record(GradingStage stage, Phase phase, long millis) {
+        histograms.computeIfAbsent(new StageKey(stage, phase), k -> new LatencyHistogram()).record(millis);
+        histograms.computeIfAbsent(new StageKey(stage, null), k -> new LatencyHistogram()).record(millis);
+        recentMillis.merge(new StageKey(stage, phase), (double) millis,
+                (recent, latest) -> recent + RECENT_WEIGHT * (latest - recent));
+        recentMillis.merge(new StageKey(stage, null), (double) millis,
+                (recent, latest) -> recent + RECENT_WEIGHT * (latest - recent));
+    }
+
+    /**
+     * Gets how long a stage has been taking lately, as a moving average that favors the latest runs.
+     * When the stage hasn't run for the given phase, its recent duration for all phases is used.
+     *
+     * @param stage the stage
+     * @param phase the phase of the submission
+     * @return the recent duration, or empty if the stage hasn't run
+     */
+    public Optional<Duration> getRecentDuration(GradingStage stage, Phase phase) {
+        Double millis = recentMillis.get(new StageKey(stage, phase));
+        if (millis == null) {
+            millis = recentMillis.get(new StageKey(stage, null));
+        }
+        return Optional.ofNullable(millis).map(m -> Duration.ofMillis(Math.round(m)));
+    }
+
+    /**
+     * @return the timings of every stage that has run, ordered by stage and then by phase, with the
+     * timings of all phases together first; and the timings of the Maven builds
+     */
+    public Report getReport() {
+        List<StageMetrics> stages = new ArrayList<>();
+        for (Map.Entry<StageKey, LatencyHistogram> entry : histograms.entrySet()) {
+            stages.add(new StageMetrics(entry.getKey().stage(), entry.getKey().phase(), entry.getValue().snapshot()));
+        }
+        stages.sort(Comparator.comparing(StageMetrics::stage)
+                .thenComparing(StageMetrics::phase, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return new Report(since, stages, MavenBuildRunner.getInstance().getTimings());
+    }
+
+    private record StageKey(GradingStage stage, @Nullable Phase phase) {}
+
+    /**
+     * The timings of a stage
+     *
+     * @param stage the stage
+     * @param phase the phase the stage was timed for, or null for every phase together
+     * @param timings the durations the stage took
+     */
+    public record StageMetrics(GradingStage stage, @Nullable Phase phase, LatencyHistogram.Snapshot timings) {}
+
+    /**
+     * @param since when timings started being recorded
+     * @param stages the timings of each stage
+     * @param builds the timings of the Maven builds, by how they were run
+     */
+    public record Report(Instant since, List<StageMetrics> stages, List<MavenBuildRunner.BuildTiming> builds) {}
+
+    /**
+     * The work of a stage that produces a result. A stage that can fail in more than one way names
+     * both of its exceptions, since only one exception type can be inferred for each type parameter.
+     */
+    @FunctionalInterface
+    public interface TimedStep<T, E1 extends Exception, E2 extends Exception> {
+        T run() throws E1, E2;
+    }
+
+    /**
+     * The work of a stage that has no result
+     */
+    @FunctionalInterface
+    public interface TimedTask<E1 extends Exception, E2 extends Exception> {
+        void run() throws E1, E2;
+    }
+}
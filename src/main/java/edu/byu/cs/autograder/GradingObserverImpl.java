@@ -1,5 +1,6 @@
 package edu.byu.cs.autograder;
 
+import edu.byu.cs.controller.QueueView;
 import edu.byu.cs.controller.TrafficController;
 import edu.byu.cs.dataAccess.DaoService;
 import edu.byu.cs.dataAccess.DataAccessException;
@@ -13,7 +14,8 @@ import java.util.Map;
 
 /**
  * The implementation of the {@link GradingObserver} interface. This notifies the user
- * through the use of the {@link TrafficController}.
+ * through the use of the {@link TrafficController}, which keeps every event so that a browser
+ * that connects after grading started still receives all of them.
  */
 public class GradingObserverImpl implements GradingObserver {
 
@@ -33,14 +35,11 @@ public class GradingObserverImpl implements GradingObserver {
             LOGGER.error("Error marking queue item as started", e);
             return;
         }
+        QueueView.getInstance().started(netId);
 
         notifySubscribers(Map.of("type", "started"));
 
-        try {
-            TrafficController.broadcastQueueStatus();
-        } catch (Exception e) {
-            LOGGER.error("Error broadcasting queue status", e);
-        }
+        TrafficController.broadcastQueueStatus();
     }
 
     @Override
@@ -79,7 +78,7 @@ public class GradingObserverImpl implements GradingObserver {
 
     private void notifySubscribers(Map<String, Object> contents) {
         try {
-            TrafficController.getInstance().notifySubscribers(netId, contents);
+            TrafficController.getInstance().publishGradingEvent(netId, contents);
         } catch (Exception e) {
             LOGGER.error("Error updating subscribers", e);
         }
@@ -92,5 +91,6 @@ public class GradingObserverImpl implements GradingObserver {
         } catch (DataAccessException e) {
             LOGGER.error("Error removing queue item", e);
         }
+        QueueView.getInstance().removed(netId);
     }
 }
@@ -0,0 +1,234 @@
+package edu.byu.cs.autograder;
+
+import edu.byu.cs.model.Phase;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Decides which queued submission is graded next.
+ * <br><br>
+ * Each submission waits in a virtual line ordered by when it was queued, pushed back by a delay for
+ * its {@link Priority} and by {@value #FAIR_SHARE_DELAY_MINUTES} minute for every submission the same
+ * student has started grading within the last {@value #FAIR_SHARE_WINDOW_MINUTES} minutes. The delays
+ * only decide the order; a submission never waits for a free grader that no one else needs.
+ * <br><br>
+ * The next submission is chosen when a grader becomes free rather than when it is queued, so the
+ * fair-share delays reflect the gradings that started while it waited.
+ */
+public class GradingScheduler {
+
+    private static final long FAIR_SHARE_DELAY_MINUTES = 1;
+    private static final long FAIR_SHARE_WINDOW_MINUTES = 60;
+
+    /**
+     * How long a submission is expected to take before any submission has been graded
+     */
+    private static final Duration DEFAULT_GRADING_DURATION = Duration.ofMinutes(1);
+
+    /**
+     * How urgently a submission should be graded, from most to least urgent
+     */
+    public enum Priority {
+        /**
+         * A student's first submission of a phase, or a student's submission that is being rerun,
+         * so that it keeps its original place in line
+         */
+        FIRST_ATTEMPT(Duration.ZERO),
+        /**
+         * A student's submission of a phase they have already submitted
+         */
+        RESUBMISSION(Duration.ofMinutes(2)),
+        /**
+         * A submission by an admin, including one that is being rerun
+         */
+        ADMIN(Duration.ofMinutes(5));
+
+        private final Duration delay;
+
+        Priority(Duration delay) {
+            this.delay = delay;
+        }
+    }
+
+    /**
+     * Where a submission is in line
+     *
+     * @param netId the netId of the submission
+     * @param phase the phase of the submission
+     * @param running whether the submission is being graded
+     * @param position the position of a waiting submission, starting at 1, or 0 if it is being graded
+     * @param estimatedStart when a waiting submission is expected to start grading, or when a running
+     *                       submission started
+     */
+    public record Estimate(String netId, Phase phase, boolean running, int position, Instant estimatedStart) {}
+
+    private record Entry(String netId, Phase phase, Priority priority, Instant timeAdded, long sequence,
+                         Runnable task) {}
+
+    private record Running(Entry entry, Instant startedAt) {}
+
+    private static GradingScheduler instance;
+
+    private final Clock clock;
+    private final Function<Phase, Duration> expectedDuration;
+
+    private final List<Entry> waiting = new ArrayList<>();
+    private final List<Running> running = new ArrayList<>();
+    private final Map<String, Deque<Instant>> recentStarts = new HashMap<>();
+    private long sequence = 0;
+
+    GradingScheduler(Clock clock, Function<Phase, Duration> expectedDuration) {
+        this.clock = clock;
+        this.expectedDuration = expectedDuration;
+    }
+
+    public static synchronized GradingScheduler getInstance() {
+        if (instance == null) {
+            instance = new GradingScheduler(Clock.systemUTC(), phase -> GradingMetrics.getInstance()
+                    .getRecentDuration(GradingStage.TOTAL, phase).orElse(DEFAULT_GRADING_DURATION));
+        }
+        return instance;
+    }
+
+    /**
+     * Adds a submission to the line. A student has at most one submission in line, so the submission
+     * is ignored if the student already has one waiting.
+     *
+     * @param netId the netId of the submission
+     * @param phase the phase of the submission
+     * @param priority how urgently the submission should be graded
+     * @param timeAdded when the submission was queued
+     * @param task grades the submission
+     * @return false if the student already has a submission waiting
+     */
+    public synchronized boolean enqueue(String netId, Phase phase, Priority priority, Instant timeAdded,
+                                        Runnable task) {
+        for (Entry entry : waiting) {
+            if (entry.netId().equals(netId)) return false;
+        }
+        waiting.add(new Entry(netId, phase, priority, timeAdded, ++sequence, task));
+        return true;
+    }
+
+    /**
+     * @param netId the netId to check
+     * @return whether the student has a submission waiting or being graded
+     */
+    public synchronized boolean isScheduled(String netId) {
+        return waiting.stream().anyMatch(entry -> entry.netId().equals(netId))
+                || running.stream().anyMatch(started -> started.entry().netId().equals(netId));
+    }
+
+    /**
+     * Takes the submission that should be graded next out of the line. The returned task marks the
+     * submission as no longer running once it finishes.
+     *
+     * @return the task that grades the submission, or null if no submission is waiting
+     */
+    public synchronized Runnable next() {
+        Instant now = clock.instant();
+        Entry next = nextEntry(waiting, recentStartCounts(now));
+        if (next == null) return null;
+
+        waiting.remove(next);
+        Running started = new Running(next, now);
+        running.add(started);
+        recentStarts.computeIfAbsent(next.netId(), k -> new ArrayDeque<>()).addLast(now);
+
+        return () -> {
+            try {
+                next.task().run();
+            } finally {
+                finish(started);
+            }
+        };
+    }
+
+    private synchronized void finish(Running started) {
+        running.remove(started);
+    }
+
+    /**
+     * Estimates when each submission will start grading, assuming each takes as long as submissions
+     * of its phase have been taking lately and that no other submissions are queued
+     *
+     * @param graderCount the number of submissions that are graded at the same time
+     * @return the running submissions, followed by the waiting submissions in the order they are
+     * expected to start
+     */
+    public synchronized List<Estimate> estimate(int graderCount) {
+        Instant now = clock.instant();
+        List<Estimate> estimates = new ArrayList<>();
+
+        PriorityQueue<Instant> freeGraders = new PriorityQueue<>();
+        for (Running started : running) {
+            estimates.add(new Estimate(started.entry().netId(), started.entry().phase(), true, 0,
+                    started.startedAt()));
+            Instant finish = started.startedAt().plus(expectedDuration.apply(started.entry().phase()));
+            freeGraders.add(finish.isBefore(now) ? now : finish);
+        }
+        while (freeGraders.size() < graderCount) {
+            freeGraders.add(now);
+        }
+
+        // Play out the line, choosing each submission the same way next() will
+        List<Entry> remaining = new ArrayList<>(waiting);
+        Map<String, Integer> startCounts = recentStartCounts(now);
+        int position = 1;
+        Entry entry;
+        while ((entry = nextEntry(remaining, startCounts)) != null) {
+            remaining.remove(entry);
+            startCounts.merge(entry.netId(), 1, Integer::sum);
+
+            Instant start = freeGraders.poll();
+            estimates.add(new Estimate(entry.netId(), entry.phase(), false, position++, start));
+            freeGraders.add(start.plus(expectedDuration.apply(entry.phase())));
+        }
+        return estimates;
+    }
+
+    /**
+     * @return how many submissions each student has started grading within the fair-share window
+     */
+    private Map<String, Integer> recentStartCounts(Instant now) {
+        Instant windowStart = now.minus(Duration.ofMinutes(FAIR_SHARE_WINDOW_MINUTES));
+        Map<String, Integer> counts = new HashMap<>();
+        Iterator<Map.Entry<String, Deque<Instant>>> iterator = recentStarts.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Deque<Instant>> starts = iterator.next();
+            while (!starts.getValue().isEmpty() && starts.getValue().peekFirst().isBefore(windowStart)) {
+                starts.getValue().removeFirst();
+            }
+            if (starts.getValue().isEmpty()) {
+                iterator.remove();
+            } else {
+                counts.put(starts.getKey(), starts.getValue().size());
+            }
+        }
+        return counts;
+    }
+
+    private static Entry nextEntry(List<Entry> entries, Map<String, Integer> startCounts) {
+        Entry next = null;
+        Instant nextTime = null;
+        for (Entry entry : entries) {
+            Instant time = virtualTime(entry, startCounts.getOrDefault(entry.netId(), 0));
+            if (next == null || time.isBefore(nextTime)
+                    || (time.equals(nextTime) && entry.sequence() < next.sequence())) {
+                next = entry;
+                nextTime = time;
+            }
+        }
+        return next;
+    }
+
+    private static Instant virtualTime(Entry entry, int recentStartCount) {
+        return entry.timeAdded()
+                .plus(entry.priority().delay)
+                .plus(Duration.ofMinutes(FAIR_SHARE_DELAY_MINUTES * recentStartCount));
+    }
+}
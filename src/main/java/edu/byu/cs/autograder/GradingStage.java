@@ -0,0 +1,23 @@
+package edu.byu.cs.autograder;
+
+/**
+ * The stages of grading a submission that are timed by the {@link GradingMetrics}.
+ * Some stages run inside others; {@link #SCORING} includes {@link #CANVAS_UPLOAD}, and
+ * {@link #TOTAL} covers the whole submission.
+ */
+public enum GradingStage {
+    CLONE,
+    COMMIT_VERIFICATION,
+    DATABASE_SETUP,
+    VERIFY,
+    MODIFY,
+    PACKAGE,
+    PREVIOUS_PHASE_TESTS,
+    PASSOFF_TESTS,
+    UNIT_TESTS,
+    EXTRA_CREDIT_TESTS,
+    QUALITY,
+    SCORING,
+    CANVAS_UPLOAD,
+    TOTAL
+}
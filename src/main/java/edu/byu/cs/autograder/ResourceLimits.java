@@ -0,0 +1,92 @@
+package edu.byu.cs.autograder;
+
+import edu.byu.cs.properties.ApplicationProperties;
+import edu.byu.cs.util.ProcessUtils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Limits applied to the processes that run student code, so that one submission can't take the CPU
+ * time and memory needed by the graders running beside it.
+ * <br><br>
+ * The heap limit is passed to each forked JVM. The CPU time limit is set with {@code ulimit -t}, so the
+ * operating system stops a process with {@code SIGXCPU} once it has used more CPU time than allowed, and
+ * kills it outright shortly after if it is still running. It is only applied where {@code /bin/sh} is available.
+ *
+ * @param heapMegabytes the maximum heap of a forked JVM, or 0 to use the JVM's default
+ * @param cpuSeconds the CPU time a forked process may use, or 0 for no limit
+ * @param output how much of the output of a forked process is kept
+ */
+public record ResourceLimits(int heapMegabytes, int cpuSeconds, ProcessUtils.OutputLimit output) {
+
+    /**
+     * The status a process exits with when it is killed for exceeding its CPU time limit (128 + SIGXCPU)
+     */
+    public static final int CPU_LIMIT_EXIT_STATUS = 152;
+
+    public static final ResourceLimits NONE = new ResourceLimits(0, 0, ProcessUtils.OutputLimit.DEFAULT);
+
+    private static final File SHELL = new File("/bin/sh");
+
+    /**
+     * How much CPU time a process gets after {@code SIGXCPU} before it is killed
+     */
+    private static final int CPU_GRACE_SECONDS = 10;
+
+    /**
+     * Only the start of the test output is shown to students, so there is no point in keeping much of its end
+     */
+    private static final int OUTPUT_TAIL_BYTES = 16 * 1024;
+
+    public ResourceLimits {
+        if (heapMegabytes < 0 || cpuSeconds < 0) {
+            throw new IllegalArgumentException("Resource limits cannot be negative");
+        }
+    }
+
+    /**
+     * @return the limits configured for grading processes in the {@link ApplicationProperties}
+     */
+    public static ResourceLimits forGrading() {
+        return new ResourceLimits(ApplicationProperties.gradingHeapMegabytes(), ApplicationProperties.gradingCpuSeconds(),
+                new ProcessUtils.OutputLimit(ApplicationProperties.gradingOutputKilobytes() * 1024, OUTPUT_TAIL_BYTES));
+    }
+
+    /**
+     * Maven builds don't run student code, and are already bounded by their timeout. Their CPU time
+     * is summed across every thread of the build, so it is not limited the way it is for processes
+     * that run student code.
+     *
+     * @return the limits configured for the builds that compile student code
+     */
+    public static ResourceLimits forCompiling() {
+        return new ResourceLimits(ApplicationProperties.gradingHeapMegabytes(), 0, ProcessUtils.OutputLimit.DEFAULT);
+    }
+
+    /**
+     * @return the options that limit the heap of a JVM, to be added before its main class or jar
+     */
+    public List<String> jvmOptions() {
+        return heapMegabytes == 0 ? List.of() : List.of("-Xmx" + heapMegabytes + "m");
+    }
+
+    /**
+     * Limits the CPU time of the process a process builder starts. The command of the process builder
+     * should be set before this is called.
+     *
+     * @param processBuilder the process builder to limit
+     * @return the same process builder
+     */
+    public ProcessBuilder apply(ProcessBuilder processBuilder) {
+        if (cpuSeconds == 0 || !SHELL.canExecute()) {
+            return processBuilder;
+        }
+        List<String> command = new ArrayList<>(List.of(SHELL.getPath(), "-c",
+                "ulimit -S -t " + cpuSeconds + " && ulimit -H -t " + (cpuSeconds + CPU_GRACE_SECONDS)
+                        + " && exec \"$@\"", "sh"));
+        command.addAll(processBuilder.command());
+        return processBuilder.command(command);
+    }
+}
@@ -0,0 +1,37 @@
+package edu.byu.cs.autograder;
+
+import edu.byu.cs.model.ResourceUsage;
+import edu.byu.cs.util.ProcessUtils;
+import org.eclipse.jgit.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Adds up the resources used by the processes of a single submission, by grading stage.
+ * Stages may run concurrently, so processes can be recorded from any thread.
+ */
+public class ResourceUsageRecorder {
+
+    private final Map<String, ResourceUsage.StageUsage> stages = new LinkedHashMap<>();
+
+    /**
+     * Adds the usage of a process to a stage
+     *
+     * @param stage the name of the stage the process ran in
+     * @param usage the resources the process used
+     */
+    public synchronized void record(String stage, ProcessUtils.ProcessUsage usage) {
+        ResourceUsage.StageUsage stageUsage =
+                new ResourceUsage.StageUsage(1, usage.cpuMillis(), usage.peakRssKilobytes(), usage.wallMillis());
+        stages.merge(stage, stageUsage, ResourceUsage.StageUsage::plus);
+    }
+
+    /**
+     * @return the usage recorded so far, or null if no processes were recorded
+     */
+    public synchronized @Nullable ResourceUsage snapshot() {
+        if (stages.isEmpty()) return null;
+        return new ResourceUsage(new LinkedHashMap<>(stages));
+    }
+}
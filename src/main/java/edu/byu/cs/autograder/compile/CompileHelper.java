@@ -2,22 +2,32 @@ package edu.byu.cs.autograder.compile;
 
 import edu.byu.cs.autograder.GradingContext;
 import edu.byu.cs.autograder.GradingException;
+import edu.byu.cs.autograder.GradingMetrics;
+import edu.byu.cs.autograder.GradingStage;
+import edu.byu.cs.autograder.ResourceLimits;
 import edu.byu.cs.autograder.compile.modifiers.PassoffJarModifier;
 import edu.byu.cs.autograder.compile.modifiers.PomModifier;
 import edu.byu.cs.autograder.compile.modifiers.TestFactoryModifier;
 import edu.byu.cs.autograder.compile.verifers.*;
 import edu.byu.cs.model.Rubric;
 import edu.byu.cs.util.ProcessUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Performs the necessary checks for compiling the student's code,
  * then compiles the code for grading.
  */
 public class CompileHelper {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompileHelper.class);
+
     private final GradingContext gradingContext;
 
     public CompileHelper(GradingContext gradingContext) {
@@ -39,9 +49,10 @@ public class CompileHelper {
      * @throws GradingException if there was a failure in verifying, modifying, or compiling the code
      */
     public void compile() throws GradingException {
-        verify();
-        modify();
-        packageRepo();
+        GradingMetrics metrics = GradingMetrics.getInstance();
+        metrics.timed(GradingStage.VERIFY, gradingContext.phase(), this::verify);
+        metrics.timed(GradingStage.MODIFY, gradingContext.phase(), this::modify);
+        metrics.timed(GradingStage.PACKAGE, gradingContext.phase(), this::packageRepo);
     }
 
     /**
@@ -70,16 +81,29 @@ public class CompileHelper {
 
 
     /**
-     * Packages the student repo into a jar for each module
+     * Packages the student repo into a jar for each module. Modules whose compiled classes
+     * are already in the {@link ModuleOutputCache} are not compiled again.
      */
     private void packageRepo() throws GradingException {
         gradingContext.observer().update("Compiling code...");
 
-        ProcessBuilder processBuilder = new ProcessBuilder();
-        processBuilder.directory(gradingContext.stageRepo());
-        processBuilder.command("mvn", "package", "-DskipTests");
-        try {
-            ProcessUtils.ProcessOutput output = ProcessUtils.runProcess(processBuilder, 90000); //90 seconds
+        ModuleOutputCache outputCache = ModuleOutputCache.getInstance();
+        Map<String, String> moduleKeys = computeModuleKeys(outputCache);
+        if (moduleKeys != null) {
+            Set<String> restored = outputCache.restore(gradingContext.stageRepo(), moduleKeys);
+            LOGGER.debug("Reusing compiled modules {} for user {}", restored, gradingContext.netId());
+        }
+
+        try (LocalMavenRepository.ReadAccess repository = LocalMavenRepository.getInstance().readAccess()) {
+            List<String> arguments = new ArrayList<>(repository.buildArguments());
+            if (moduleKeys != null) {
+                arguments.addAll(outputCache.getBuildArguments());
+            }
+            arguments.addAll(List.of("package", "-DskipTests"));
+
+            ProcessUtils.ProcessOutput output = MavenBuildRunner.getInstance().runBuild(
+                    gradingContext.stageRepo(), 90000, arguments, ResourceLimits.forCompiling()); //90 seconds
+            gradingContext.resourceUsage().record("compile", output.usage());
             if (output.statusCode() != 0) {
                 Rubric.Results results = Rubric.Results.textError("Your Java source code could not be compiled", getMavenError(output.stdOut()));
                 throw new GradingException("Failed to compile", results);
@@ -87,6 +111,20 @@ public class CompileHelper {
         } catch (ProcessUtils.ProcessException ex) {
             throw new GradingException("Failed to compile: %s".formatted(ex.getMessage()), ex);
         }
+
+        if (moduleKeys != null) {
+            outputCache.store(gradingContext.stageRepo(), moduleKeys);
+        }
+    }
+
+    private Map<String, String> computeModuleKeys(ModuleOutputCache outputCache) {
+        try {
+            return outputCache.computeKeys(gradingContext.stageRepo());
+        } catch (IOException e) {
+            LOGGER.warn("Could not hash the modules of user {}, compiling without the module cache",
+                    gradingContext.netId(), e);
+            return null;
+        }
     }
 
     /**
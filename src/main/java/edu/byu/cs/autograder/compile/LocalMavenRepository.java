@@ -0,0 +1,237 @@
+package edu.byu.cs.autograder.compile;
+
+import edu.byu.cs.properties.ApplicationProperties;
+import edu.byu.cs.util.FileUtils;
+import edu.byu.cs.util.ProcessUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A local Maven repository shared by every student build.
+ * <br><br>
+ * At startup the repository is seeded by building an empty project made from the reference poms
+ * in {@code phases/pom} (the same poms the {@link edu.byu.cs.autograder.compile.modifiers.PomModifier}
+ * places into every student repo). This resolves every dependency and plugin a student build needs,
+ * so once seeding succeeds student builds run offline and never download anything. The seed is only
+ * rebuilt when the reference poms or the passoff dependencies change.
+ * <br><br>
+ * Builds hold a read lock on the repository while seeding holds the write lock, so no build
+ * runs against a half-seeded repository. Builds that start while seeding is still running don't
+ * wait for it; they leave the shared repository out and resolve their dependencies online, the same
+ * way they would if seeding had failed. Maven's own file locking is also enabled, which keeps
+ * concurrent builds safe should one of them still need to write to the repository.
+ */
+public class LocalMavenRepository {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalMavenRepository.class);
+
+    private static final long SEED_TIMEOUT = 600000; //10 minutes
+
+    /**
+     * Stores the hash of the poms the repository was last seeded from
+     */
+    private static final String SEED_MARKER = ".autograder-seed";
+
+    private static LocalMavenRepository instance;
+
+    private final File repositoryDir;
+    private final File phasesDir;
+    private final MavenBuildRunner buildRunner;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean seeded = false;
+
+    /**
+     * @param repositoryDir the directory of the local Maven repository
+     * @param phasesDir the directory containing the reference poms and passoff dependencies
+     * @param buildRunner runs the build that seeds the repository
+     */
+    LocalMavenRepository(File repositoryDir, File phasesDir, MavenBuildRunner buildRunner) {
+        this.repositoryDir = repositoryDir.getAbsoluteFile();
+        this.phasesDir = phasesDir.getAbsoluteFile();
+        this.buildRunner = buildRunner;
+    }
+
+    public static synchronized LocalMavenRepository getInstance() {
+        if (instance == null) {
+            instance = new LocalMavenRepository(new File(ApplicationProperties.cachePath(), "maven-repository"),
+                    new File("phases"), MavenBuildRunner.getInstance());
+        }
+        return instance;
+    }
+
+    /**
+     * Seeds the repository on a background thread. Builds that start before seeding
+     * finishes build without the repository.
+     */
+    public void seedInBackground() {
+        CountDownLatch lockAcquired = new CountDownLatch(1);
+        Thread.ofPlatform().name("maven-repository-seeder").daemon().start(() -> {
+            lock.writeLock().lock();
+            lockAcquired.countDown();
+            try {
+                seedWhileLocked();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+        // Wait for the seeder to hold the lock so that no build can slip in ahead of the seed
+        try {
+            lockAcquired.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Seeds the repository unless it was already seeded from the current reference poms
+     */
+    public void seed() {
+        lock.writeLock().lock();
+        try {
+            seedWhileLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void seedWhileLocked() {
+        try {
+            String seedHash = FileUtils.hashContents(getPomDir(), getPassoffDependencies());
+            File marker = new File(repositoryDir, SEED_MARKER);
+            if (marker.exists() && Files.readString(marker.toPath()).equals(seedHash)) {
+                LOGGER.info("Local Maven repository at {} is already seeded", repositoryDir);
+                seeded = true;
+                return;
+            }
+
+            LOGGER.info("Seeding local Maven repository at {}", repositoryDir);
+            if (runSeedBuild()) {
+                Files.createDirectories(repositoryDir.toPath());
+                Files.writeString(marker.toPath(), seedHash);
+                seeded = true;
+                LOGGER.info("Finished seeding local Maven repository");
+            }
+        } catch (IOException e) {
+            LOGGER.error("Failed to seed local Maven repository, student builds will resolve dependencies online", e);
+        }
+    }
+
+    private boolean runSeedBuild() throws IOException {
+        File seedProject = Files.createTempDirectory("maven-seed").toFile();
+        try {
+            FileUtils.copyDirectory(getPomDir(), seedProject);
+            File lib = new File(seedProject, "server/lib");
+            if (!lib.mkdirs()) {
+                throw new IOException("Could not create " + lib);
+            }
+            Files.copy(getPassoffDependencies().toPath(), new File(lib, "passoff-dependencies.jar").toPath());
+
+            List<String> arguments = new ArrayList<>(getRepositoryArguments());
+            arguments.addAll(List.of("package", "-DskipTests"));
+            ProcessUtils.ProcessOutput output = buildRunner.runBuild(seedProject, SEED_TIMEOUT, arguments);
+            if (output.statusCode() != 0) {
+                LOGGER.error("Seed build failed, student builds will resolve dependencies online:\n{}", output.stdOut());
+                return false;
+            }
+            return true;
+        } catch (ProcessUtils.ProcessException e) {
+            LOGGER.error("Seed build could not be run, student builds will resolve dependencies online", e);
+            return false;
+        } finally {
+            FileUtils.removeDirectory(seedProject);
+        }
+    }
+
+    /**
+     * Gets the arguments that point a Maven build at this repository. The build is
+     * run offline once the repository has been seeded.
+     *
+     * @return the arguments to pass to Maven
+     */
+    private List<String> getBuildArguments() {
+        List<String> arguments = new ArrayList<>(getRepositoryArguments());
+        if (seeded) {
+            arguments.add("--offline");
+        }
+        return arguments;
+    }
+
+    private List<String> getRepositoryArguments() {
+        return List.of(
+                "-Dmaven.repo.local=" + repositoryDir.getPath(),
+                "-Daether.syncContext.named.factory=file-lock",
+                "-Daether.syncContext.named.nameMapper=file-gav"
+        );
+    }
+
+    /**
+     * Holds the repository open for reading until the returned access is closed. If the repository
+     * is being seeded, this doesn't wait for seeding to finish: the access holds nothing, and its
+     * build arguments leave the repository out, so the build resolves its dependencies online.
+     *
+     * @return a handle with the arguments to build with, which releases the read access when closed
+     */
+    public ReadAccess readAccess() {
+        if (!lock.readLock().tryLock()) {
+            LOGGER.debug("Local Maven repository is being seeded, building without it");
+            return new Access(List.of(), false);
+        }
+        return new Access(getBuildArguments(), true);
+    }
+
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    private File getPomDir() {
+        return new File(phasesDir, "pom");
+    }
+
+    private File getPassoffDependencies() {
+        return new File(phasesDir, "libs/passoff-dependencies.jar");
+    }
+
+    /**
+     * Read access to the repository, released when closed
+     */
+    public interface ReadAccess extends AutoCloseable {
+        /**
+         * @return the arguments that point a Maven build at the repository, if it can be used
+         */
+        List<String> buildArguments();
+
+        @Override
+        void close();
+    }
+
+    private final class Access implements ReadAccess {
+        private final List<String> buildArguments;
+        private boolean locked;
+
+        private Access(List<String> buildArguments, boolean locked) {
+            this.buildArguments = buildArguments;
+            this.locked = locked;
+        }
+
+        @Override
+        public List<String> buildArguments() {
+            return buildArguments;
+        }
+
+        @Override
+        public void close() {
+            if (locked) {
+                locked = false;
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package edu.byu.cs.autograder.compile;
+
+import edu.byu.cs.autograder.ResourceLimits;
+import edu.byu.cs.properties.ApplicationProperties;
+import edu.byu.cs.util.ProcessUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs Maven builds for student repositories.
+ * <br><br>
+ * When a Maven Daemon ({@code mvnd}) executable is configured, builds are sent to its
+ * long-lived, pre-warmed build processes, which keep the JVM, the resolved plugins and their
+ * class loaders resident between submissions. Because the daemon starts additional build processes
+ * when all of its current ones are busy, concurrent graders each get a warm worker.
+ * <br><br>
+ * If the daemon cannot be started or exits without Maven reporting a build failure, the build is
+ * retried by forking a regular {@code mvn} process, the same way builds were run before the daemon
+ * existed. Both attempts share a single timeout. A daemon build that times out is not retried:
+ * stopping the {@code mvnd} client does not stop the build inside the daemon, so a forked build
+ * would be writing to the same {@code target} directory at the same time. Timings are recorded
+ * separately for each path.
+ * <br><br>
+ * {@link ResourceLimits} only apply to forked builds. Daemon builds run in the daemon's long-lived
+ * processes, which are shared by every grader and are bounded by the daemon's own configuration.
+ */
+public class MavenBuildRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MavenBuildRunner.class);
+
+    /**
+     * Printed by Maven whenever a build fails because of the project being built
+     */
+    private static final String BUILD_FAILURE_MARKER = "BUILD FAILURE";
+
+    private static MavenBuildRunner instance;
+
+    /**
+     * The ways a build can be run
+     */
+    public enum BuildPath {
+        DAEMON,
+        FORK
+    }
+
+    private final String daemonCommand;
+    private final String forkCommand;
+    private final Map<BuildPath, BuildTimer> timers = new EnumMap<>(BuildPath.class);
+
+    /**
+     * @param daemonCommand the Maven Daemon executable, or an empty string to always fork
+     * @param forkCommand the Maven executable used when forking a build
+     */
+    MavenBuildRunner(String daemonCommand, String forkCommand) {
+        this.daemonCommand = daemonCommand;
+        this.forkCommand = forkCommand;
+        for (BuildPath path : BuildPath.values()) {
+            timers.put(path, new BuildTimer());
+        }
+    }
+
+    public static synchronized MavenBuildRunner getInstance() {
+        if (instance == null) {
+            instance = new MavenBuildRunner(ApplicationProperties.mavenDaemonCommand(), "mvn");
+        }
+        return instance;
+    }
+
+    /**
+     * Runs Maven in the given directory
+     *
+     * @param directory the directory containing the root pom of the project
+     * @param timeout how long to wait for the build, including any retry, in milliseconds
+     * @param arguments the goals and options to pass to Maven
+     * @return the output of the build that completed
+     * @throws ProcessUtils.ProcessException if the build could not be run
+     */
+    public ProcessUtils.ProcessOutput runBuild(File directory, long timeout, List<String> arguments)
+            throws ProcessUtils.ProcessException {
+        return runBuild(directory, timeout, arguments, ResourceLimits.NONE);
+    }
+
+    /**
+     * Runs Maven in the given directory
+     *
+     * @param directory the directory containing the root pom of the project
+     * @param timeout how long to wait for the build, including any retry, in milliseconds
+     * @param arguments the goals and options to pass to Maven
+     * @param limits the limits applied to a forked build
+     * @return the output of the build that completed
+     * @throws ProcessUtils.ProcessException if the build could not be run
+     */
+    public ProcessUtils.ProcessOutput runBuild(File directory, long timeout, List<String> arguments,
+                                               ResourceLimits limits) throws ProcessUtils.ProcessException {
+        long deadline = System.nanoTime() + timeout * 1_000_000;
+        if (!daemonCommand.isBlank()) {
+            try {
+                ProcessUtils.ProcessOutput output = runTimed(BuildPath.DAEMON, directory, timeout, arguments, limits);
+                if (output.statusCode() == 0 || output.stdOut().contains(BUILD_FAILURE_MARKER)) {
+                    return output;
+                }
+                LOGGER.warn("Maven Daemon exited with status {} without a build failure, falling back to a forked build",
+                        output.statusCode());
+            } catch (ProcessUtils.ProcessException e) {
+                if (!(e.getCause() instanceof IOException)) {
+                    // The daemon may still be building in this directory, so a forked build can't safely start
+                    throw e;
+                }
+                LOGGER.warn("Maven Daemon could not be started, falling back to a forked build", e);
+            }
+        }
+        long remaining = (deadline - System.nanoTime()) / 1_000_000;
+        if (remaining <= 0) {
+            throw new ProcessUtils.ProcessException("Process timed out. Try again or come see a TA if this error persists");
+        }
+        return runTimed(BuildPath.FORK, directory, remaining, arguments, limits);
+    }
+
+    private ProcessUtils.ProcessOutput runTimed(BuildPath path, File directory, long timeout, List<String> arguments,
+                                                ResourceLimits limits) throws ProcessUtils.ProcessException {
+        List<String> command = new ArrayList<>();
+        command.add(path == BuildPath.DAEMON ? daemonCommand : forkCommand);
+        if (path == BuildPath.DAEMON) {
+            // Plain, non-interactive output keeps the [ERROR] lines identical to a forked build
+            command.add("--batch-mode");
+        }
+        command.addAll(arguments);
+
+        ProcessBuilder processBuilder = new ProcessBuilder(command);
+        processBuilder.directory(directory);
+        if (path == BuildPath.FORK) {
+            List<String> mavenOpts = new ArrayList<>(limits.jvmOptions());
+            String existingOpts = processBuilder.environment().get("MAVEN_OPTS");
+            if (existingOpts != null && !existingOpts.isBlank()) {
+                mavenOpts.addFirst(existingOpts);
+            }
+            if (!mavenOpts.isEmpty()) {
+                processBuilder.environment().put("MAVEN_OPTS", String.join(" ", mavenOpts));
+            }
+            limits.apply(processBuilder);
+        }
+
+        BuildTimer timer = timers.get(path);
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            ProcessUtils.ProcessOutput output = ProcessUtils.runProcess(processBuilder, timeout);
+            succeeded = output.statusCode() == 0;
+            return output;
+        } finally {
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            timer.record(elapsedMillis, succeeded);
+            LOGGER.debug("{} Maven build of {} finished in {} ms", path, directory, elapsedMillis);
+        }
+    }
+
+    /**
+     * @return a snapshot of the timings recorded for each build path
+     */
+    public List<BuildTiming> getTimings() {
+        List<BuildTiming> snapshot = new ArrayList<>();
+        for (Map.Entry<BuildPath, BuildTimer> entry : timers.entrySet()) {
+            snapshot.add(entry.getValue().snapshot(entry.getKey()));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Timings recorded for a single build path
+     *
+     * @param path the path the builds were run with
+     * @param builds how many builds were attempted
+     * @param failures how many of those builds did not complete successfully
+     * @param totalMillis the combined wall time of every build
+     * @param maxMillis the wall time of the slowest build
+     */
+    public record BuildTiming(BuildPath path, long builds, long failures, long totalMillis, long maxMillis) {
+        public long averageMillis() {
+            return builds == 0 ? 0 : totalMillis / builds;
+        }
+    }
+
+    private static class BuildTimer {
+        private final AtomicLong builds = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong totalMillis = new AtomicLong();
+        private final AtomicLong maxMillis = new AtomicLong();
+
+        void record(long elapsedMillis, boolean succeeded) {
+            builds.incrementAndGet();
+            if (!succeeded) {
+                failures.incrementAndGet();
+            }
+            totalMillis.addAndGet(elapsedMillis);
+            maxMillis.accumulateAndGet(elapsedMillis, Math::max);
+        }
+
+        BuildTiming snapshot(BuildPath path) {
+            return new BuildTiming(path, builds.get(), failures.get(), totalMillis.get(), maxMillis.get());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package edu.byu.cs.autograder.compile;
+
+import edu.byu.cs.properties.ApplicationProperties;
+import edu.byu.cs.util.DirectoryCache;
+import edu.byu.cs.util.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * A content-addressed cache of the compiled classes of each module in a student repo.
+ * <br><br>
+ * Each module is keyed by a hash of its pom, its sources and its libraries, the root pom and
+ * assembly descriptor, the Java version, and the keys of the modules it depends on. Before a build,
+ * the outputs of every module whose key is already cached are copied into the module's
+ * {@code target} directory. Since the copies are newer than the freshly cloned sources, Maven
+ * considers those classes up to date and only compiles the modules that changed.
+ * <br><br>
+ * Builds that use this cache must disable the compiler plugin's incremental module detection with
+ * {@link #getBuildArguments()}; otherwise the plugin recompiles a module whenever the jar of an
+ * upstream module is rebuilt. This is safe because a module is only restored when every module it
+ * depends on is unchanged as well.
+ */
+public class ModuleOutputCache {
+
+    /**
+     * The modules of a student repo, ordered so that each module only depends on modules before it
+     */
+    private static final List<String> MODULES = List.of("shared", "server", "client");
+
+    private static final List<String> OUTPUT_DIRS = List.of("classes", "test-classes");
+
+    /**
+     * Entries that haven't been used for this long are removed
+     */
+    private static final Duration MAX_ENTRY_AGE = Duration.ofDays(14);
+
+    private static ModuleOutputCache instance;
+
+    private final DirectoryCache cache;
+
+    ModuleOutputCache(File cacheDir) {
+        this.cache = new DirectoryCache(cacheDir, MAX_ENTRY_AGE);
+    }
+
+    public static synchronized ModuleOutputCache getInstance() {
+        if (instance == null) {
+            instance = new ModuleOutputCache(new File(ApplicationProperties.cachePath(), "compiled-modules"));
+        }
+        return instance;
+    }
+
+    /**
+     * @return the arguments a Maven build needs to reuse restored module outputs
+     */
+    public List<String> getBuildArguments() {
+        return List.of("-Dmaven.compiler.useIncrementalCompilation=false");
+    }
+
+    /**
+     * Computes the cache key of each module in the repo. Must be called after the repo has been
+     * modified for grading, since the modifications are part of what gets compiled.
+     *
+     * @param stageRepo the student repo
+     * @return the key of each module, by module name
+     * @throws IOException if the repo could not be read
+     */
+    public Map<String, String> computeKeys(File stageRepo) throws IOException {
+        Map<String, String> keys = new LinkedHashMap<>();
+        String upstreamKeys = "";
+        for (String module : MODULES) {
+            File moduleDir = new File(stageRepo, module);
+            String contentHash = FileUtils.hashContents(
+                    new File(stageRepo, "pom.xml"),
+                    new File(stageRepo, "test-dependencies-assembly.xml"),
+                    new File(moduleDir, "pom.xml"),
+                    new File(moduleDir, "src"),
+                    new File(moduleDir, "lib"));
+            String key = FileUtils.hashString(Runtime.version() + "\n" + upstreamKeys + contentHash);
+            keys.put(module, key);
+            upstreamKeys += key + "\n";
+        }
+        return keys;
+    }
+
+    /**
+     * Copies the cached outputs of every module with a matching key into the repo
+     *
+     * @param stageRepo the student repo
+     * @param keys the module keys from {@link #computeKeys(File)}
+     * @return the modules that were restored
+     */
+    public Set<String> restore(File stageRepo, Map<String, String> keys) {
+        Set<String> restored = new LinkedHashSet<>();
+        for (Map.Entry<String, String> moduleKey : keys.entrySet()) {
+            String module = moduleKey.getKey();
+            if (!cache.contains(getEntryKey(module, OUTPUT_DIRS.getFirst(), moduleKey.getValue()))) continue;
+
+            // A missing test-classes entry is fine; Maven compiles whatever is missing
+            File targetDir = new File(stageRepo, module + "/target");
+            for (String outputDir : OUTPUT_DIRS) {
+                cache.restore(getEntryKey(module, outputDir, moduleKey.getValue()), new File(targetDir, outputDir));
+            }
+            restored.add(module);
+        }
+        return restored;
+    }
+
+    /**
+     * Adds the outputs of every module that isn't cached yet. Should only be called after
+     * the repo was built successfully.
+     *
+     * @param stageRepo the student repo
+     * @param keys the module keys from {@link #computeKeys(File)}
+     */
+    public void store(File stageRepo, Map<String, String> keys) {
+        for (Map.Entry<String, String> moduleKey : keys.entrySet()) {
+            String module = moduleKey.getKey();
+            File targetDir = new File(stageRepo, module + "/target");
+            // Store test classes first, so a module only counts as cached once both are stored
+            for (String outputDir : OUTPUT_DIRS.reversed()) {
+                cache.store(getEntryKey(module, outputDir, moduleKey.getValue()), new File(targetDir, outputDir));
+            }
+        }
+    }
+
+    private static String getEntryKey(String module, String outputDir, String key) {
+        return module + "-" + outputDir + "-" + key;
+    }
+}
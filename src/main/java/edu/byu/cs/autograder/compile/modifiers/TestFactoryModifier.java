@@ -3,6 +3,7 @@ package edu.byu.cs.autograder.compile.modifiers;
 import edu.byu.cs.autograder.GradingContext;
 import edu.byu.cs.autograder.GradingException;
 import edu.byu.cs.autograder.compile.StudentCodeModifier;
+import edu.byu.cs.autograder.test.TestHelper;
 import edu.byu.cs.util.FileUtils;
 
 import java.io.File;
@@ -10,7 +11,10 @@ import java.io.File;
 /**
  * Modifies the <code>getMessageTime()</code> method in the test factory in the student's
  * code for phase 6 so the WebSocketTests only wait 1 second, but keeps the student's
- * <code>getGsonBuilder()</code> implementation the same
+ * <code>getGsonBuilder()</code> implementation the same.
+ * <br>
+ * The modified test factory is written to the grader's test overrides rather than the phase's
+ * passoff tests, since those are shared by every submission being graded.
  */
 public class TestFactoryModifier implements StudentCodeModifier {
 
@@ -21,21 +25,22 @@ public class TestFactoryModifier implements StudentCodeModifier {
     @Override
     public void modify(GradingContext context) throws GradingException {
         File phaseTestFactory = new File(context.phasesPath(), "phase6/passoff/server/TestFactory.java");
-        File backupTestFactory = new File(context.phasesPath(), "backup/BackupTestFactory.java");
         File studentTestFactory = new File(context.stageRepo(), "server/src/test/java/passoff/server/TestFactory.java");
+        File overrideTestFactory = new File(TestHelper.getTestOverrides(context.stagePath()),
+                "phase6/passoff/server/TestFactory.java");
 
-        if(!backupTestFactory.exists()) {
-            if(!phaseTestFactory.exists()) throw new GradingException("Could not find phase test factory");
-            FileUtils.copyFile(backupTestFactory, phaseTestFactory);
+        if(!studentTestFactory.exists() && !phaseTestFactory.exists()) {
+            throw new GradingException("Could not find phase test factory");
         }
 
-        String contents = FileUtils.readStringFromFile(studentTestFactory.exists() ? studentTestFactory : backupTestFactory);
+        String contents = FileUtils.readStringFromFile(studentTestFactory.exists() ? studentTestFactory : phaseTestFactory);
 
         if(contents.lines().noneMatch(s -> s.trim().matches(GET_MESSAGE_TIME_REGEX))) {
             throw new GradingException(String.format("Could not find line matching %s (like return 3000L;) in TestFactory (should be in getMessageTime() method)", GET_MESSAGE_TIME_REGEX));
         }
 
         contents = contents.replaceAll(GET_MESSAGE_TIME_REGEX, REPLACEMENT);
-        FileUtils.writeStringToFile(contents, phaseTestFactory);
+        overrideTestFactory.getParentFile().mkdirs();
+        FileUtils.writeStringToFile(contents, overrideTestFactory);
     }
 }
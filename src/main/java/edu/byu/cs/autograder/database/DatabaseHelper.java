@@ -9,66 +9,43 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
 import java.util.Properties;
 
 /**
- * Sets up a MySQL database to test students' database management.
+ * Sets up a MySQL database to test students' database management. The database and its
+ * credentials are borrowed from the {@link GradingDatabasePool}.
  */
 public class DatabaseHelper {
     private static final Logger LOGGER = LoggerFactory.getLogger(DatabaseHelper.class);
-    private static final String HOST;
-    private static final String PORT;
-    private static final String ADMIN_USER;
-    private static final String ADMIN_PASS;
-    private static final String connectionString;
 
-    static {
-        HOST = ApplicationProperties.dbHost();
-        PORT = ApplicationProperties.dbPort();
-        ADMIN_USER = ApplicationProperties.dbUser();
-        ADMIN_PASS = ApplicationProperties.dbPass();
-        connectionString = "jdbc:mysql://" + HOST + ":" + PORT;
-    }
-
-    private final String databaseName;
-    private final String studentUser;
-    private final String studentPass;
     private final GradingContext gradingContext;
+    private GradingDatabasePool.GradingDatabase database;
 
-    public DatabaseHelper(long salt, GradingContext gradingContext) {
+    /**
+     * @param gradingContext the context of the grader
+     */
+    public DatabaseHelper(GradingContext gradingContext) {
         this.gradingContext = gradingContext;
-        this.databaseName = "chessDb" + salt;
-        this.studentUser = "dbUser" + salt;
-        this.studentPass = "dbPass" + salt;
     }
 
     /**
-     * Creates a user and a db config file
+     * Acquires a database and creates a db config file for it
      *
-     * @throws GradingException if there is a failure either creating the user
-     * or the db config file
+     * @throws GradingException if there is a failure either acquiring the database
+     * or creating the db config file
      */
     public void setUp() throws GradingException {
-        createUser();
-        grantPrivileges();
+        database = GradingDatabasePool.getInstance().acquire();
         injectDatabaseConfig(gradingContext.stageRepo());
     }
 
     /**
-     * Cleans up the database and user
+     * Resets the database and returns it to the pool
      */
     public void cleanUp() {
-        try {
-            cleanupDatabase();
-            deleteUser();
-        } catch (GradingException e) {
-            LOGGER.error("Error cleaning up after user {} and repository {}", gradingContext.netId(),
-                    gradingContext.repoUrl(), e);
-        }
+        if (database == null) return;
+        GradingDatabasePool.getInstance().release(database);
+        database = null;
     }
 
     /**
@@ -85,52 +62,18 @@ public class DatabaseHelper {
 
         Properties dbProperties = new Properties();
         try {
-            dbProperties.put("db.name", databaseName);
-            dbProperties.put("db.host", HOST);
-            dbProperties.put("db.port", PORT);
-            dbProperties.put("db.user", studentUser);
-            dbProperties.put("db.password", studentPass);
+            dbProperties.put("db.name", database.name());
+            dbProperties.put("db.host", ApplicationProperties.dbHost());
+            dbProperties.put("db.port", ApplicationProperties.dbPort());
+            dbProperties.put("db.user", database.user());
+            dbProperties.put("db.password", database.password());
             try(FileOutputStream os = new FileOutputStream(dbPropertiesFile.getAbsolutePath())) {
                 dbProperties.store(os, "");
                 os.flush();
             }
         } catch (IOException e) {
+            LOGGER.error("Could not add db config for user {}", gradingContext.netId(), e);
             throw new GradingException("Could not add db config", e);
         }
     }
-
-    private void createUser() throws GradingException {
-        executeUpdate("CREATE USER IF NOT EXISTS ?@'%' IDENTIFIED BY ?",
-                "Failed to setup environment",
-                studentUser, studentPass);
-    }
-
-    private void grantPrivileges() throws GradingException {
-        executeUpdate("GRANT ALL ON `" + databaseName + "`.* TO ?@'%'",
-                "Failed to setup environment",
-                studentUser);
-    }
-
-    private void cleanupDatabase() throws GradingException {
-        executeUpdate("DROP DATABASE IF EXISTS " + databaseName, "Failed to cleanup database");
-    }
-
-    private void deleteUser() throws GradingException {
-        executeUpdate("DROP USER IF EXISTS ?@'%'",
-                "Failed to cleanup environment",
-                studentUser);
-    }
-
-    private void executeUpdate(String statement, String errorMessage, String... params) throws GradingException {
-        try (Connection conn = DriverManager.getConnection(connectionString, ADMIN_USER, ADMIN_PASS);
-             PreparedStatement ps = conn.prepareStatement(statement)) {
-            for (var i = 0; i < params.length; i++) {
-                ps.setString(i + 1, params[i]);
-            }
-            ps.executeUpdate();
-        } catch (SQLException e) {
-            LOGGER.error(errorMessage, e);
-            throw new GradingException(errorMessage, e);
-        }
-    }
 }
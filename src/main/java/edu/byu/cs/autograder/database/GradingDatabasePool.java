@@ -0,0 +1,214 @@
+package edu.byu.cs.autograder.database;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import edu.byu.cs.autograder.GradingException;
+import edu.byu.cs.properties.ApplicationProperties;
+import edu.byu.cs.util.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.security.SecureRandom;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of MySQL users and databases that graders hand to students' code.
+ * <br><br>
+ * Creating and dropping a user for every submission is slow, so each user is created once and
+ * reused. A grading database is reset when it is released: the student's connections are closed and
+ * the database is dropped, so the next grader starts with an empty database. Every time a database
+ * is acquired its user gets a new password, so code from a previous submission can't connect to it.
+ * <br><br>
+ * Databases are named after their position in the pool and a hash of the AutoGrader's own database
+ * name, so the names never depend on when a grader started and never collide between graders, or
+ * between AutoGrader instances sharing a MySQL server. A database that can't be reset is left out of
+ * the pool, and its position is given to the next database that is created, which resets it.
+ */
+public class GradingDatabasePool {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GradingDatabasePool.class);
+
+    private static GradingDatabasePool instance;
+
+    private final String namePrefix;
+    private final DataSource adminDataSource;
+    private final ConcurrentLinkedQueue<GradingDatabase> idle = new ConcurrentLinkedQueue<>();
+    /** The number of databases that exist, whether idle or in use */
+    private final AtomicInteger created = new AtomicInteger();
+    /** The next position that has never been used */
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    /** Positions whose database failed to be created or reset, to be used again first */
+    private final ConcurrentLinkedQueue<Integer> freeIndexes = new ConcurrentLinkedQueue<>();
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * @param namePrefix the prefix of every database and user name
+     * @param adminDataSource connections of a MySQL user that can create users and databases
+     */
+    GradingDatabasePool(String namePrefix, DataSource adminDataSource) {
+        this.namePrefix = namePrefix;
+        this.adminDataSource = adminDataSource;
+    }
+
+    public static synchronized GradingDatabasePool getInstance() {
+        if (instance == null) {
+            HikariConfig config = new HikariConfig();
+            config.setJdbcUrl("jdbc:mysql://" + ApplicationProperties.dbUrl());
+            config.setUsername(ApplicationProperties.dbUser());
+            config.setPassword(ApplicationProperties.dbPass());
+            config.setPoolName("grading-database-admin");
+            config.setMaximumPoolSize(2);
+            config.setMinimumIdle(0);
+
+            // MySQL user names are limited to 32 characters
+            String namePrefix = FileUtils.hashString(ApplicationProperties.dbName()).substring(0, 8) + "_";
+            instance = new GradingDatabasePool(namePrefix, new HikariDataSource(config));
+        }
+        return instance;
+    }
+
+    /**
+     * A MySQL database and the credentials of the only user that can access it
+     *
+     * @param index the position of the database in the pool, which its names are made from
+     * @param name the name of the database
+     * @param user the name of the user
+     * @param password the current password of the user
+     */
+    public record GradingDatabase(int index, String name, String user, String password) {}
+
+    /**
+     * Creates databases until the pool holds at least the given number, so the first graders
+     * don't have to wait for them to be created
+     *
+     * @param count the number of databases to have ready
+     */
+    public void provision(int count) {
+        while (created.get() < count) {
+            try {
+                idle.offer(create());
+            } catch (GradingException e) {
+                LOGGER.warn("Could not provision grading databases", e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Takes a database out of the pool, creating a new one if none are available
+     *
+     * @return a database with freshly generated credentials
+     * @throws GradingException if a database could not be created or its credentials could not be changed
+     */
+    public GradingDatabase acquire() throws GradingException {
+        GradingDatabase database = idle.poll();
+        if (database == null) {
+            return create();
+        }
+
+        GradingDatabase withPassword =
+                new GradingDatabase(database.index(), database.name(), database.user(), newPassword());
+        try (Connection connection = adminDataSource.getConnection()) {
+            execute(connection, "ALTER USER ?@'%' IDENTIFIED BY ?", withPassword.user(), withPassword.password());
+            return withPassword;
+        } catch (SQLException e) {
+            LOGGER.error("Failed to set up grading database {}", database.name(), e);
+            idle.offer(database);
+            throw new GradingException("Failed to setup environment", e);
+        }
+    }
+
+    /**
+     * Resets a database and returns it to the pool. A database that can't be reset is left out of the
+     * pool, and is replaced by the next database that is created, which reuses its name and resets it.
+     *
+     * @param database a database from {@link #acquire()}
+     */
+    public void release(GradingDatabase database) {
+        try (Connection connection = adminDataSource.getConnection()) {
+            reset(connection, database);
+            idle.offer(database);
+        } catch (SQLException e) {
+            LOGGER.error("Failed to reset grading database {}", database.name(), e);
+            created.decrementAndGet();
+            freeIndexes.offer(database.index());
+        }
+    }
+
+    /**
+     * @return the number of databases that exist, whether idle or in use
+     */
+    int size() {
+        return created.get();
+    }
+
+    private GradingDatabase create() throws GradingException {
+        Integer freeIndex = freeIndexes.poll();
+        int index = freeIndex != null ? freeIndex : nextIndex.getAndIncrement();
+        GradingDatabase database = new GradingDatabase(index, "chessDb_" + namePrefix + index,
+                "dbUser_" + namePrefix + index, newPassword());
+        try (Connection connection = adminDataSource.getConnection()) {
+            execute(connection, "CREATE USER IF NOT EXISTS ?@'%' IDENTIFIED BY ?", database.user(), database.password());
+            // The user may be left over from before a restart, with an old password
+            execute(connection, "ALTER USER ?@'%' IDENTIFIED BY ?", database.user(), database.password());
+            reset(connection, database);
+            execute(connection, "GRANT ALL ON `" + database.name() + "`.* TO ?@'%'", database.user());
+            created.incrementAndGet();
+            return database;
+        } catch (SQLException e) {
+            LOGGER.error("Failed to create grading database {}", database.name(), e);
+            freeIndexes.offer(index);
+            throw new GradingException("Failed to setup environment", e);
+        }
+    }
+
+    /**
+     * Closes any connections the student's code left open, then drops the database
+     */
+    private static void reset(Connection connection, GradingDatabase database) throws SQLException {
+        List<Long> connectionIds = new ArrayList<>();
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT ID FROM information_schema.PROCESSLIST WHERE USER = ?")) {
+            ps.setString(1, database.user());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    connectionIds.add(rs.getLong(1));
+                }
+            }
+        }
+        for (long connectionId : connectionIds) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("KILL " + connectionId);
+            } catch (SQLException e) {
+                // The connection may have closed on its own in the meantime
+                LOGGER.debug("Could not kill connection {} of {}", connectionId, database.user(), e);
+            }
+        }
+        execute(connection, "DROP DATABASE IF EXISTS `" + database.name() + "`");
+    }
+
+    private static void execute(Connection connection, String statement, String... params) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(statement)) {
+            for (var i = 0; i < params.length; i++) {
+                ps.setString(i + 1, params[i]);
+            }
+            ps.executeUpdate();
+        }
+    }
+
+    private String newPassword() {
+        byte[] bytes = new byte[18];
+        random.nextBytes(bytes);
+        return HexFormat.of().formatHex(bytes);
+    }
+}
@@ -14,7 +14,6 @@ import edu.byu.cs.model.Submission;
 import edu.byu.cs.util.FileUtils;
 import edu.byu.cs.util.PhaseUtils;
 import org.eclipse.jgit.annotations.NonNull;
-import org.eclipse.jgit.api.CloneCommand;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.errors.IncorrectObjectTypeException;
@@ -100,12 +99,13 @@ public class GitHelper {
     }
 
     /**
-     * Fetches the student repo and puts it in the given local path
+     * Fetches the student repo and puts it in the given local path. The history is only fetched
+     * when the commits will be verified.
      */
     private void fetchRepo(File intoDirectory) throws GradingException {
         gradingContext.observer().update("Fetching repo...");
 
-        fetchRepoFromUrl(gradingContext.repoUrl(), intoDirectory);
+        fetchRepoFromUrl(gradingContext.repoUrl(), intoDirectory, shouldVerifyCommits());
     }
 
     /**
@@ -129,7 +129,8 @@ public class GitHelper {
     }
 
     /**
-     * Clones a repo URL into the specified directory on the local machine.
+     * Clones a repo URL into the specified directory on the local machine. Only the objects that are new
+     * since the repo was last fetched are downloaded; see {@link RepoMirrorCache}.
      *
      * @param repoUrl A string URL to clone
      * @param intoDirectory A {@link File} representing the target location.
@@ -137,15 +138,23 @@ public class GitHelper {
      *                          When this occurs, the temporary directory will have any remnants of the partially complete clone command.
      */
     public static void fetchRepoFromUrl(String repoUrl, File intoDirectory) throws GradingException {
-        CloneCommand cloneCommand = Git.cloneRepository()
-                .setURI(repoUrl)
-                .setDirectory(intoDirectory);
-
-        try (Git git = cloneCommand.call()) {
-            LOGGER.info("Cloned repo to {}", git.getRepository().getDirectory());
-        } catch (GitAPIException e) {
-            throw new GradingException("Failed to clone repo: " + e.getMessage(), e);
-        }
+        fetchRepoFromUrl(repoUrl, intoDirectory, true);
+    }
+
+    /**
+     * Clones a repo URL into the specified directory on the local machine, optionally without its history.
+     *
+     * @param repoUrl A string URL to clone
+     * @param intoDirectory A {@link File} representing the target location.
+     * @param includeHistory Whether the full history is needed. When false, only the head commit is fetched,
+     *                       and only the top level files and the {@code shared}, {@code server} and
+     *                       {@code client} modules are checked out.
+     * @throws GradingException When the repo cannot be cloned.
+     */
+    public static void fetchRepoFromUrl(String repoUrl, File intoDirectory, boolean includeHistory)
+            throws GradingException {
+        RepoMirrorCache.getInstance().cloneInto(repoUrl, intoDirectory, includeHistory);
+        LOGGER.info("Cloned repo to {}", intoDirectory);
     }
 
     // Early decisions
@@ -0,0 +1,349 @@
+package edu.byu.cs.autograder.git;
+
+import edu.byu.cs.autograder.GradingException;
+import edu.byu.cs.properties.ApplicationProperties;
+import edu.byu.cs.util.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.api.errors.InvalidRemoteException;
+import org.eclipse.jgit.api.errors.JGitInternalException;
+import org.eclipse.jgit.api.errors.TransportException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.StoredConfig;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.transport.FetchResult;
+import org.eclipse.jgit.transport.TagOpt;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a local bare mirror of every repo that is fetched, so a repo only has to be downloaded once.
+ * Later fetches of the same repo only download the objects that are new since the last fetch, and
+ * the working copy used for grading is cloned from the local mirror.
+ * <br><br>
+ * Mirrors that haven't been used for longer than the maximum age are removed. When the mirrors take
+ * more space than the disk budget, the least recently used mirrors are removed until they fit.
+ */
+public class RepoMirrorCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RepoMirrorCache.class);
+
+    private static final Duration MAX_MIRROR_AGE = Duration.ofDays(30);
+
+    /**
+     * How often mirrors are checked for eviction, since that requires measuring every mirror
+     */
+    private static final Duration EVICTION_INTERVAL = Duration.ofHours(1);
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * The directories checked out when the history of a repo isn't needed
+     */
+    private static final Set<String> MODULES = Set.of("shared", "server", "client");
+
+    private static RepoMirrorCache instance;
+
+    private final File root;
+    private final Duration maxMirrorAge;
+    private final long diskBudgetBytes;
+    private final ConcurrentHashMap<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+    private Instant lastEviction = Instant.now();
+
+    /**
+     * @param root the directory the mirrors are stored in
+     * @param maxMirrorAge how long a mirror may go unused before it is removed
+     * @param diskBudgetBytes how much space all mirrors may take together
+     */
+    RepoMirrorCache(File root, Duration maxMirrorAge, long diskBudgetBytes) {
+        this.root = root.getAbsoluteFile();
+        this.maxMirrorAge = maxMirrorAge;
+        this.diskBudgetBytes = diskBudgetBytes;
+    }
+
+    public static synchronized RepoMirrorCache getInstance() {
+        if (instance == null) {
+            instance = new RepoMirrorCache(new File(ApplicationProperties.cachePath(), "git-mirrors"),
+                    MAX_MIRROR_AGE, ApplicationProperties.gitMirrorBudgetMegabytes() * 1024 * 1024);
+        }
+        return instance;
+    }
+
+    /**
+     * Clones a repo into a directory, fetching any new objects into the repo's mirror first.
+     * The {@code origin} remote of the clone points at the original repo URL.
+     * <br><br>
+     * When the history isn't needed, the clone only contains the head commit, and only the files
+     * at the top level of the repo and in the {@link #MODULES} are checked out.
+     *
+     * @param repoUrl the URL of the repo
+     * @param intoDirectory the directory to clone into
+     * @param includeHistory whether the clone needs the full commit history and every file
+     * @throws GradingException if the repo could not be fetched or cloned
+     */
+    public void cloneInto(String repoUrl, File intoDirectory, boolean includeHistory) throws GradingException {
+        String key = FileUtils.hashString(repoUrl);
+        ReentrantLock lock = locks.computeIfAbsent(key, k -> new ReentrantLock());
+        lock.lock();
+        try {
+            File mirror = getMirror(key);
+            updateMirror(repoUrl, mirror);
+            if (includeHistory) {
+                cloneFromMirror(repoUrl, mirror, intoDirectory);
+            } else {
+                cloneHeadFromMirror(repoUrl, mirror, intoDirectory);
+            }
+        } finally {
+            lock.unlock();
+        }
+        evictIfDue();
+    }
+
+    private void updateMirror(String repoUrl, File mirror) throws GradingException {
+        if (mirror.exists()) {
+            if (fetchIntoMirror(repoUrl, mirror)) return;
+            FileUtils.removeDirectory(mirror);
+        }
+
+        File tempMirror = new File(root, mirror.getName() + "-" + UUID.randomUUID() + TEMP_SUFFIX);
+        try {
+            createMirror(repoUrl, tempMirror);
+            Files.move(tempMirror.toPath(), mirror.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (GitAPIException | JGitInternalException e) {
+            throw new GradingException("Failed to clone repo: " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new GradingException("Failed to store mirror of repo: " + e.getMessage(), e);
+        } finally {
+            FileUtils.removeDirectory(tempMirror);
+        }
+    }
+
+    /**
+     * Creates a bare mirror of a repo. This is what a bare clone does, except that the mirror is
+     * configured before anything is fetched into it.
+     */
+    private static void createMirror(String repoUrl, File mirror) throws GitAPIException, IOException {
+        try (Git git = Git.init().setBare(true).setDirectory(mirror).call()) {
+            StoredConfig config = git.getRepository().getConfig();
+            config.setString("remote", Constants.DEFAULT_REMOTE_NAME, "url", repoUrl);
+            config.setString("remote", Constants.DEFAULT_REMOTE_NAME, "fetch",
+                    "+" + Constants.R_HEADS + "*:" + Constants.R_HEADS + "*");
+            config.save();
+            keepGcInForeground(git.getRepository());
+
+            FetchResult result = git.fetch()
+                    .setRemote(Constants.DEFAULT_REMOTE_NAME)
+                    .setTagOpt(TagOpt.FETCH_TAGS)
+                    .call();
+            followRemoteHead(git, result);
+        }
+    }
+
+    /**
+     * Fetches any new objects of a repo into its existing mirror. A mirror is only reported as
+     * unusable when the mirror itself can't be read; when the repo can't be reached, the mirror is
+     * kept for the next attempt.
+     *
+     * @return whether the mirror was updated, or false if it is damaged and must be mirrored again
+     * @throws GradingException if the repo could not be fetched
+     */
+    private static boolean fetchIntoMirror(String repoUrl, File mirror) throws GradingException {
+        try (Git git = Git.open(mirror)) {
+            keepGcInForeground(git.getRepository());
+            FetchResult result = git.fetch()
+                    .setRemote(Constants.DEFAULT_REMOTE_NAME)
+                    .setRemoveDeletedRefs(true)
+                    .setTagOpt(TagOpt.FETCH_TAGS)
+                    .call();
+            followRemoteHead(git, result);
+            touch(mirror);
+            return true;
+        } catch (TransportException | InvalidRemoteException e) {
+            throw new GradingException("Failed to fetch repo: " + e.getMessage(), e);
+        } catch (IOException | GitAPIException | JGitInternalException e) {
+            LOGGER.warn("Mirror {} of {} could not be read, mirroring it again", mirror, repoUrl, e);
+            return false;
+        }
+    }
+
+    /**
+     * Points the mirror's {@code HEAD} at the remote's default branch, in case it changed since the
+     * repo was first mirrored
+     */
+    private static void followRemoteHead(Git git, FetchResult result) throws IOException {
+        Ref remoteHead = result.getAdvertisedRef(Constants.HEAD);
+        if (remoteHead == null || !remoteHead.isSymbolic()) return;
+
+        String branch = remoteHead.getTarget().getName();
+        Ref localHead = git.getRepository().exactRef(Constants.HEAD);
+        if (localHead != null && localHead.isSymbolic() && localHead.getTarget().getName().equals(branch)) return;
+
+        RefUpdate update = git.getRepository().updateRef(Constants.HEAD);
+        update.link(branch);
+    }
+
+    private static void cloneFromMirror(String repoUrl, File mirror, File intoDirectory) throws GradingException {
+        try (Git git = Git.cloneRepository()
+                .setURI(mirror.toURI().toString())
+                .setDirectory(intoDirectory)
+                .call()) {
+            setOriginUrl(git, repoUrl);
+        } catch (GitAPIException | IOException e) {
+            throw new GradingException("Failed to clone repo: " + e.getMessage(), e);
+        }
+    }
+
+    private static void cloneHeadFromMirror(String repoUrl, File mirror, File intoDirectory) throws GradingException {
+        try (Git git = Git.cloneRepository()
+                .setURI(mirror.toURI().toString())
+                .setDirectory(intoDirectory)
+                .setDepth(1)
+                .setNoCheckout(true)
+                .call()) {
+            setOriginUrl(git, repoUrl);
+
+            Repository repository = git.getRepository();
+            ObjectId head = repository.resolve(Constants.HEAD);
+            if (head == null) return;
+
+            List<String> paths = new ArrayList<>();
+            try (RevWalk revWalk = new RevWalk(repository);
+                 TreeWalk treeWalk = new TreeWalk(repository)) {
+                treeWalk.addTree(revWalk.parseCommit(head).getTree());
+                while (treeWalk.next()) {
+                    if (!treeWalk.isSubtree() || MODULES.contains(treeWalk.getPathString())) {
+                        paths.add(treeWalk.getPathString());
+                    }
+                }
+            }
+            if (paths.isEmpty()) return;
+
+            git.checkout().setStartPoint(head.getName()).addPaths(paths).call();
+        } catch (GitAPIException | IOException e) {
+            throw new GradingException("Failed to clone repo: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Makes the automatic gc that follows a fetch run before the fetch returns, while the mirror is
+     * still locked, instead of in the background. A background gc would still be writing to the mirror
+     * while it is moved into place, fetched into again, or evicted.
+     */
+    private static void keepGcInForeground(Repository repository) throws IOException {
+        StoredConfig config = repository.getConfig();
+        if (!config.getBoolean("gc", "autoDetach", true)) return;
+        config.setBoolean("gc", null, "autoDetach", false);
+        config.save();
+    }
+
+    private static void setOriginUrl(Git git, String repoUrl) throws IOException {
+        StoredConfig config = git.getRepository().getConfig();
+        config.setString("remote", Constants.DEFAULT_REMOTE_NAME, "url", repoUrl);
+        config.save();
+    }
+
+    private void evictIfDue() {
+        synchronized (this) {
+            Instant now = Instant.now();
+            if (lastEviction.plus(EVICTION_INTERVAL).isAfter(now)) return;
+            lastEviction = now;
+        }
+        evictMirrors();
+    }
+
+    /**
+     * Removes every mirror that is older than the maximum age, then removes the least recently used
+     * mirrors until the remaining ones fit within the disk budget. Mirrors that are in use are skipped.
+     */
+    void evictMirrors() {
+        File[] mirrors = root.listFiles();
+        if (mirrors == null) return;
+
+        Instant cutoff = Instant.now().minus(maxMirrorAge);
+        List<MirrorUsage> remaining = new ArrayList<>();
+        long totalBytes = 0;
+        for (File mirror : mirrors) {
+            if (mirror.getName().endsWith(TEMP_SUFFIX)) continue;
+            Instant lastUsed = Instant.ofEpochMilli(mirror.lastModified());
+            if (lastUsed.isBefore(cutoff) && tryRemove(mirror)) continue;
+
+            long size = sizeOf(mirror);
+            remaining.add(new MirrorUsage(mirror, lastUsed, size));
+            totalBytes += size;
+        }
+
+        remaining.sort(Comparator.comparing(MirrorUsage::lastUsed));
+        for (MirrorUsage usage : remaining) {
+            if (totalBytes <= diskBudgetBytes) break;
+            if (tryRemove(usage.mirror())) {
+                totalBytes -= usage.bytes();
+            }
+        }
+    }
+
+    private boolean tryRemove(File mirror) {
+        ReentrantLock lock = locks.computeIfAbsent(mirror.getName(), k -> new ReentrantLock());
+        if (!lock.tryLock()) return false;
+        try {
+            LOGGER.debug("Evicting repo mirror {}", mirror);
+            FileUtils.removeDirectory(mirror);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private File getMirror(String key) {
+        return new File(root, key);
+    }
+
+    private static void touch(File mirror) {
+        try {
+            Files.setLastModifiedTime(mirror.toPath(), FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            LOGGER.warn("Could not mark mirror {} as used", mirror, e);
+        }
+    }
+
+    private static long sizeOf(File mirror) {
+        try (Stream<Path> paths = Files.walk(mirror.toPath())) {
+            return paths.mapToLong(path -> {
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                    return attributes.isRegularFile() ? attributes.size() : 0;
+                } catch (IOException e) {
+                    return 0;
+                }
+            }).sum();
+        } catch (IOException | UncheckedIOException e) {
+            LOGGER.warn("Could not measure mirror {}", mirror, e);
+            return 0;
+        }
+    }
+
+    private record MirrorUsage(File mirror, Instant lastUsed, long bytes) {}
+}
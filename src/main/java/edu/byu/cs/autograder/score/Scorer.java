@@ -2,6 +2,8 @@ package edu.byu.cs.autograder.score;
 
 import edu.byu.cs.autograder.GradingContext;
 import edu.byu.cs.autograder.GradingException;
+import edu.byu.cs.autograder.GradingMetrics;
+import edu.byu.cs.autograder.GradingStage;
 import edu.byu.cs.autograder.git.CommitVerificationReport;
 import edu.byu.cs.autograder.git.CommitVerificationResult;
 import edu.byu.cs.canvas.CanvasException;
@@ -142,7 +144,9 @@ public class Scorer {
         }
 
         CommitVerificationResult commitVerificationResult = commitVerificationReport.result();
-        AssessmentSubmittalRemnants submittalRemnants = attemptSendToCanvas(rubric, commitVerificationResult);
+        AssessmentSubmittalRemnants submittalRemnants = GradingMetrics.getInstance()
+                .<AssessmentSubmittalRemnants, DataAccessException, GradingException>timed(GradingStage.CANVAS_UPLOAD,
+                        gradingContext.phase(), () -> attemptSendToCanvas(rubric, commitVerificationResult));
         return generateSubmissionObject(rubric, commitVerificationReport, daysLate, scores, submittalRemnants.notes);
     }
 
@@ -495,7 +499,8 @@ public class Scorer {
                 verifiedStatus,
                 commitVerificationReport.context(),
                 commitVerificationResult,
-                null
+                null,
+                gradingContext.resourceUsage().snapshot()
         );
     }
 
@@ -0,0 +1,151 @@
+package edu.byu.cs.autograder.test;
+
+import com.sun.source.util.JavacTask;
+import edu.byu.cs.util.FileUtils;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.Elements;
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Reads the API of compiled classes the way {@code javac} sees it when it compiles code against them:
+ * their names, supertypes, and the signatures and constant values of every member that isn't private.
+ * <br><br>
+ * Code compiled against a set of classes only depends on their API, so two sets of classes with
+ * the same API produce identical compiled tests. This lets the {@link CompiledTestCache} reuse
+ * compiled passoff tests across students whose implementations differ only in private members
+ * or method bodies.
+ * <br><br>
+ * The classes are read with the {@link javax.lang.model} API of the system compiler, so none of
+ * their code is run.
+ */
+class CompiledApiReader {
+
+    private CompiledApiReader() {}
+
+    /**
+     * Describes the API of every class file in the given directories
+     *
+     * @param classDirectories directories containing compiled classes; missing directories are skipped
+     * @param classpath the jars the classes depend on, used to resolve their supertypes
+     * @return a description that only changes when the API of the classes changes
+     * @throws IOException if the classes could not be read
+     */
+    static String describe(List<File> classDirectories, List<File> classpath) throws IOException {
+        TreeMap<String, File> classFiles = new TreeMap<>();
+        List<File> searchPath = new ArrayList<>();
+        for (File directory : classDirectories) {
+            if (!directory.isDirectory()) continue;
+            searchPath.add(directory);
+            findTopLevelClasses(directory, classFiles);
+        }
+        for (File entry : classpath) {
+            if (entry.exists()) searchPath.add(entry);
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IOException("The running JVM does not provide a Java compiler");
+        }
+        try (StandardJavaFileManager fileManager =
+                     compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            fileManager.setLocation(StandardLocation.CLASS_PATH, searchPath);
+            JavacTask task = (JavacTask) compiler.getTask(Writer.nullWriter(), fileManager, diagnostic -> {},
+                    List.of("-proc:none"), null, List.of());
+            Elements elements = task.getElements();
+
+            StringBuilder description = new StringBuilder();
+            for (var classFile : classFiles.entrySet()) {
+                try {
+                    TypeElement type = elements.getTypeElement(classFile.getKey());
+                    if (type == null) {
+                        throw new IllegalStateException("Class not found");
+                    }
+                    describeType(type, elements, description);
+                } catch (RuntimeException e) {
+                    // A class javac can't read can't be compared by its API, so compare its contents instead
+                    description.append("unreadable ").append(classFile.getKey()).append(' ')
+                            .append(FileUtils.hashContents(classFile.getValue())).append('\n');
+                }
+            }
+            return description.toString();
+        }
+    }
+
+    /**
+     * Finds the classes in a directory that aren't nested in another class, by their canonical name.
+     * Nested classes that are part of the API are described with the class they are nested in.
+     */
+    private static void findTopLevelClasses(File directory, TreeMap<String, File> classFiles) throws IOException {
+        Path root = directory.toPath();
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.filter(p -> p.toString().endsWith(".class")).toList()) {
+                String fileName = path.getFileName().toString();
+                if (fileName.contains("$") || fileName.equals("module-info.class")
+                        || fileName.equals("package-info.class")) continue;
+                String relativePath = root.relativize(path).toString();
+                String name = relativePath.substring(0, relativePath.length() - ".class".length())
+                        .replace(File.separatorChar, '.');
+                classFiles.putIfAbsent(name, path.toFile());
+            }
+        }
+    }
+
+    private static void describeType(TypeElement type, Elements elements, StringBuilder description) {
+        description.append(type.getKind()).append(' ').append(type.getModifiers()).append(' ')
+                .append(type.getQualifiedName()).append(typeParameters(type.getTypeParameters()))
+                .append(" extends ").append(type.getSuperclass())
+                .append(" implements ").append(type.getInterfaces())
+                .append(" permits ").append(type.getPermittedSubclasses()).append('\n');
+
+        for (Element member : type.getEnclosedElements()) {
+            if (member.getModifiers().contains(Modifier.PRIVATE)) continue;
+            switch (member) {
+                case TypeElement nested -> describeType(nested, elements, description);
+                case ExecutableElement executable -> description.append("  ").append(executable.getKind())
+                        .append(' ').append(executable.getModifiers())
+                        .append(typeParameters(executable.getTypeParameters())).append(' ')
+                        .append(executable.getReturnType()).append(' ').append(executable.getSimpleName())
+                        .append(executable.getParameters().stream().map(p -> p.asType().toString()).toList())
+                        .append(executable.isVarArgs() ? " varargs" : "")
+                        .append(" throws ").append(executable.getThrownTypes()).append('\n');
+                case VariableElement variable -> {
+                    description.append("  ").append(variable.getKind()).append(' ').append(variable.getModifiers())
+                            .append(' ').append(variable.asType()).append(' ').append(variable.getSimpleName());
+                    // Constants are copied into the code that uses them
+                    Object constant = variable.getConstantValue();
+                    if (constant != null) {
+                        description.append(" = ").append(elements.getConstantExpression(constant));
+                    }
+                    description.append('\n');
+                }
+                default -> description.append("  ").append(member.getKind()).append(' ')
+                        .append(member.getSimpleName()).append(' ').append(member.asType()).append('\n');
+            }
+        }
+    }
+
+    private static String typeParameters(List<? extends TypeParameterElement> typeParameters) {
+        if (typeParameters.isEmpty()) return "";
+        return typeParameters.stream().map(parameter -> parameter + " extends " + parameter.getBounds()).toList()
+                .toString();
+    }
+}
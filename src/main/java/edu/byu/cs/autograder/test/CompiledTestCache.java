@@ -0,0 +1,141 @@
+package edu.byu.cs.autograder.test;
+
+import edu.byu.cs.properties.ApplicationProperties;
+import edu.byu.cs.util.DirectoryCache;
+import edu.byu.cs.util.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A cache of compiled passoff tests, so the passoff tests of a phase are compiled once
+ * and reused by later submissions instead of being compiled for every submission.
+ * <br><br>
+ * Passoff tests are compiled against the student's classes, so compiled tests can only be
+ * reused by students whose classes have the same API. Each entry is therefore keyed by:
+ * <ul>
+ *     <li>The test sources that were compiled, which covers changes to the phase resources</li>
+ *     <li>The passoff dependencies jar and the reference poms, which determine the libraries
+ *     the tests compile against</li>
+ *     <li>The API of the student's compiled classes, as read by {@link CompiledApiReader}</li>
+ *     <li>The Java version</li>
+ * </ul>
+ */
+public class CompiledTestCache {
+
+    /**
+     * The modules of a student repo, ordered so that each module only depends on modules before it
+     */
+    private static final List<String> MODULES = List.of("shared", "server", "client");
+
+    private static final Duration MAX_ENTRY_AGE = Duration.ofDays(14);
+
+    private static final int MAX_STUDENT_APIS = 16;
+
+    private static CompiledTestCache instance;
+
+    private final DirectoryCache cache;
+    private final File phasesDir;
+
+    /**
+     * The API of the student's classes by the dependencies jar they were packaged into, so the API
+     * is only read once for each build of a student repo
+     */
+    private final Map<String, String> studentApis = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_STUDENT_APIS;
+        }
+    });
+
+    CompiledTestCache(File cacheDir, File phasesDir) {
+        this.cache = new DirectoryCache(cacheDir, MAX_ENTRY_AGE);
+        this.phasesDir = phasesDir;
+    }
+
+    public static synchronized CompiledTestCache getInstance() {
+        if (instance == null) {
+            instance = new CompiledTestCache(new File(ApplicationProperties.cachePath(), "compiled-tests"),
+                    new File("phases"));
+        }
+        return instance;
+    }
+
+    /**
+     * Computes the key of a set of compiled tests
+     *
+     * @param sources the test source files that are compiled, by their path relative to the
+     *                directory containing their tests location
+     * @param stageRepo the student repo, after it has been built
+     * @param module the module the tests are compiled against
+     * @return the key of the compiled tests
+     * @throws IOException if a source or class file could not be read
+     */
+    String computeKey(Map<String, File> sources, File stageRepo, String module) throws IOException {
+        StringBuilder keyContents = new StringBuilder(Runtime.version().toString()).append('\n');
+        for (Map.Entry<String, File> source : new TreeMap<>(sources).entrySet()) {
+            keyContents.append(source.getKey()).append(' ')
+                    .append(FileUtils.hashContents(source.getValue())).append('\n');
+        }
+        keyContents.append(FileUtils.hashContents(new File(phasesDir, "libs"), new File(phasesDir, "pom")))
+                .append('\n');
+        keyContents.append(getStudentApi(stageRepo, module));
+        return FileUtils.hashString(keyContents.toString());
+    }
+
+    /**
+     * Gets the hash of the API of the student's classes that the tests of a module compile against
+     */
+    private String getStudentApi(File stageRepo, String module) throws IOException {
+        File dependenciesJar = new File(stageRepo, module + "/target/" + module + "-test-dependencies.jar");
+        String buildId = dependenciesJar.getCanonicalPath() + ' ' + dependenciesJar.lastModified() + ' '
+                + dependenciesJar.length();
+        String api = studentApis.get(buildId);
+        if (api == null) {
+            api = FileUtils.hashString(CompiledApiReader.describe(getStudentClassDirectories(stageRepo, module),
+                    List.of(dependenciesJar)));
+            studentApis.put(buildId, api);
+        }
+        return api;
+    }
+
+    /**
+     * Gets the directories of the student's classes that end up on the classpath of the given module's
+     * tests: the classes of the module and of each module it depends on, plus the shared test classes,
+     * which the other modules depend on for testing.
+     */
+    private static List<File> getStudentClassDirectories(File stageRepo, String module) {
+        List<File> directories = new ArrayList<>();
+        for (String dependency : MODULES) {
+            directories.add(new File(stageRepo, dependency + "/target/classes"));
+            if (dependency.equals(module)) break;
+        }
+        if (!module.equals(MODULES.getFirst())) {
+            directories.add(new File(stageRepo, MODULES.getFirst() + "/target/test-classes"));
+        }
+        return directories;
+    }
+
+    /**
+     * Copies the compiled tests with the given key into a directory
+     *
+     * @return true if the compiled tests were found in the cache
+     */
+    boolean restore(String key, File compiledTests) {
+        return cache.restore(key, compiledTests);
+    }
+
+    /**
+     * Stores compiled tests under the given key
+     */
+    void store(String key, File compiledTests) {
+        cache.store(key, compiledTests);
+    }
+}
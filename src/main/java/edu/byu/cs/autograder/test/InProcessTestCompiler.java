@@ -0,0 +1,58 @@
+package edu.byu.cs.autograder.test;
+
+import edu.byu.cs.autograder.GradingException;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles tests with the {@link JavaCompiler} of the running JVM, which avoids starting a new
+ * JVM for every compilation and lets the compiler stay loaded and optimized between submissions.
+ * <br><br>
+ * Each compilation uses its own file manager, since file managers aren't thread safe. A file manager
+ * keeps every jar it reads open until it is closed, and resetting its locations or flushing it doesn't
+ * release them. So the file manager is closed as soon as its compilation is done, rather than reused,
+ * to avoid holding the jar of each graded submission open after the submission is deleted.
+ */
+class InProcessTestCompiler implements TestCompiler {
+
+    private final JavaCompiler compiler;
+
+    InProcessTestCompiler() {
+        compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("The running JVM does not provide a Java compiler");
+        }
+    }
+
+    @Override
+    public Result compile(File testsLocation, File outputDir, List<String> classpath, Map<String, File> sources)
+            throws GradingException {
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+            List<File> classpathFiles = new ArrayList<>();
+            classpathFiles.add(testsLocation.getAbsoluteFile());
+            for (String entry : classpath) {
+                classpathFiles.add(new File(entry));
+            }
+            Files.createDirectories(outputDir.toPath());
+            fileManager.setLocation(StandardLocation.CLASS_PATH, classpathFiles);
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, List.of(outputDir));
+
+            StringWriter output = new StringWriter();
+            boolean success = compiler.getTask(output, fileManager, null, null, null,
+                    fileManager.getJavaFileObjectsFromFiles(sources.values())).call();
+            return new Result(success, TestCompiler.relativizePaths(output.toString(), sources));
+        } catch (IOException | RuntimeException e) {
+            throw new GradingException("Error compiling tests", e);
+        }
+    }
+}
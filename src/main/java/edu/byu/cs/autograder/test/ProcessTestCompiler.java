@@ -0,0 +1,40 @@
+package edu.byu.cs.autograder.test;
+
+import edu.byu.cs.autograder.GradingException;
+import edu.byu.cs.util.ProcessUtils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles tests by running {@code javac} in a new process
+ */
+class ProcessTestCompiler implements TestCompiler {
+
+    @Override
+    public Result compile(File testsLocation, File outputDir, List<String> classpath, Map<String, File> sources)
+            throws GradingException {
+        List<String> commands = new ArrayList<>();
+        commands.add("javac");
+        commands.add("-d");
+        commands.add(outputDir.getAbsolutePath());
+        commands.add("-cp");
+        commands.add(".:" + String.join(":", classpath));
+        for (File source : sources.values()) {
+            commands.add(source.getPath());
+        }
+
+        ProcessBuilder processBuilder = new ProcessBuilder()
+                .directory(testsLocation)
+                .command(commands);
+
+        try {
+            ProcessUtils.ProcessOutput output = ProcessUtils.runProcess(processBuilder);
+            return new Result(output.statusCode() == 0, TestCompiler.relativizePaths(output.stdErr(), sources));
+        } catch (ProcessUtils.ProcessException e) {
+            throw new GradingException("Error compiling tests", e);
+        }
+    }
+}
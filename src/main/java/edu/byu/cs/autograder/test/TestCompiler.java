@@ -0,0 +1,49 @@
+package edu.byu.cs.autograder.test;
+
+import edu.byu.cs.autograder.GradingException;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles test sources into class files
+ */
+interface TestCompiler {
+
+    /**
+     * Compiles a set of tests
+     *
+     * @param testsLocation the directory containing the tests, which is also on the classpath
+     * @param outputDir     the directory to write the compiled classes to
+     * @param classpath     the jars the tests are compiled against
+     * @param sources       the source files to compile, by their path relative to the tests location
+     * @return the result of the compilation
+     * @throws GradingException if the compiler could not be run
+     */
+    Result compile(File testsLocation, File outputDir, List<String> classpath, Map<String, File> sources)
+            throws GradingException;
+
+    /**
+     * Rewrites the paths of the sources in compiler output to be relative to the tests location, the
+     * way {@code javac} prints them when it is given {@code ./}-relative paths. The output is shown to
+     * students, so it shouldn't contain paths on the server.
+     *
+     * @param output  the compiler's diagnostics
+     * @param sources the compiled sources, by their path relative to the tests location
+     * @return the diagnostics with relative paths
+     */
+    static String relativizePaths(String output, Map<String, File> sources) {
+        for (Map.Entry<String, File> source : sources.entrySet()) {
+            output = output.replace(source.getValue().getPath(),
+                    "./" + source.getKey().replace(File.separatorChar, '/'));
+        }
+        return output;
+    }
+
+    /**
+     * @param success whether every source compiled
+     * @param output  the compiler's diagnostics, in the same format javac prints them
+     */
+    record Result(boolean success, String output) {}
+}
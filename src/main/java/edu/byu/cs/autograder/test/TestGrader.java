@@ -32,7 +32,8 @@ public abstract class TestGrader {
     protected final File phaseTests;
 
     /**
-     * The path where the compiled tests are stored (and ran)
+     * The path where the compiled tests are stored (and ran). Each grader has its own, so
+     * graders can run at the same time.
      */
     private final File stageTestsPath;
 
@@ -47,7 +48,7 @@ public abstract class TestGrader {
 
     public TestGrader(GradingContext gradingContext) {
         this.gradingContext = gradingContext;
-        this.stageTestsPath = new File(gradingContext.stagePath() + "/tests");
+        this.stageTestsPath = new File(gradingContext.stagePath(), "tests/" + name().replace(' ', '-'));
         this.phaseTests = new File("./phases/phase" + PhaseUtils.getPhaseAsString(gradingContext.phase()));
         this.module = PhaseUtils.getModuleUnderTest(gradingContext.phase());
     }
@@ -65,13 +66,14 @@ public abstract class TestGrader {
         gradingContext.observer().update("Running " + name() + " tests...");
 
         TestOutput results;
-        if (!new File(gradingContext.stagePath(), "tests").exists()) {
+        if (!stageTestsPath.exists()) {
             results = new TestOutput(new TestNode(), new CoverageAnalysis(new HashSet<>()), null);
             TestNode.countTests(results.root());
         } else {
             results = new TestHelper().runJUnitTests(new File(gradingContext.stageRepo(),
                             "/" + module + "/target/" + module + "-test-dependencies.jar"), stageTestsPath,
-                    packagesToTest(), ignoredTests(), modulesToCheckCoverage());
+                    packagesToTest(), ignoredTests(), modulesToCheckCoverage(),
+                    usage -> gradingContext.resourceUsage().record(name() + " tests", usage));
         }
 
         if (results.root() == null) {
@@ -94,7 +96,8 @@ public abstract class TestGrader {
 
     private void compileTests() throws GradingException {
         gradingContext.observer().update("Compiling " + name() + " tests...");
-        testHelper.compileTests(gradingContext.stageRepo(), module, testsToCompile(), gradingContext.stagePath());
+        testHelper.compileTests(gradingContext.stageRepo(), module, testsToCompile(), gradingContext.stagePath(),
+                stageTestsPath, cacheCompiledTests());
     }
 
     protected abstract String name();
@@ -117,4 +120,14 @@ public abstract class TestGrader {
         return Set.of();
     }
 
+    /**
+     * Whether the compiled tests can be reused across submissions. Must be overridden to return
+     * false by graders that compile tests written by the student.
+     *
+     * @return true if the tests should be compiled through the {@link CompiledTestCache}
+     */
+    protected boolean cacheCompiledTests() {
+        return true;
+    }
+
 }
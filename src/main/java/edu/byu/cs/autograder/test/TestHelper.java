@@ -1,12 +1,14 @@
 package edu.byu.cs.autograder.test;
 
 import edu.byu.cs.autograder.GradingException;
+import edu.byu.cs.autograder.ResourceLimits;
 import edu.byu.cs.dataAccess.DaoService;
 import edu.byu.cs.dataAccess.daoInterface.ConfigurationDao;
 import edu.byu.cs.model.CoverageAnalysis;
 import edu.byu.cs.model.Rubric;
 import edu.byu.cs.model.TestNode;
 import edu.byu.cs.model.TestOutput;
+import edu.byu.cs.properties.ApplicationProperties;
 import edu.byu.cs.util.FileUtils;
 import edu.byu.cs.util.ProcessUtils;
 import org.slf4j.Logger;
@@ -14,11 +16,11 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * A helper class for running common test operations
@@ -39,6 +41,9 @@ public class TestHelper {
 
     private static final String jacocoCliJarPath;
     private static final String jacocoAgentJarPath;
+
+    private static TestCompiler testCompiler;
+
     /**
      * Constant value for trimming error outputs
      */
@@ -79,6 +84,21 @@ public class TestHelper {
         }
     }
 
+    /**
+     * Gets the directory graders place modified copies of test files in. A file in this directory
+     * replaces the file at the same path relative to the parent of its tests location when the tests
+     * are compiled, so graders never need to modify the shared phase files.
+     * <br>
+     * Example: {@code test-overrides/phase6/passoff/server/TestFactory.java} replaces
+     * {@code passoff/server/TestFactory.java} when compiling the tests in {@code phases/phase6}
+     *
+     * @param stagePath The path to the stage directory
+     * @return the directory containing the test overrides
+     */
+    public static File getTestOverrides(String stagePath) {
+        return new File(stagePath, "test-overrides");
+    }
+
     /**
      * Compiles the tests in the given directory
      *
@@ -86,69 +106,92 @@ public class TestHelper {
      * @param module            The module to compile
      * @param testsLocations    The location of the tests
      * @param stagePath         The path to the stage directory
+     * @param compiledTests     The directory to put the compiled tests in
+     * @param useCache          Whether the compiled tests may be reused from, and stored in, the
+     *                          {@link CompiledTestCache}. Only tests that aren't written by the student
+     *                          should be cached.
      */
-    void compileTests(File stageRepoPath, String module, Set<File> testsLocations, String stagePath)
-            throws GradingException {
+    void compileTests(File stageRepoPath, String module, Set<File> testsLocations, String stagePath,
+                      File compiledTests, boolean useCache) throws GradingException {
         // remove any existing tests
-        FileUtils.removeDirectory(new File(stagePath + "/tests"));
+        FileUtils.removeDirectory(compiledTests);
 
         try {
-            for(File testsLocation : testsLocations) {
+            Map<File, Map<String, File>> sourcesByLocation = new LinkedHashMap<>();
+            Map<String, File> allSources = new HashMap<>();
+            for (File testsLocation : testsLocations) {
                 if (!testsLocation.exists()) continue;
-                /* Find files to compile */
-                List<String> findCommands = getFindCommands();
-
-                ProcessBuilder findProcessBuilder = new ProcessBuilder()
-                        .directory(testsLocation)
-                        .command(findCommands);
-
-                String findOutput = ProcessUtils.runProcess(findProcessBuilder).stdOut().replace("\n", " ");
-
-                /* Compile files */
-                String chessJarWithDeps = new File(stageRepoPath, "/" + module + "/target/" + module + "-test-dependencies.jar")
-                        .getCanonicalPath();
-
-                List<String> compileCommands = getCompileCommands(stagePath, chessJarWithDeps);
-
-                ProcessBuilder compileProcessBuilder =
-                        new ProcessBuilder()
-                                .directory(testsLocation)
-                                .command(compileCommands);
-
-                ProcessUtils.ProcessOutput compileOutput = ProcessUtils.runProcess(compileProcessBuilder, findOutput);
+                Map<String, File> sources = findSources(testsLocation, getTestOverrides(stagePath));
+                if (sources.isEmpty()) continue;
+                sourcesByLocation.put(testsLocation, sources);
+                sources.forEach((path, source) -> allSources.put(testsLocation.getName() + "/" + path, source));
+            }
 
+            String cacheKey = null;
+            CompiledTestCache cache = CompiledTestCache.getInstance();
+            if (useCache && !sourcesByLocation.isEmpty()) {
+                cacheKey = cache.computeKey(allSources, stageRepoPath, module);
+                if (cache.restore(cacheKey, compiledTests)) {
+                    LOGGER.debug("Reusing compiled tests {}", cacheKey);
+                    return;
+                }
+            }
 
-                if (compileOutput.statusCode() != 0) {
-                    LOGGER.error("Error compiling tests: {}", compileOutput.stdErr());
-                    Rubric.Results results = Rubric.Results.textError("Error compiling tests", compileOutput.stdErr());
+            String chessJarWithDeps = new File(stageRepoPath, "/" + module + "/target/" + module + "-test-dependencies.jar")
+                    .getCanonicalPath();
+            List<String> classpath = List.of(chessJarWithDeps, standaloneJunitJarPath, junitJupiterApiJarPath);
+            TestCompiler compiler = getTestCompiler();
+            for (Map.Entry<File, Map<String, File>> location : sourcesByLocation.entrySet()) {
+                TestCompiler.Result compileResult =
+                        compiler.compile(location.getKey(), compiledTests, classpath, location.getValue());
+
+                if (!compileResult.success()) {
+                    LOGGER.error("Error compiling tests: {}", compileResult.output());
+                    Rubric.Results results = Rubric.Results.textError("Error compiling tests", compileResult.output());
                     throw new GradingException(results.notes(), results);
                 }
             }
-        } catch (IOException | ProcessUtils.ProcessException e) {
+
+            if (cacheKey != null) {
+                cache.store(cacheKey, compiledTests);
+            }
+        } catch (IOException e) {
             LOGGER.error("Error compiling tests", e);
             throw new GradingException("Error compiling tests", e);
         }
     }
 
-    private static List<String> getFindCommands() {
-        List<String> commands = new ArrayList<>();
-        commands.add("find");
-        commands.add(".");
-        commands.add("-name");
-        commands.add("*.java");
-
-        return commands;
+    /**
+     * Finds the Java files in a tests location, substituting any overrides for that location
+     *
+     * @param testsLocation the directory containing the tests
+     * @param testOverrides the directory containing the test overrides
+     * @return the files to compile, by their path relative to the tests location
+     */
+    private static Map<String, File> findSources(File testsLocation, File testOverrides) throws IOException {
+        Path locationPath = testsLocation.toPath();
+        Path overridesPath = new File(testOverrides, testsLocation.getCanonicalFile().getName()).toPath();
+        Map<String, File> sources = new TreeMap<>();
+        try (Stream<Path> paths = Files.walk(locationPath)) {
+            for (Path path : paths.filter(p -> p.toString().endsWith(".java")).toList()) {
+                String relativePath = locationPath.relativize(path).toString();
+                Path override = overridesPath.resolve(relativePath);
+                sources.put(relativePath, (Files.isRegularFile(override) ? override : path).toFile().getAbsoluteFile());
+            }
+        }
+        return sources;
     }
 
-    private static List<String> getCompileCommands(String stagePath, String chessJarWithDeps) {
-        List<String> commands = new ArrayList<>();
-        commands.add("xargs");
-        commands.add("javac");
-        commands.add("-d");
-        commands.add(stagePath + "/tests");
-        commands.add("-cp");
-        commands.add(".:" + chessJarWithDeps + ":" + standaloneJunitJarPath + ":" + junitJupiterApiJarPath);
-        return commands;
+    /**
+     * Gets the compiler used for tests, which compiles in-process instead of running {@code javac}
+     * when {@link ApplicationProperties#inProcessTestCompilation()} is set
+     */
+    private static synchronized TestCompiler getTestCompiler() {
+        if (testCompiler == null) {
+            testCompiler = ApplicationProperties.inProcessTestCompilation()
+                    ? new InProcessTestCompiler() : new ProcessTestCompiler();
+        }
+        return testCompiler;
     }
 
     /**
@@ -158,25 +201,39 @@ public class TestHelper {
      * @param compiledTests    The directory containing the compiled test classes.
      * @param packagesToTest   A set of packages to test. Example: {"package1", "package2"}
      * @param ignoredTests     A set of tests to ignore. Example: {"IgnoredTest1", "IgnoredTest2"}
+     * @param usageRecorder    Receives the resources used by each process that is run
      * @return A TestNode object containing the results of the tests.
      */
-    TestOutput runJUnitTests(File uberJar, File compiledTests, Set<String> packagesToTest,
-                             Set<String> ignoredTests, Set<String> coverageModules) throws GradingException {
+    TestOutput runJUnitTests(File uberJar, File compiledTests, Set<String> packagesToTest, Set<String> ignoredTests,
+                             Set<String> coverageModules, Consumer<ProcessUtils.ProcessUsage> usageRecorder)
+            throws GradingException {
         // Process cannot handle relative paths or wildcards,
         // so we need to only use absolute paths and find
         // to get the files
 
         String uberJarPath = uberJar.getAbsolutePath();
 
-        List<String> runCommands = getRunCommands(packagesToTest, uberJarPath);
+        ResourceLimits limits = ResourceLimits.forGrading();
+        List<String> runCommands = getRunCommands(packagesToTest, uberJarPath, limits);
 
-        ProcessBuilder runProcessBuilder = new ProcessBuilder()
+        ProcessBuilder runProcessBuilder = limits.apply(new ProcessBuilder()
                 .directory(compiledTests)
-                .command(runCommands);
+                .command(runCommands));
 
         try {
-            ProcessUtils.ProcessOutput processOutput = ProcessUtils.runProcess(runProcessBuilder);
+            // Only the start of the test output is shown to students (see trimErrorOutput)
+            ProcessUtils.ProcessOutput processOutput = ProcessUtils.runProcess(runProcessBuilder, limits.output());
+            usageRecorder.accept(processOutput.usage());
+            if (processOutput.statusCode() == ResourceLimits.CPU_LIMIT_EXIT_STATUS) {
+                String message = "Tests used more than %d seconds of CPU time".formatted(limits.cpuSeconds());
+                Rubric.Results results = Rubric.Results.textError(message, trimErrorOutput(processOutput.stdErr()));
+                throw new GradingException(message, results);
+            }
             String error = processOutput.stdErr();
+            if (processOutput.stdErrInfo().truncated()) {
+                LOGGER.debug("Dropped {} of {} bytes of test error output", processOutput.stdErrInfo().omittedBytes(),
+                        processOutput.stdErrInfo().totalBytes());
+            }
 
             if(coverageModules != null && !coverageModules.isEmpty()) {
                 List<String> reportCommands = new ArrayList<>(List.of("java", "-jar", jacocoCliJarPath, "report", "jacoco.exec",
@@ -190,7 +247,7 @@ public class TestHelper {
                         .command(reportCommands)
                         .directory(compiledTests);
 
-                ProcessUtils.runProcess(reportProcessBuilder);
+                usageRecorder.accept(ProcessUtils.runProcess(reportProcessBuilder).usage());
             }
 
             TestAnalyzer testAnalyzer = new TestAnalyzer();
@@ -208,9 +265,10 @@ public class TestHelper {
         }
     }
 
-    private static List<String> getRunCommands(Set<String> packagesToTest, String uberJarPath) {
+    private static List<String> getRunCommands(Set<String> packagesToTest, String uberJarPath, ResourceLimits limits) {
         List<String> commands = new ArrayList<>();
         commands.add("java");
+        commands.addAll(limits.jvmOptions());
         commands.add("-javaagent:" + jacocoAgentJarPath);
         commands.add("-jar");
         commands.add(standaloneJunitJarPath);
@@ -28,6 +28,11 @@ public class UnitTestGrader extends TestGrader {
         return Set.of(new File(gradingContext.stageRepo(), module + "/src/test/java/"));
     }
 
+    @Override
+    protected boolean cacheCompiledTests() {
+        return false;
+    }
+
     @Override
     protected Set<String> packagesToTest() throws GradingException {
         return PhaseUtils.unitTestPackagesToTest(gradingContext.phase());
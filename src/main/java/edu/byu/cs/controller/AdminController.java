@@ -72,4 +72,8 @@ public class AdminController {
         CanvasSection[] sections = AdminService.getAllSections();
         ctx.json(sections);
     };
+
+    public static final Handler metricsGet = ctx -> {
+        ctx.json(AdminService.getMetrics());
+    };
 }
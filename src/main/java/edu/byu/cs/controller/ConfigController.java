@@ -147,4 +147,20 @@ public class ConfigController {
 
         ConfigService.updateSlackLink(user, request);
     };
+
+    public static final Handler updateGraderThreadCount = (ctx) -> {
+        User user = ctx.sessionAttribute("user");
+
+        JsonObject jsonObject = Serializer.deserialize(ctx.body(), JsonObject.class);
+        Integer graderThreadCount = Serializer.deserialize(jsonObject.get("graderThreadCount"), Integer.class);
+        if (graderThreadCount == null) {
+            throw new BadRequestException("Missing graderThreadCount");
+        }
+
+        try {
+            ConfigService.updateGraderThreadCount(user, graderThreadCount);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage(), e);
+        }
+    };
 }
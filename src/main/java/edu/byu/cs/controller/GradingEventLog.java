@@ -0,0 +1,82 @@
+package edu.byu.cs.controller;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The events sent to a student while one of their submissions is graded. Each event is numbered
+ * with a {@code seq} field, starting at 1, in the order it was sent.
+ * <br><br>
+ * A grader starts as soon as it is queued, often before the student's browser has connected, so
+ * sessions that subscribe late are sent the events they missed from this log. The log is kept for a
+ * short while after grading finishes, so that a browser that connects only after a quick failure
+ * still receives the result.
+ * <br><br>
+ * Only the most recent {@value #MAX_EVENTS} events are kept.
+ */
+public class GradingEventLog {
+
+    static final int MAX_EVENTS = 500;
+
+    /**
+     * How long a log is kept after grading finishes
+     */
+    static final Duration RETENTION = Duration.ofMinutes(1);
+
+    private final Deque<Map<String, Object>> events = new ArrayDeque<>();
+    private long lastSeq = 0;
+    private Instant finishedAt;
+
+    /**
+     * Numbers an event and adds it to the log
+     *
+     * @param contents the event to add
+     * @return the event, including its {@code seq} field
+     */
+    public synchronized Map<String, Object> append(Map<String, Object> contents) {
+        Map<String, Object> event = new HashMap<>(contents);
+        event.put("seq", ++lastSeq);
+        events.addLast(event);
+        if (events.size() > MAX_EVENTS) {
+            events.removeFirst();
+        }
+        return event;
+    }
+
+    /**
+     * @param seq the number of the last event already received, or 0 for none
+     * @return the events after the given one, in order
+     */
+    public synchronized List<Map<String, Object>> eventsAfter(long seq) {
+        List<Map<String, Object>> missed = new ArrayList<>();
+        for (Map<String, Object> event : events) {
+            if ((long) event.get("seq") > seq) {
+                missed.add(event);
+            }
+        }
+        return missed;
+    }
+
+    /**
+     * Marks grading as finished, starting the {@link #RETENTION} period
+     */
+    public synchronized void finish() {
+        if (finishedAt == null) {
+            finishedAt = Instant.now();
+        }
+    }
+
+    public synchronized boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    public synchronized boolean isExpired(Instant now) {
+        return finishedAt != null && finishedAt.plus(RETENTION).isBefore(now);
+    }
+}
@@ -0,0 +1,201 @@
+package edu.byu.cs.controller;
+
+import edu.byu.cs.autograder.GradingScheduler;
+import edu.byu.cs.dataAccess.DaoService;
+import edu.byu.cs.dataAccess.DataAccessException;
+import edu.byu.cs.model.QueueItem;
+import org.eclipse.jgit.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+/**
+ * An in-memory view of the submissions waiting in the {@code queue} table, used to tell each waiting
+ * student their position in line without reading the whole table.
+ * <br><br>
+ * The view is loaded from the table the first time it is needed and is then kept up to date by the
+ * code that changes the table, which reports each change here. Broadcasts requested in quick
+ * succession are coalesced into one broadcast per {@link #BROADCAST_INTERVAL}, and a student is only
+ * sent a status when their position, the length of the line, or their estimated start has changed.
+ */
+public class QueueView {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueueView.class);
+
+    static final Duration BROADCAST_INTERVAL = Duration.ofMillis(500);
+
+    private static QueueView instance;
+
+    private final BiConsumer<String, Map<String, Object>> sender;
+    private final ScheduledExecutorService broadcaster =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("queue-status").factory());
+    private final AtomicBoolean broadcastPending = new AtomicBoolean();
+
+    private final Map<String, QueueItem> waiting = new HashMap<>();
+    private final Map<String, QueueStatus> lastSent = new HashMap<>();
+    private boolean loaded = false;
+
+    QueueView(BiConsumer<String, Map<String, Object>> sender) {
+        this.sender = sender;
+    }
+
+    public static synchronized QueueView getInstance() {
+        if (instance == null) {
+            instance = new QueueView((netId, status) -> TrafficController.getInstance().notifySubscribers(netId, status));
+        }
+        return instance;
+    }
+
+    /**
+     * Records that a submission was added to the queue
+     *
+     * @param item the item that was added
+     */
+    public synchronized void added(QueueItem item) {
+        if (!loaded) return;
+        if (item.started()) {
+            waiting.remove(item.netId());
+        } else {
+            waiting.put(item.netId(), item);
+        }
+    }
+
+    /**
+     * Records that a submission started grading, and so is no longer waiting
+     *
+     * @param netId the netId of the submission
+     */
+    public synchronized void started(String netId) {
+        waiting.remove(netId);
+        lastSent.remove(netId);
+    }
+
+    /**
+     * Records that a submission was removed from the queue
+     *
+     * @param netId the netId of the submission
+     */
+    public synchronized void removed(String netId) {
+        started(netId);
+    }
+
+    /**
+     * Discards the view so that it is loaded from the {@code queue} table again. Used after the
+     * table has been changed in bulk.
+     */
+    public synchronized void reload() {
+        loaded = false;
+        waiting.clear();
+    }
+
+    /**
+     * Makes the next broadcast send a student their status even if it hasn't changed, such as when
+     * they have just connected
+     *
+     * @param netId the netId of the student
+     */
+    public synchronized void resend(String netId) {
+        lastSent.remove(netId);
+    }
+
+    /**
+     * Requests that waiting students be sent their new statuses. The broadcast happens after
+     * {@link #BROADCAST_INTERVAL}, together with any other broadcast requested in the meantime.
+     */
+    public void requestBroadcast() {
+        if (broadcastPending.compareAndSet(false, true)) {
+            broadcaster.schedule(() -> {
+                broadcastPending.set(false);
+                try {
+                    broadcast();
+                } catch (Exception e) {
+                    LOGGER.error("Error broadcasting queue status", e);
+                }
+            }, BROADCAST_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Sends each waiting student whose status has changed their position in line, the number of
+     * submissions waiting, and when their submission is expected to start grading.
+     * <br><br>
+     * The line is in the order the {@link GradingScheduler} expects to start the submissions.
+     * Submissions queued before a restart aren't known to the scheduler until they are rerun,
+     * so they are placed after the submissions it knows about.
+     */
+    void broadcast() {
+        Map<String, Map<String, Object>> changed = new LinkedHashMap<>();
+        synchronized (this) {
+            if (!loaded && !load()) return;
+
+            Map<String, GradingScheduler.Estimate> estimates = new HashMap<>();
+            for (GradingScheduler.Estimate estimate :
+                    GradingScheduler.getInstance().estimate(TrafficController.getInstance().getGraderThreadCount())) {
+                if (!estimate.running()) {
+                    estimates.put(estimate.netId(), estimate);
+                }
+            }
+
+            List<QueueItem> line = new ArrayList<>(waiting.values());
+            line.sort(Comparator
+                    .comparing((QueueItem item) -> {
+                        GradingScheduler.Estimate estimate = estimates.get(item.netId());
+                        return estimate == null ? Integer.MAX_VALUE : estimate.position();
+                    })
+                    .thenComparing(QueueItem::timeAdded));
+
+            Instant now = Instant.now();
+            int position = 1;
+            for (QueueItem item : line) {
+                GradingScheduler.Estimate estimate = estimates.get(item.netId());
+                QueueStatus status = new QueueStatus(position++, line.size(),
+                        estimate == null ? null : estimate.estimatedStart().truncatedTo(ChronoUnit.MINUTES));
+                if (status.equals(lastSent.put(item.netId(), status))) continue;
+
+                Map<String, Object> message = new HashMap<>();
+                message.put("type", "queueStatus");
+                message.put("position", status.position());
+                message.put("total", status.total());
+                if (estimate != null) {
+                    message.put("estimatedStart", estimate.estimatedStart().toString());
+                    message.put("estimatedWaitSeconds",
+                            Math.max(0, estimate.estimatedStart().getEpochSecond() - now.getEpochSecond()));
+                }
+                changed.put(item.netId(), message);
+            }
+        }
+
+        changed.forEach(sender);
+    }
+
+    private boolean load() {
+        try {
+            waiting.clear();
+            for (QueueItem item : DaoService.getQueueDao().getAll()) {
+                if (!item.started()) {
+                    waiting.put(item.netId(), item);
+                }
+            }
+            lastSent.keySet().retainAll(waiting.keySet());
+            loaded = true;
+        } catch (DataAccessException e) {
+            LOGGER.error("Error loading the queue", e);
+        }
+        return loaded;
+    }
+
+    /**
+     * The status last sent to a waiting student. The estimated start is kept to the minute, so that
+     * estimates that barely moved aren't sent again.
+     */
+    private record QueueStatus(int position, int total, @Nullable Instant estimatedStart) {}
+}
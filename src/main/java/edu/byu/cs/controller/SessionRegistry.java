@@ -0,0 +1,325 @@
+package edu.byu.cs.controller;
+
+import org.eclipse.jetty.websocket.api.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The sessions subscribed to updates for each netId, over either a WebSocket or Server-Sent Events.
+ * <br><br>
+ * Sessions are registered from Jetty's threads while graders send to them from their own, so each
+ * netId's sessions are kept in a copy-on-write list that can be iterated while sessions come and go.
+ * Messages aren't written by the thread that sends them. Each session has an {@link Outbox} of
+ * messages that are written to the session asynchronously, so a slow browser never holds up a
+ * grader. Messages that queue up while a write is in progress, such as bursts of {@code update}
+ * messages, are written together in one frame. A session that falls more than
+ * {@value #MAX_PENDING_MESSAGES} messages behind is closed, and the browser can reconnect to
+ * receive the events it missed from the {@link GradingEventLog}.
+ * Closed sessions are removed as soon as they are noticed.
+ */
+public class SessionRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SessionRegistry.class);
+
+    static final int MAX_PENDING_MESSAGES = 256;
+
+    /**
+     * The most messages written to a session in a single frame
+     */
+    static final int MAX_BATCH_SIZE = 64;
+
+    /**
+     * Writes that take longer than this are counted as slow
+     */
+    private static final long SLOW_SEND_MILLIS = 1_000;
+
+    private final ConcurrentHashMap<String, CopyOnWriteArrayList<Outbox>> outboxes = new ConcurrentHashMap<>();
+    private final Executor writers;
+
+    private final AtomicLong messagesSent = new AtomicLong();
+    private final AtomicLong messagesDropped = new AtomicLong();
+    private final AtomicLong slowSends = new AtomicLong();
+    private final AtomicLong slowConsumersClosed = new AtomicLong();
+    private final AtomicInteger maxPendingMessages = new AtomicInteger();
+
+    SessionRegistry() {
+        this(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    SessionRegistry(Executor writers) {
+        this.writers = writers;
+    }
+
+    /**
+     * Subscribes a session to updates for a netId
+     *
+     * @param netId the netId to subscribe to
+     * @param channel the session to subscribe
+     * @return the outbox of the session, which can be sent messages the other sessions don't receive
+     */
+    public Outbox add(String netId, StatusChannel channel) {
+        Outbox outbox = new Outbox(netId, channel);
+        outboxes.computeIfAbsent(netId, k -> new CopyOnWriteArrayList<>()).add(outbox);
+        return outbox;
+    }
+
+    /**
+     * Sends messages to a session that isn't subscribed to any netId, then closes it once they
+     * have been written
+     *
+     * @param channel the session to send the messages to
+     * @param messages the serialized messages
+     */
+    public void sendAndClose(StatusChannel channel, List<String> messages) {
+        Outbox outbox = new Outbox(null, channel);
+        for (String message : messages) {
+            outbox.send(message);
+        }
+        outbox.closeWhenWritten();
+    }
+
+    /**
+     * Unsubscribes a session, such as when it has been closed by the browser
+     *
+     * @param channel the session to unsubscribe
+     */
+    public void remove(StatusChannel channel) {
+        for (String netId : outboxes.keySet()) {
+            outboxes.computeIfPresent(netId, (key, netIdOutboxes) -> {
+                netIdOutboxes.removeIf(outbox -> outbox.channel.equals(channel));
+                return netIdOutboxes.isEmpty() ? null : netIdOutboxes;
+            });
+        }
+    }
+
+    /**
+     * Sends a message to every open session subscribed to a netId
+     *
+     * @param netId the netId the message is for
+     * @param message the serialized message
+     */
+    public void send(String netId, String message) {
+        List<Outbox> netIdOutboxes = outboxes.get(netId);
+        if (netIdOutboxes == null) return;
+        for (Outbox outbox : netIdOutboxes) {
+            outbox.send(message);
+        }
+    }
+
+    /**
+     * Unsubscribes every session of a netId, closing each once the messages already sent to it
+     * have been written
+     *
+     * @param netId the netId to unsubscribe
+     */
+    public void closeAll(String netId) {
+        List<Outbox> netIdOutboxes = outboxes.remove(netId);
+        if (netIdOutboxes == null) return;
+        for (Outbox outbox : netIdOutboxes) {
+            outbox.closeWhenWritten();
+        }
+    }
+
+    public boolean contains(String netId) {
+        return outboxes.containsKey(netId);
+    }
+
+    public boolean contains(String netId, StatusChannel channel) {
+        List<Outbox> netIdOutboxes = outboxes.get(netId);
+        return netIdOutboxes != null && netIdOutboxes.stream().anyMatch(outbox -> outbox.channel.equals(channel));
+    }
+
+    /**
+     * @param netId the netId the sessions are subscribed to
+     * @return the WebSocket sessions subscribed to the netId
+     */
+    public List<Session> getSessions(String netId) {
+        List<Session> sessions = new ArrayList<>();
+        for (Outbox outbox : outboxes.getOrDefault(netId, new CopyOnWriteArrayList<>())) {
+            if (outbox.channel instanceof StatusChannel.WebSocketChannel webSocket) {
+                sessions.add(webSocket.session());
+            }
+        }
+        return Collections.unmodifiableList(sessions);
+    }
+
+    public Stats getStats() {
+        int sessions = 0;
+        int pending = 0;
+        for (List<Outbox> netIdOutboxes : outboxes.values()) {
+            sessions += netIdOutboxes.size();
+            for (Outbox outbox : netIdOutboxes) {
+                pending += outbox.pending.get();
+            }
+        }
+        return new Stats(outboxes.size(), sessions, pending, maxPendingMessages.get(), messagesSent.get(),
+                messagesDropped.get(), slowSends.get(), slowConsumersClosed.get());
+    }
+
+    /**
+     * Joins messages into a single frame. A lone message is sent as it is; several are sent as a
+     * {@code batch} message whose {@code events} are the messages in order. The messages are
+     * already serialized, so they are joined rather than serialized again.
+     *
+     * @param messages the serialized messages
+     * @return the frame to write
+     */
+    static String toFrame(List<String> messages) {
+        if (messages.size() == 1) return messages.getFirst();
+        return "{\"type\":\"batch\",\"events\":[" + String.join(",", messages) + "]}";
+    }
+
+    /**
+     * How the sessions are keeping up with the messages sent to them
+     *
+     * @param netIds the number of netIds with a subscribed session
+     * @param sessions the number of subscribed sessions
+     * @param pendingMessages the number of messages waiting to be written
+     * @param maxPendingMessages the most messages that have been waiting for a single session
+     * @param messagesSent the number of messages written
+     * @param messagesDropped the number of messages that were never written, because their session
+     *                        was closed or had fallen too far behind
+     * @param slowSends the number of writes that took longer than {@value #SLOW_SEND_MILLIS} ms
+     * @param slowConsumersClosed the number of sessions closed for falling too far behind
+     */
+    public record Stats(int netIds, int sessions, int pendingMessages, int maxPendingMessages,
+                        long messagesSent, long messagesDropped, long slowSends, long slowConsumersClosed) {}
+
+    /**
+     * The messages waiting to be written to a session. At most one thread writes to the session at
+     * a time, so messages are written in the order they were sent.
+     */
+    public final class Outbox {
+        private final String netId;
+        private final StatusChannel channel;
+        private final Queue<String> messages = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean writing = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean closing = false;
+
+        private Outbox(String netId, StatusChannel channel) {
+            this.netId = netId;
+            this.channel = channel;
+        }
+
+        /**
+         * Queues a message to be written to the session. The session is closed if it has fallen
+         * too far behind.
+         *
+         * @param message the serialized message
+         */
+        public void send(String message) {
+            if (closing || !channel.isOpen()) {
+                messagesDropped.incrementAndGet();
+                unsubscribe();
+                return;
+            }
+            int queued = pending.incrementAndGet();
+            if (queued > MAX_PENDING_MESSAGES) {
+                pending.decrementAndGet();
+                messagesDropped.incrementAndGet();
+                slowConsumersClosed.incrementAndGet();
+                LOGGER.warn("Closing a session of {} that is {} messages behind", netId, MAX_PENDING_MESSAGES);
+                closing = true;
+                unsubscribe();
+                channel.close();
+                return;
+            }
+            maxPendingMessages.accumulateAndGet(queued, Math::max);
+            messages.add(message);
+            scheduleWrite();
+        }
+
+        private void closeWhenWritten() {
+            closing = true;
+            scheduleWrite();
+        }
+
+        private void scheduleWrite() {
+            if (writing.compareAndSet(false, true)) {
+                writers.execute(this::write);
+            }
+        }
+
+        /**
+         * Writes the messages waiting in the outbox as a single frame, and continues with the
+         * messages queued in the meantime once the write completes
+         */
+        private void write() {
+            List<String> batch = new ArrayList<>();
+            String message;
+            while (batch.size() < MAX_BATCH_SIZE && (message = messages.poll()) != null) {
+                pending.decrementAndGet();
+                batch.add(message);
+            }
+
+            if (batch.isEmpty() || !channel.isOpen()) {
+                messagesDropped.addAndGet(batch.size());
+                finishWriting();
+                return;
+            }
+
+            long start = System.nanoTime();
+            CompletableFuture<Void> written;
+            try {
+                written = channel.write(toFrame(batch));
+            } catch (Exception e) {
+                written = CompletableFuture.failedFuture(e);
+            }
+            written.whenComplete((result, e) -> {
+                if (e == null) {
+                    messagesSent.addAndGet(batch.size());
+                } else {
+                    messagesDropped.addAndGet(batch.size());
+                    LOGGER.warn("Exception thrown while sending: ", e);
+                }
+                if ((System.nanoTime() - start) / 1_000_000 > SLOW_SEND_MILLIS) {
+                    slowSends.incrementAndGet();
+                }
+                // Continue on a writer rather than in the write's callback, which may run on the
+                // thread that started the write
+                writers.execute(this::write);
+            });
+        }
+
+        private void finishWriting() {
+            if (messages.isEmpty()) {
+                if (closing && channel.isOpen() && closed.compareAndSet(false, true)) {
+                    channel.close();
+                }
+                if (!channel.isOpen()) {
+                    unsubscribe();
+                }
+            }
+            writing.set(false);
+            // A message may have been queued, or the outbox told to close, after the checks above
+            // but before writing was cleared, while no other write could be scheduled
+            if (!messages.isEmpty() || (closing && !closed.get() && channel.isOpen())) {
+                scheduleWrite();
+            }
+        }
+
+        private void unsubscribe() {
+            if (netId == null) return;
+            outboxes.computeIfPresent(netId, (key, netIdOutboxes) -> {
+                netIdOutboxes.remove(this);
+                return netIdOutboxes.isEmpty() ? null : netIdOutboxes;
+            });
+        }
+    }
+}
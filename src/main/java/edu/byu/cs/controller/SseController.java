@@ -0,0 +1,100 @@
+package edu.byu.cs.controller;
+
+import edu.byu.cs.util.JwtUtils;
+import io.javalin.http.sse.SseClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controller for handling Server-Sent Events connections, an alternative to the WebSocket for
+ * receiving queue and grading events. The events are the same as those sent over the WebSocket,
+ * each sent as a {@code message} event, and come from the same {@link GradingEventLog}.
+ * <br><br>
+ * A client that reconnects can pass the {@code seq} of the last event it received as the
+ * {@code lastSeq} query parameter to receive only the events it missed.
+ */
+public class SseController {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SseController.class);
+
+    /**
+     * How often a comment is sent on each stream, so that proxies don't drop it for being idle
+     */
+    private static final long HEARTBEAT_SECONDS = 20;
+
+    private static final Set<StatusChannel.SseChannel> channels = ConcurrentHashMap.newKeySet();
+
+    private static final ScheduledExecutorService heartbeats =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("sse-heartbeat").factory());
+
+    static {
+        heartbeats.scheduleAtFixedRate(SseController::sendHeartbeats,
+                HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public static void onConnect(SseClient client) {
+        StatusChannel.SseChannel channel = new StatusChannel.SseChannel(client);
+        client.keepAlive();
+        client.onClose(() -> {
+            channels.remove(channel);
+            TrafficController.removeSession(channel);
+        });
+
+        String netId;
+        try {
+            netId = JwtUtils.validateToken(client.ctx().cookie("token"));
+        } catch (Exception e) {
+            LOGGER.warn("Exception thrown while validating token: ", e);
+            TrafficController.sendErrorAndClose(channel, "Invalid token");
+            return;
+        }
+
+        if (netId == null) {
+            TrafficController.sendErrorAndClose(channel, "Invalid token");
+            return;
+        }
+
+        channels.add(channel);
+        TrafficController.subscribe(netId, channel, getLastSeq(client.ctx().queryParam("lastSeq")));
+    }
+
+    /**
+     * @param lastSeq the {@code lastSeq} query parameter
+     * @return the {@code seq} of the last event received, or 0 if the client hasn't received any
+     */
+    static long getLastSeq(String lastSeq) {
+        if (lastSeq == null || lastSeq.isBlank()) return 0;
+        try {
+            return Long.parseLong(lastSeq);
+        } catch (NumberFormatException e) {
+            LOGGER.debug("Ignoring unreadable lastSeq: {}", lastSeq);
+            return 0;
+        }
+    }
+
+    static void sendHeartbeats() {
+        for (StatusChannel.SseChannel channel : channels) {
+            if (!channel.isOpen()) {
+                channels.remove(channel);
+                continue;
+            }
+            try {
+                channel.heartbeat();
+            } catch (Exception e) {
+                LOGGER.debug("Exception thrown while sending a heartbeat: ", e);
+            }
+        }
+    }
+
+    /**
+     * @return whether the stream is subscribed and receives heartbeats
+     */
+    static boolean isConnected(StatusChannel.SseChannel channel) {
+        return channels.contains(channel);
+    }
+}
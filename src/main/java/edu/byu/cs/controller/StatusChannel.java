@@ -0,0 +1,101 @@
+package edu.byu.cs.controller;
+
+import io.javalin.http.sse.SseClient;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A connection that queue and grading events are sent to, over either a WebSocket or
+ * Server-Sent Events. Messages are sent the same way over both; each is a serialized JSON object.
+ */
+public interface StatusChannel {
+
+    boolean isOpen();
+
+    /**
+     * Writes a message to the connection
+     *
+     * @param message the serialized message
+     * @return completes once the message has been written, or exceptionally if it couldn't be
+     */
+    CompletableFuture<Void> write(String message);
+
+    void close();
+
+    static StatusChannel of(Session session) {
+        return new WebSocketChannel(session);
+    }
+
+    static StatusChannel of(SseClient client) {
+        return new SseChannel(client);
+    }
+
+    /**
+     * A WebSocket session, which is written to asynchronously
+     */
+    record WebSocketChannel(Session session) implements StatusChannel {
+        @Override
+        public boolean isOpen() {
+            return session.isOpen();
+        }
+
+        @Override
+        public CompletableFuture<Void> write(String message) {
+            CompletableFuture<Void> written = new CompletableFuture<>();
+            session.getRemote().sendString(message, new WriteCallback() {
+                @Override
+                public void writeSuccess() {
+                    written.complete(null);
+                }
+
+                @Override
+                public void writeFailed(Throwable x) {
+                    written.completeExceptionally(x);
+                }
+            });
+            return written;
+        }
+
+        @Override
+        public void close() {
+            session.close();
+        }
+    }
+
+    /**
+     * A Server-Sent Events stream. Each message is sent as a {@code message} event. Writes block
+     * the calling thread until they are flushed, and are serialized with the stream's heartbeats.
+     */
+    record SseChannel(SseClient client) implements StatusChannel {
+        @Override
+        public boolean isOpen() {
+            return !client.terminated();
+        }
+
+        @Override
+        public CompletableFuture<Void> write(String message) {
+            synchronized (client) {
+                client.sendEvent("message", message);
+            }
+            return client.terminated() ?
+                    CompletableFuture.failedFuture(new IllegalStateException("The event stream was closed")) :
+                    CompletableFuture.completedFuture(null);
+        }
+
+        /**
+         * Sends a comment, which browsers ignore, so that proxies don't drop the stream for being idle
+         */
+        public void heartbeat() {
+            synchronized (client) {
+                client.sendComment("heartbeat");
+            }
+        }
+
+        @Override
+        public void close() {
+            client.close();
+        }
+    }
+}
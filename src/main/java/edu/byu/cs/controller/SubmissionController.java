@@ -1,20 +1,32 @@
 package edu.byu.cs.controller;
 
+import com.google.gson.stream.JsonWriter;
 import edu.byu.cs.controller.exception.BadRequestException;
 import edu.byu.cs.controller.exception.UnauthorizedException;
 import edu.byu.cs.controller.netmodel.ApprovalRequest;
 import edu.byu.cs.controller.netmodel.GradeRequest;
+import edu.byu.cs.controller.netmodel.SubmissionPageResponse;
 import edu.byu.cs.dataAccess.*;
+import edu.byu.cs.dataAccess.daoInterface.SubmissionDao;
 import edu.byu.cs.model.Phase;
 import edu.byu.cs.model.Submission;
 import edu.byu.cs.model.User;
 import edu.byu.cs.service.SubmissionService;
 import edu.byu.cs.util.Serializer;
+import io.javalin.http.ContentType;
 import io.javalin.http.Context;
 import io.javalin.http.Handler;
+import org.eclipse.jetty.server.Request;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 
 /**
@@ -24,6 +36,10 @@ public class SubmissionController {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SubmissionController.class);
 
+    /** How many submissions are in a page when a {@code cursor} is given without a {@code limit} */
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     public static final Handler submitPost = ctx -> {
         User user = ctx.sessionAttribute("user");
 
@@ -106,8 +122,7 @@ public class SubmissionController {
         if (user == null) {
             throw new UnauthorizedException("No user credentials found");
         }
-        Collection<Submission> submissions = SubmissionService.getXSubmissionsForUser(user.netId(), phase);
-        ctx.json(submissions);
+        writeSubmissions(ctx, user.netId(), phase);
     };
 
     public static final Handler latestSubmissionsGet = ctx -> {
@@ -117,7 +132,11 @@ public class SubmissionController {
             count = Integer.parseInt(countString);
         }
 
-        Collection<Submission> submissions = SubmissionService.getLatestSubmissions(count);
+        // List views only show a few fields of each submission, so they can ask for summaries
+        boolean summary = Boolean.parseBoolean(ctx.queryParam("summary"));
+        Collection<Submission> submissions = summary ?
+                SubmissionService.getLatestSubmissionSummaries(count) :
+                SubmissionService.getLatestSubmissions(count);
         ctx.json(submissions);
     };
 
@@ -129,10 +148,128 @@ public class SubmissionController {
 
     public static final Handler studentSubmissionsGet = ctx -> {
         String netId = ctx.pathParam("netId");
-        Collection<Submission> submissions = SubmissionService.getSubmissionsForUser(netId);
-        ctx.json(submissions);
+        writeSubmissions(ctx, netId, null);
+    };
+
+    /**
+     * Gets a single submission of a student, identified by the {@code headHash} and {@code timestamp}
+     * query parameters, such as a submission from a list of summaries that is opened
+     */
+    public static final Handler studentSubmissionGet = ctx -> {
+        String netId = ctx.pathParam("netId");
+        String headHash = ctx.queryParam("headHash");
+        String timestampParam = ctx.queryParam("timestamp");
+        if (headHash == null || timestampParam == null) {
+            throw new BadRequestException("headHash and timestamp are required");
+        }
+
+        Phase phase;
+        Instant timestamp;
+        try {
+            phase = Phase.valueOf(ctx.pathParam("phase"));
+            timestamp = Instant.parse(timestampParam);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid phase or timestamp", e);
+        }
+
+        ctx.json(SubmissionService.getSubmission(netId, phase, headHash, timestamp));
     };
 
+    /**
+     * Writes every submission to the response as a JSON array, oldest first, as they are read from
+     * the database, so that the whole table can be exported without holding it in memory.
+     * <br>
+     * The export holds its database connection for as long as the client takes to download it, so it
+     * is read on a connection of its own rather than one from the pool. If the export fails after the
+     * response has started, the connection is dropped so the client can't mistake it for a complete one.
+     */
+    public static final Handler submissionsExportGet = ctx -> {
+        ctx.header("Content-Disposition", "attachment; filename=submissions.json");
+        JsonWriter json = openJsonResponse(ctx);
+        try {
+            json.beginArray();
+            SubmissionService.streamAllSubmissions(
+                    submission -> Serializer.serialize(submission, Submission.class, json));
+            json.endArray();
+            json.close();
+        } catch (DataAccessException | IOException e) {
+            LOGGER.error("Error exporting submissions", e);
+            abortResponse(ctx, e);
+        }
+    };
+
+    /**
+     * Writes a user's submissions, newest first, to the response.
+     * <br>
+     * Without the {@code limit} or {@code cursor} query parameters, every submission is written as
+     * a JSON array. With either of them, a page of at most {@code limit} submissions, starting after
+     * the {@code cursor} of the previous page, is written as a {@link SubmissionPageResponse}.
+     * <br>
+     * Each page is read before it is written, so that a slow client doesn't keep a database connection
+     * checked out. Without a page, the submissions are read and written one page of {@link #MAX_PAGE_SIZE}
+     * at a time, so a user with many submissions is never held in memory all at once.
+     *
+     * @param ctx the request context
+     * @param netId the netId of the user
+     * @param phase the phase to get submissions from, or null for all phases
+     */
+    private static void writeSubmissions(Context ctx, String netId, Phase phase)
+            throws DataAccessException, BadRequestException, IOException {
+        String cursorParam = ctx.queryParam("cursor");
+        String limitParam = ctx.queryParam("limit");
+
+        if (cursorParam == null && limitParam == null) {
+            writeAllSubmissions(ctx, netId, phase);
+            return;
+        }
+
+        SubmissionDao.Cursor after;
+        int limit;
+        try {
+            after = cursorParam == null || cursorParam.isBlank() ? null : SubmissionDao.Cursor.decode(cursorParam);
+            limit = limitParam == null ? DEFAULT_PAGE_SIZE : Integer.parseInt(limitParam);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor or limit", e);
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        List<Submission> submissions = new ArrayList<>();
+        SubmissionDao.Cursor next = SubmissionService.streamSubmissionsForUser(netId, phase, after, limit, submissions::add);
+        ctx.json(new SubmissionPageResponse(submissions, next == null ? null : next.encode()));
+    }
+
+    /**
+     * Writes every submission of a user as a JSON array, reading them a page at a time.
+     * <br>
+     * An error reading the first page is reported as usual. An error after the response has started
+     * drops the connection, so the client sees a failed request rather than a shortened list.
+     */
+    private static void writeAllSubmissions(Context ctx, String netId, Phase phase)
+            throws DataAccessException, IOException {
+        List<Submission> page = new ArrayList<>();
+        SubmissionDao.Cursor next = SubmissionService.streamSubmissionsForUser(netId, phase, null, MAX_PAGE_SIZE, page::add);
+
+        JsonWriter json = openJsonResponse(ctx);
+        try {
+            json.beginArray();
+            while (true) {
+                for (Submission submission : page) {
+                    Serializer.serialize(submission, Submission.class, json);
+                }
+                if (next == null) break;
+                page.clear();
+                next = SubmissionService.streamSubmissionsForUser(netId, phase, next, MAX_PAGE_SIZE, page::add);
+            }
+            json.endArray();
+            json.close();
+        } catch (DataAccessException | IOException e) {
+            LOGGER.error("Error writing submissions of {}", netId, e);
+            abortResponse(ctx, e);
+        }
+    }
+
     public static final Handler approveSubmissionPost = ctx -> {
         User adminUser = ctx.sessionAttribute("user");
         if (adminUser == null) {
@@ -147,4 +284,30 @@ public class SubmissionController {
         ctx.json(Map.of("message", "re-running submissions in queue"));
     };
 
+    /**
+     * Starts a JSON response that is written as it is produced, rather than built in memory first
+     *
+     * @param ctx the request context
+     * @return a {@link JsonWriter} that writes to the response, which must be closed to finish it
+     */
+    private static JsonWriter openJsonResponse(Context ctx) throws IOException {
+        ctx.contentType(ContentType.APPLICATION_JSON);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(ctx.res().getOutputStream(), StandardCharsets.UTF_8));
+        return Serializer.newJsonWriter(writer);
+    }
+
+    /**
+     * Ends a response that failed after it started being written by dropping the connection, so the
+     * client can't mistake the part that was written for a complete response
+     *
+     * @param ctx the request context
+     * @param cause why the response failed
+     */
+    private static void abortResponse(Context ctx, Throwable cause) {
+        Request request = Request.getBaseRequest(ctx.req());
+        if (request != null) {
+            request.getHttpChannel().abort(cause);
+        }
+    }
+
 }
@@ -1,62 +1,201 @@
 package edu.byu.cs.controller;
 
 import edu.byu.cs.autograder.Grader;
+import edu.byu.cs.autograder.GradingScheduler;
 import edu.byu.cs.dataAccess.DaoService;
 import edu.byu.cs.dataAccess.DataAccessException;
+import edu.byu.cs.dataAccess.daoInterface.ConfigurationDao;
 import edu.byu.cs.model.QueueItem;
+import edu.byu.cs.util.Serializer;
 import org.eclipse.jetty.websocket.api.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Controller for handling the queue of graders
  */
 public class TrafficController {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(TrafficController.class);
+
     /**
-     * A map of netIds to sessions that are subscribed to updates for that netId
+     * The number of graders that run at once when no value has been configured
      */
-    private static final ConcurrentHashMap<String, List<Session>> sessions = new ConcurrentHashMap<>();
+    private static final int DEFAULT_GRADER_THREAD_COUNT = 1;
 
-    public static void addNetId(String netId){
-        sessions.putIfAbsent(netId, new ArrayList<>());
-    }
+    /**
+     * The sessions that are subscribed to updates for each netId
+     */
+    private static final SessionRegistry sessions = new SessionRegistry();
 
     public static List<Session> getSessions(String netId){
-        return Collections.unmodifiableList(sessions.getOrDefault(netId, Collections.emptyList()));
+        return sessions.getSessions(netId);
+    }
+
+    public static boolean hasSession(String netId, StatusChannel channel){
+        return sessions.contains(netId, channel);
+    }
+
+    /**
+     * Unsubscribes a session that has been closed
+     *
+     * @param channel the closed session
+     */
+    public static void removeSession(StatusChannel channel) {
+        sessions.remove(channel);
+    }
+
+    public static SessionRegistry.Stats getSessionStats() {
+        return sessions.getStats();
+    }
+
+    /**
+     * A map of netIds to the events sent while their submission is graded
+     */
+    private static final ConcurrentHashMap<String, GradingEventLog> eventLogs = new ConcurrentHashMap<>();
+
+    /**
+     * Subscribes a session to the grading of a student's submission, whether it connected over a
+     * WebSocket or Server-Sent Events. The session is sent the events it missed and the student's
+     * place in line. If the submission has already been graded, the session is sent the events of
+     * the grading instead, or an error if there are none, and is then closed.
+     *
+     * @param netId the netId of the student
+     * @param channel the session to subscribe
+     * @param lastSeq the {@code seq} of the last event the session received, or 0 for none
+     */
+    public static void subscribe(String netId, StatusChannel channel, long lastSeq) {
+        if (!isInQueue(netId)) {
+            // The submission may have finished before the browser connected
+            if (replayFinishedGrading(netId, channel, lastSeq)) {
+                return;
+            }
+            sendErrorAndClose(channel, "You are not in the queue");
+            return;
+        }
+
+        if (hasSession(netId, channel)) {
+            return;
+        }
+
+        // Register the session to receive updates and the ones it missed,
+        // notify all queue members of the new queue state.
+        addSession(netId, channel, lastSeq);
+        QueueView.getInstance().resend(netId);
+        broadcastQueueStatus();
     }
 
-    public static boolean hasSession(String netId, Session session){
-        List<Session> sessionList = sessions.get(netId);
-        return sessionList != null && sessionList.contains(session);
+    /**
+     * Indicates whether the student is the pass-off queue.
+     *
+     * @param netId The student NetId to verify.
+     * @return A boolean indicating the result.
+     * @throws RuntimeException When a {@link DataAccessException} occurs.
+     */
+    private static boolean isInQueue(String netId) {
+        try {
+            return DaoService.getQueueDao().isAlreadyInQueue(netId);
+        } catch (DataAccessException e) {
+            LOGGER.error("Error accessing queue", e);
+            throw new RuntimeException("Error accessing queue", e);
+        }
     }
 
     public static void addSession(String netId, Session session){
-        addNetId(netId);
-        List<Session> sessionList = sessions.get(netId);
-        sessionList.add(session);
+        addSession(netId, StatusChannel.of(session), 0);
+    }
+
+    /**
+     * Subscribes a session to updates for a netId, first sending it the events of the current grading
+     * that it hasn't received
+     *
+     * @param netId the netId to subscribe to
+     * @param channel the session to subscribe
+     * @param lastSeq the {@code seq} of the last event the session received, or 0 for none
+     */
+    public static void addSession(String netId, StatusChannel channel, long lastSeq){
+        GradingEventLog log = getActiveEventLog(netId);
+        synchronized (log) {
+            SessionRegistry.Outbox outbox = sessions.add(netId, channel);
+            for (Map<String, Object> event : log.eventsAfter(lastSeq)) {
+                outbox.send(Serializer.serialize(event));
+            }
+        }
+    }
+
+    /**
+     * Sends a session the events of a grading that finished within the {@link GradingEventLog#RETENTION}
+     * period, then closes the session
+     *
+     * @param netId the netId the grading was for
+     * @param channel the session to send the events to
+     * @param lastSeq the {@code seq} of the last event the session received, or 0 for none
+     * @return false if there is no recently finished grading for the netId
+     */
+    public static boolean replayFinishedGrading(String netId, StatusChannel channel, long lastSeq) {
+        GradingEventLog log = eventLogs.get(netId);
+        if (log == null || !log.isFinished() || log.isExpired(Instant.now())) return false;
+        sendAndClose(channel, log.eventsAfter(lastSeq));
+        return true;
+    }
+
+    /**
+     * Sends messages to a session that isn't subscribed to updates, then closes it once the
+     * messages have been written
+     *
+     * @param channel the session to send the messages to
+     * @param messages the messages
+     */
+    public static void sendAndClose(StatusChannel channel, List<Map<String, Object>> messages) {
+        sessions.sendAndClose(channel, messages.stream().map(Serializer::serialize).toList());
+    }
+
+    /**
+     * Sends an error message to a session, then closes it once the message has been written
+     *
+     * @param channel the session to send the message to
+     * @param message the error message
+     */
+    public static void sendErrorAndClose(StatusChannel channel, String message) {
+        sendAndClose(channel, List.of(Map.of("type", "error", "message", message)));
     }
 
     public static void clearSessions(String netId){
-        List<Session> sessionList = sessions.get(netId);
-        if(sessionList==null) return;
-        for(Session session : sessionList){
-            session.close();
+        GradingEventLog log = eventLogs.get(netId);
+        if (log != null) {
+            log.finish();
         }
-        sessions.remove(netId);
+        sessions.closeAll(netId);
+    }
+
+    /**
+     * Gets the event log of the grading in progress for a netId, starting a new log if the previous
+     * grading has finished. Logs of gradings that finished too long ago are dropped.
+     */
+    private static GradingEventLog getActiveEventLog(String netId) {
+        Instant now = Instant.now();
+        eventLogs.values().removeIf(log -> log.isExpired(now));
+        return eventLogs.compute(netId, (key, log) -> log == null || log.isFinished() ? new GradingEventLog() : log);
     }
 
     public static boolean containsNetId(String netId) {
-        return sessions.containsKey(netId);
+        return sessions.contains(netId);
     }
 
     /**
-     * The executor service that runs the graders
+     * The executor service that runs the graders. Its core and maximum pool sizes are kept equal
+     * so that it behaves like a fixed thread pool that can be resized while graders are queued.
      */
-    private final ExecutorService executorService = Executors.newFixedThreadPool(1);
+    private final ThreadPoolExecutor executorService = new ThreadPoolExecutor(
+            DEFAULT_GRADER_THREAD_COUNT, DEFAULT_GRADER_THREAD_COUNT,
+            0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
 
     private static final TrafficController trafficController = new TrafficController();
 
@@ -69,46 +208,109 @@ public class TrafficController {
 
     /**
      * Broadcasts the current queue status to all connected clients.
-     * Each client will be notified of their specific position in the queue.
+     * Each client will be notified of their specific position in the queue, and of when their
+     * submission is expected to start grading, if it has changed.
+     *
+     * @see QueueView
      */
-    public static void broadcastQueueStatus() throws DataAccessException {
-
-        List<QueueItem> usersWaitingInQueue = new ArrayList<>();
-        for (QueueItem item : DaoService.getQueueDao().getAll())
-            if (!item.started())
-                usersWaitingInQueue.add(item);
+    public static void broadcastQueueStatus() {
+        QueueView.getInstance().requestBroadcast();
+    }
 
-        usersWaitingInQueue.sort(Comparator.comparing(QueueItem::timeAdded));
+    /**
+     * Adds a grader to the queue. The {@link GradingScheduler} decides which queued grader runs
+     * whenever a thread becomes available.
+     *
+     * @param queueItem the queue item of the submission the grader grades
+     * @param priority how urgently the submission should be graded
+     * @param grader the grader to add
+     * @return false if the student already has a grader queued, in which case this one is dropped
+     */
+    public boolean addGrader(QueueItem queueItem, GradingScheduler.Priority priority, Grader grader) {
+        GradingScheduler scheduler = GradingScheduler.getInstance();
+        if (!scheduler.enqueue(queueItem.netId(), queueItem.phase(), priority, queueItem.timeAdded(), grader)) {
+            LOGGER.warn("A grader for {} is already queued, ignoring the new one", queueItem.netId());
+            return false;
+        }
+        executorService.execute(() -> {
+            Runnable next = scheduler.next();
+            if (next != null) {
+                next.run();
+            }
+        });
+        // A submission with a higher priority may have moved ahead of others
+        broadcastQueueStatus();
+        return true;
+    }
 
-        int i = 1;
-        for (QueueItem item : usersWaitingInQueue) {
-            getInstance().notifySubscribers(item.netId(), Map.of(
-                    "type", "queueStatus",
-                    "position", i,
-                    "total", usersWaitingInQueue.size()
-            ));
-            i++;
+    /**
+     * Sets the grading pool size from the {@link ConfigurationDao.Configuration#GRADER_THREAD_COUNT}
+     * configuration value. Falls back to {@value #DEFAULT_GRADER_THREAD_COUNT} grader when
+     * the value has not been configured.
+     */
+    public void loadGraderThreadCount() {
+        int threadCount = DEFAULT_GRADER_THREAD_COUNT;
+        try {
+            Integer configured = DaoService.getConfigurationDao()
+                    .getConfiguration(ConfigurationDao.Configuration.GRADER_THREAD_COUNT, Integer.class);
+            if (configured != null && configured > 0) {
+                threadCount = configured;
+            }
+        } catch (DataAccessException e) {
+            LOGGER.warn("Could not load the grader thread count, using {} thread(s)", threadCount, e);
         }
+        setGraderThreadCount(threadCount);
     }
 
     /**
-     * Adds a grader to the queue. The grader will be run when there is an available thread
+     * Resizes the grading pool. Graders that are already running are allowed to finish;
+     * when the pool shrinks, the extra threads exit once they become idle.
      *
-     * @param grader the grader to add
+     * @param threadCount the number of graders that may run at the same time
      */
-    public void addGrader(Grader grader) {
-        executorService.submit(grader);
+    public synchronized void setGraderThreadCount(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("The grader thread count must be at least 1");
+        }
+        // The core size may never exceed the maximum size, so the order of these calls matters
+        if (threadCount > executorService.getMaximumPoolSize()) {
+            executorService.setMaximumPoolSize(threadCount);
+            executorService.setCorePoolSize(threadCount);
+        } else {
+            executorService.setCorePoolSize(threadCount);
+            executorService.setMaximumPoolSize(threadCount);
+        }
+        LOGGER.info("Grading pool set to {} thread(s)", threadCount);
     }
 
+    public int getGraderThreadCount() {
+        return executorService.getCorePoolSize();
+    }
 
-    public void notifySubscribers(String netId, Map<String, Object> message) {
-        List<Session> sessionList = sessions.get(netId);
 
-        if (sessionList == null) return;
-        for (Session session : sessionList) {
-            if (session.isOpen()) {
-                WebSocketController.send(session, message);
-            }
+    /**
+     * Sends a grading event to the sessions subscribed to a netId, and adds it to the netId's
+     * {@link GradingEventLog} so that sessions that subscribe later also receive it
+     *
+     * @param netId the netId the event is for
+     * @param contents the event
+     */
+    public void publishGradingEvent(String netId, Map<String, Object> contents) {
+        GradingEventLog log = getActiveEventLog(netId);
+        synchronized (log) {
+            notifySubscribers(netId, log.append(contents));
         }
     }
+
+    /**
+     * Sends a message to the sessions subscribed to a netId. The message is serialized once and
+     * written to each session in the background.
+     *
+     * @param netId the netId the message is for
+     * @param message the message
+     */
+    public void notifySubscribers(String netId, Map<String, Object> message) {
+        if (!sessions.contains(netId)) return;
+        sessions.send(netId, Serializer.serialize(message));
+    }
 }
@@ -1,17 +1,14 @@
 package edu.byu.cs.controller;
 
-import edu.byu.cs.dataAccess.DaoService;
-import edu.byu.cs.dataAccess.DataAccessException;
 import edu.byu.cs.util.JwtUtils;
 import edu.byu.cs.util.Serializer;
+import io.javalin.websocket.WsCloseContext;
 import io.javalin.websocket.WsErrorContext;
 import io.javalin.websocket.WsMessageContext;
-import org.eclipse.jetty.websocket.api.Session;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -26,89 +23,49 @@ public class WebSocketController {
         }
     }
 
+    public static void onClose(WsCloseContext ctx) {
+        TrafficController.removeSession(StatusChannel.of(ctx.session));
+    }
+
     public static void onMessage(WsMessageContext ctx) {
-        Session session = ctx.session;
+        StatusChannel channel = StatusChannel.of(ctx.session);
         String netId;
         ctx.enableAutomaticPings(20, TimeUnit.SECONDS);
         try {
             netId = JwtUtils.validateToken(ctx.cookie("token"));
         } catch (Exception e) {
             LOGGER.warn("Exception thrown while validating token: ", e);
-            sendError(session, "Invalid token");
-            session.close();
-            return;
-        }
-
-        if(!isInQueue(netId)) {
-            sendError(session, "You are not in the queue");
-            session.close();
+            TrafficController.sendErrorAndClose(channel, "Invalid token");
             return;
         }
 
-        if (TrafficController.hasSession(netId, session)) {
+        if (netId == null) {
+            TrafficController.sendErrorAndClose(channel, "Invalid token");
             return;
         }
 
-        // Register the session to receive updates,
-        // notify all queue members of the new queue state.
-        TrafficController.addSession(netId, session);
-        updateAllQueueMembers();
-    }
-
-    /**
-     * Indicates whether the student is the pass-off queue.
-     *
-     * @param netId The student NetId to verify.
-     * @return A boolean indicating the result.
-     * @throws RuntimeException When a {@link DataAccessException} occurs.
-     */
-    private static boolean isInQueue(String netId) {
-        try {
-            return DaoService.getQueueDao().isAlreadyInQueue(netId);
-        } catch (DataAccessException e) {
-            LOGGER.error("Error accessing queue", e);
-            throw new RuntimeException("Error accessing queue", e);
-        }
-    }
-
-    /**
-     * Updates everyone in the queue of their new state in the queue.
-     *
-     * @throws RuntimeException When a {@link DataAccessException} occurs.
-     */
-    private static void updateAllQueueMembers() {
-        try {
-            TrafficController.broadcastQueueStatus();
-        } catch (DataAccessException e) {
-            LOGGER.error("Error broadcasting queue status", e);
-            throw new RuntimeException("Error broadcasting queue status", e);
-        }
+        TrafficController.subscribe(netId, channel, getLastSeq(ctx.message()));
     }
 
     /**
-     * Sends a message to the given session
+     * Reads the {@code seq} of the last grading event a client received from its subscribe message,
+     * which is either empty or a JSON object like {@code {"lastSeq": 12}}
      *
-     * @param session the session to send the message to
-     * @param message the message
+     * @param message the message sent by the client
+     * @return the {@code seq} of the last event received, or 0 if the client hasn't received any
      */
-    public static void send(Session session, Map<String, Object> message) {
-        String jsonMessage = Serializer.serialize(message);
+    private static long getLastSeq(String message) {
+        if (message == null || message.isBlank()) return 0;
         try {
-            session.getRemote().sendString(jsonMessage);
-        } catch (Exception e) {
-            LOGGER.warn("Exception thrown while sending: ", e);
+            SubscribeMessage subscribe = Serializer.deserialize(message, SubscribeMessage.class);
+            return subscribe == null || subscribe.lastSeq() == null ? 0 : subscribe.lastSeq();
+        } catch (Serializer.SerializationException e) {
+            LOGGER.debug("Ignoring unreadable subscribe message: {}", message);
+            return 0;
         }
     }
 
-    /**
-     * Sends an error message to the given session
-     *
-     * @param session the session to send the message to
-     * @param message the error message
-     */
-    public static void sendError(Session session, String message) {
-        send(session, Map.of("type", "error", "message", message));
-    }
+    private record SubscribeMessage(Long lastSeq) {}
 
 
 }
@@ -0,0 +1,19 @@
+package edu.byu.cs.controller.netmodel;
+
+import edu.byu.cs.autograder.GradingMetrics;
+import edu.byu.cs.controller.SessionRegistry;
+import edu.byu.cs.dataAccess.cache.CachingConfigurationDao;
+import edu.byu.cs.dataAccess.cache.CachingRubricConfigDao;
+import org.eclipse.jgit.annotations.Nullable;
+
+/**
+ * The performance metrics of the AutoGrader
+ *
+ * @param grading the timings of each stage of grading
+ * @param sessions how the WebSocket sessions are keeping up with the messages sent to them
+ * @param configurationCache how often configuration is read from the cache, or null if it isn't cached
+ * @param rubricConfigCache how often rubric configs are read from memory, or null if they aren't kept
+ */
+public record MetricsResponse(GradingMetrics.Report grading, SessionRegistry.Stats sessions,
+                              @Nullable CachingConfigurationDao.Stats configurationCache,
+                              @Nullable CachingRubricConfigDao.Stats rubricConfigCache) {}
@@ -0,0 +1,14 @@
+package edu.byu.cs.controller.netmodel;
+
+import edu.byu.cs.model.Submission;
+
+import java.util.List;
+
+/**
+ * A page of a user's submissions, newest first
+ *
+ * @param submissions the submissions in the page
+ * @param nextCursor the cursor to request the next page with, or null if this is the last page
+ */
+public record SubmissionPageResponse(List<Submission> submissions, String nextCursor) {
+}
@@ -1,9 +1,14 @@
 package edu.byu.cs.dataAccess;
 
+import edu.byu.cs.dataAccess.cache.CachingConfigurationDao;
+import edu.byu.cs.dataAccess.cache.CachingRubricConfigDao;
 import edu.byu.cs.dataAccess.daoInterface.*;
 import edu.byu.cs.dataAccess.memory.*;
 import edu.byu.cs.dataAccess.sql.*;
 import edu.byu.cs.model.Phase;
+import edu.byu.cs.properties.ApplicationProperties;
+
+import java.time.Duration;
 
 /**
  * Provides centralized access and management for all DAOs.
@@ -93,9 +98,12 @@ public class DaoService {
     /** Create and set a SQL DAO for every DAO. Used for live application purposes */
     public static void initializeSqlDAOs() throws DataAccessException {
         SqlDb.setUpDb();
-        DaoService.setConfigurationDao(new ConfigurationSqlDao());
+        DaoService.setConfigurationDao(new CachingConfigurationDao(new ConfigurationSqlDao(),
+                Duration.ofSeconds(ApplicationProperties.configCacheSeconds())));
         DaoService.setQueueDao(new QueueSqlDao());
-        DaoService.setRubricConfigDao(new RubricConfigSqlDao());
+        CachingRubricConfigDao rubricConfigDao = new CachingRubricConfigDao(new RubricConfigSqlDao());
+        rubricConfigDao.preload();
+        DaoService.setRubricConfigDao(rubricConfigDao);
         DaoService.setSubmissionDao(new SubmissionSqlDao());
         DaoService.setUserDao(new UserSqlDao());
         DaoService.setRepoUpdateDao(new RepoUpdateSqlDao());
@@ -0,0 +1,14 @@
+package edu.byu.cs.dataAccess;
+
+import java.io.IOException;
+
+/**
+ * A {@link FunctionalInterface} that receives items one at a time as they are read, such as to
+ * write each item to a response without first collecting them all in memory
+ *
+ * @param <T> the type of item received
+ */
+@FunctionalInterface
+public interface ItemConsumer <T> {
+    void accept(T item) throws IOException;
+}
@@ -0,0 +1,106 @@
+package edu.byu.cs.dataAccess.cache;
+
+import edu.byu.cs.dataAccess.DataAccessException;
+import edu.byu.cs.dataAccess.daoInterface.ConfigurationDao;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link ConfigurationDao} that remembers the values it reads from another {@code ConfigurationDao}.
+ * <br><br>
+ * Configuration is read on nearly every request and submission but rarely changes, so each value is
+ * kept for a short time to live rather than read from the database every time. Values set through
+ * this DAO are forgotten as soon as they are written, so changes made through the AutoGrader are
+ * seen immediately. Changes made another way, such as directly in the database or by another
+ * instance of the AutoGrader, are seen once the cached value expires.
+ */
+public class CachingConfigurationDao implements ConfigurationDao {
+
+    private final ConfigurationDao delegate;
+    private final Duration timeToLive;
+    private final Clock clock;
+
+    private final ConcurrentHashMap<CacheKey, CachedValue> values = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * @param delegate the DAO the values are read from and written to
+     * @param timeToLive how long a value is used before it is read again
+     */
+    public CachingConfigurationDao(ConfigurationDao delegate, Duration timeToLive) {
+        this(delegate, timeToLive, Clock.systemUTC());
+    }
+
+    CachingConfigurationDao(ConfigurationDao delegate, Duration timeToLive, Clock clock) {
+        this.delegate = delegate;
+        this.timeToLive = timeToLive;
+        this.clock = clock;
+    }
+
+    @Override
+    public <T> void setConfiguration(Configuration key, T value, Class<T> type) throws DataAccessException {
+        try {
+            delegate.setConfiguration(key, value, type);
+        } finally {
+            // Even a failed write may have changed the value
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public <T> T getConfiguration(Configuration key, Class<T> type) throws DataAccessException {
+        CacheKey cacheKey = new CacheKey(key, type);
+        Instant now = clock.instant();
+        CachedValue cached = values.get(cacheKey);
+        if (cached != null && now.isBefore(cached.expires())) {
+            hits.incrementAndGet();
+            return type.cast(cached.value());
+        }
+
+        misses.incrementAndGet();
+        long generation = invalidations.get();
+        T value = delegate.getConfiguration(key, type);
+        // A value read while the key was being written may already be out of date
+        if (value != null && invalidations.get() == generation) {
+            values.put(cacheKey, new CachedValue(value, now.plus(timeToLive)));
+        }
+        return value;
+    }
+
+    /**
+     * Forgets the cached values of a key, so that it is read again the next time it is needed
+     *
+     * @param key the key to forget
+     */
+    public void invalidate(Configuration key) {
+        invalidations.incrementAndGet();
+        values.keySet().removeIf(cacheKey -> cacheKey.key() == key);
+    }
+
+    public Stats getStats() {
+        return new Stats(values.size(), hits.get(), misses.get(), invalidations.get(), timeToLive.toMillis());
+    }
+
+    /**
+     * @param size the number of values cached
+     * @param hits the number of reads answered from the cache
+     * @param misses the number of reads that went to the database
+     * @param invalidations the number of times values were forgotten because they were written
+     * @param timeToLiveMillis how long a value is used before it is read again
+     */
+    public record Stats(int size, long hits, long misses, long invalidations, long timeToLiveMillis) {}
+
+    /**
+     * Values are converted to the type they are read as, so the same key is cached separately for
+     * each type
+     */
+    private record CacheKey(Configuration key, Class<?> type) {}
+
+    private record CachedValue(Object value, Instant expires) {}
+}
@@ -0,0 +1,123 @@
+package edu.byu.cs.dataAccess.cache;
+
+import edu.byu.cs.dataAccess.DataAccessException;
+import edu.byu.cs.dataAccess.daoInterface.RubricConfigDao;
+import edu.byu.cs.model.Phase;
+import edu.byu.cs.model.Rubric;
+import edu.byu.cs.model.RubricConfig;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link RubricConfigDao} that keeps the {@link RubricConfig} of every phase in memory.
+ * <br><br>
+ * Grading a single submission reads the rubric config of its phase several times, while rubric
+ * configs only change when an admin updates the course, so they are read from the database once and
+ * kept. Rubric configs are only written through this DAO, such as when course IDs are reloaded from
+ * Canvas, and each write refreshes the rubric config of its phase, so the kept configs never go stale.
+ * Reads are answered without locking; writes and reads from the database are done one at a time, so
+ * that a read from the database can't replace a newer rubric config with the one it read.
+ */
+public class CachingRubricConfigDao implements RubricConfigDao {
+
+    private final RubricConfigDao delegate;
+
+    private final Map<Phase, RubricConfig> configs = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+
+    /**
+     * @param delegate the DAO the rubric configs are read from and written to
+     */
+    public CachingRubricConfigDao(RubricConfigDao delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Reads the rubric config of every phase, so that grading never waits on the database for one
+     */
+    public void preload() throws DataAccessException {
+        for (Phase phase : Phase.values()) {
+            refresh(phase);
+        }
+    }
+
+    @Override
+    public synchronized void setDefaultConfigIfNotExists() throws DataAccessException {
+        try {
+            delegate.setDefaultConfigIfNotExists();
+        } finally {
+            configs.clear();
+        }
+    }
+
+    @Override
+    public RubricConfig getRubricConfig(Phase phase) throws DataAccessException {
+        RubricConfig config = configs.get(phase);
+        if (config != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            config = refresh(phase);
+        }
+        return copy(config);
+    }
+
+    @Override
+    public synchronized void setRubricConfig(Phase phase, RubricConfig rubricConfig) throws DataAccessException {
+        try {
+            delegate.setRubricConfig(phase, rubricConfig);
+        } finally {
+            forget(phase);
+        }
+        refresh(phase);
+    }
+
+    @Override
+    public synchronized void setRubricIdAndPoints(Phase phase, Rubric.RubricType type, Integer points, String rubric_id)
+            throws DataAccessException {
+        try {
+            delegate.setRubricIdAndPoints(phase, type, points, rubric_id);
+        } finally {
+            forget(phase);
+        }
+        refresh(phase);
+    }
+
+    private synchronized RubricConfig refresh(Phase phase) throws DataAccessException {
+        RubricConfig config = delegate.getRubricConfig(phase);
+        refreshes.incrementAndGet();
+        if (config != null) {
+            configs.put(phase, copy(config));
+        }
+        return config;
+    }
+
+    private void forget(Phase phase) {
+        configs.remove(phase);
+    }
+
+    /**
+     * The items of a rubric config can be changed, so callers are given their own copy
+     */
+    private static RubricConfig copy(RubricConfig config) {
+        if (config == null || config.items() == null) return config;
+        return new RubricConfig(config.phase(), new EnumMap<>(config.items()));
+    }
+
+    public Stats getStats() {
+        return new Stats(configs.size(), hits.get(), misses.get(), refreshes.get());
+    }
+
+    /**
+     * @param size the number of phases whose rubric config is kept
+     * @param hits the number of reads answered from memory
+     * @param misses the number of reads that went to the database
+     * @param refreshes the number of times a rubric config was read from the database
+     */
+    public record Stats(int size, long hits, long misses, long refreshes) {}
+}
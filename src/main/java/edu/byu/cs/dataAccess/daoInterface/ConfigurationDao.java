@@ -36,6 +36,7 @@ public interface ConfigurationDao {
         CLOCK_FORGIVENESS_MINUTES,
         MAX_ERROR_OUTPUT_CHARS,
         HOLIDAY_LIST,
-        SLACK_LINK
+        SLACK_LINK,
+        GRADER_THREAD_COUNT
     }
 }
@@ -23,6 +23,13 @@ public interface QueueDao {
      */
     void remove(String netId) throws DataAccessException;
 
+    /**
+     * Removes many items from the queue at once
+     *
+     * @param netIds the netIds of the items to remove
+     */
+    void remove(Collection<String> netIds) throws DataAccessException;
+
     /**
      * Gets all items in the queue
      *
@@ -47,6 +54,13 @@ public interface QueueDao {
 
     void markNotStarted(String netId) throws DataAccessException;
 
+    /**
+     * Marks many items as not yet started to be graded at once
+     *
+     * @param netIds the netIds of the items to mark
+     */
+    void markNotStarted(Collection<String> netIds) throws DataAccessException;
+
     /**
      * Gets an item from the queue
      *
@@ -1,11 +1,14 @@
 package edu.byu.cs.dataAccess.daoInterface;
 
 import edu.byu.cs.dataAccess.DataAccessException;
+import edu.byu.cs.dataAccess.ItemConsumer;
 import edu.byu.cs.dataAccess.ItemNotFoundException;
 import edu.byu.cs.model.Phase;
 import edu.byu.cs.model.Submission;
 import org.eclipse.jgit.annotations.NonNull;
+import org.eclipse.jgit.annotations.Nullable;
 
+import java.time.Instant;
 import java.util.Collection;
 
 /**
@@ -38,8 +41,46 @@ public interface SubmissionDao {
      */
     Collection<Submission> getSubmissionsForUser(String netId) throws DataAccessException;
 
+    /**
+     * Reads a page of the submissions for the given netId, newest first, handing each submission to
+     * the {@code consumer} as it is read rather than collecting them.
+     * <br>
+     * Pages are found by the position of the last submission of the previous page, not by an offset,
+     * so reading a later page doesn't read the pages before it, and submissions added while paging
+     * don't shift the later pages.
+     *
+     * @param netId the netId to get submissions for
+     * @param phase the phase to get submissions for, or null for all phases
+     * @param after the cursor returned with the previous page, or null to start with the newest submission
+     * @param limit the most submissions to read, or a negative number to read all of them
+     * @param consumer receives each submission as it is read
+     * @return the cursor of the last submission read if the page was full, or null if there are no
+     * more submissions to read
+     */
+    @Nullable
+    Cursor streamSubmissionsForUser(
+            String netId,
+            @Nullable Phase phase,
+            @Nullable Cursor after,
+            int limit,
+            ItemConsumer<Submission> consumer
+    ) throws DataAccessException;
+
     Submission getLastSubmissionForUser(String netId) throws DataAccessException;
 
+    /**
+     * Gets a single submission, such as one listed by {@link #getAllLatestSubmissionSummaries(int)}
+     * that is opened to see all of its details
+     *
+     * @param netId the netId the submission was made by
+     * @param phase the phase the submission was for
+     * @param headHash the hash of the commit that was submitted
+     * @param timestamp when the submission was made, as stored
+     * @return the submission, or null if there is no such submission
+     */
+    @Nullable
+    Submission getSubmission(String netId, Phase phase, String headHash, Instant timestamp) throws DataAccessException;
+
     /**
      * Gets all latest submissions
      * <br>
@@ -59,6 +100,27 @@ public interface SubmissionDao {
      */
     Collection<Submission> getAllLatestSubmissions(int batchSize) throws DataAccessException;
 
+    /**
+     * Gets summaries of the X most recent latest submissions, the same submissions returned by
+     * {@link #getAllLatestSubmissions(int)}, but as {@link Submission#summary()} summaries.
+     * <br>
+     * The fields left out of summaries are stored as JSON, so they aren't read or parsed at all,
+     * which makes this much cheaper for views that list many submissions.
+     *
+     * @param batchSize defines how many submissions to return. Set batchSize to a negative int to get All submissions
+     * @return summaries of the most recent X submissions
+     */
+    Collection<Submission> getAllLatestSubmissionSummaries(int batchSize) throws DataAccessException;
+
+    /**
+     * Reads every submission, oldest first, handing each submission to the {@code consumer} as it
+     * is read. Submissions are never all held in memory at once, so this can be used to export
+     * the whole collection.
+     *
+     * @param consumer receives each submission as it is read
+     */
+    void streamAllSubmissions(ItemConsumer<Submission> consumer) throws DataAccessException;
+
     /**
      * Removes all submissions for the given netId
      * <br/><strong>Note: this will likely only be used for the test student and admins</strong>
@@ -125,4 +187,40 @@ public interface SubmissionDao {
             @NonNull Float newScore,
             @NonNull Submission.ScoreVerification scoreVerification
     ) throws ItemNotFoundException, DataAccessException;
+
+    /**
+     * The position of a submission in a netId's submissions, ordered newest first.
+     * <br>
+     * Submissions with the same timestamp are ordered by an {@code id} that is unique to each stored
+     * submission, so that no two submissions have the same position.
+     *
+     * @param timestamp the timestamp of the submission, as stored
+     * @param id the id of the submission, as stored
+     */
+    record Cursor(Instant timestamp, long id) {
+
+        /**
+         * @return the cursor as a single string that can be passed to clients
+         */
+        public String encode() {
+            return timestamp.toEpochMilli() + "_" + id;
+        }
+
+        /**
+         * @param encoded a cursor returned by {@link #encode()}
+         * @return the cursor
+         * @throws IllegalArgumentException if {@code encoded} isn't a cursor
+         */
+        public static Cursor decode(String encoded) {
+            String[] parts = encoded.split("_", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor: " + encoded);
+            }
+            try {
+                return new Cursor(Instant.ofEpochMilli(Long.parseLong(parts[0])), Long.parseLong(parts[1]));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + encoded, e);
+            }
+        }
+    }
 }
@@ -20,6 +20,11 @@ public class QueueMemoryDao implements QueueDao {
         queue.removeIf(item -> item.netId().equals(netId));
     }
 
+    @Override
+    public void remove(Collection<String> netIds) {
+        queue.removeIf(item -> netIds.contains(item.netId()));
+    }
+
     @Override
     public Collection<QueueItem> getAll() {
         List<QueueItem> sorted = new ArrayList<>(queue);
@@ -56,6 +61,13 @@ public class QueueMemoryDao implements QueueDao {
         }
     }
 
+    @Override
+    public void markNotStarted(Collection<String> netIds) {
+        for (String netId : netIds) {
+            markNotStarted(netId);
+        }
+    }
+
     @Override
     public QueueItem get(String netId) {
         return queue.stream().filter(item -> item.netId().equals(netId)).findFirst().orElse(null);
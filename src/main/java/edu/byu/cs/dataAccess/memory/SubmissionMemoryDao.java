@@ -1,11 +1,13 @@
 package edu.byu.cs.dataAccess.memory;
 
 import edu.byu.cs.dataAccess.DataAccessException;
+import edu.byu.cs.dataAccess.ItemConsumer;
 import edu.byu.cs.dataAccess.ItemNotFoundException;
 import edu.byu.cs.dataAccess.daoInterface.SubmissionDao;
 import edu.byu.cs.model.Phase;
 import edu.byu.cs.model.Submission;
 
+import java.io.IOException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
@@ -14,10 +16,14 @@ import java.util.stream.Collectors;
 public class SubmissionMemoryDao implements SubmissionDao {
 
     private final Deque<Submission> submissions = new LinkedList<>();
+    /** Stands in for the auto-incremented id of the submission table, which orders submissions with the same timestamp */
+    private final Map<Submission, Long> ids = new IdentityHashMap<>();
+    private long nextId = 1;
 
     @Override
     public void insertSubmission(Submission submission) {
         submissions.add(submission);
+        ids.put(submission, nextId++);
     }
 
     @Override
@@ -39,6 +45,34 @@ public class SubmissionMemoryDao implements SubmissionDao {
                 .toList();
     }
 
+    @Override
+    public Cursor streamSubmissionsForUser(String netId, Phase phase, Cursor after, int limit,
+                                           ItemConsumer<Submission> consumer) throws DataAccessException {
+        Comparator<Cursor> newestFirst = Comparator.comparing(Cursor::timestamp)
+                .thenComparingLong(Cursor::id)
+                .reversed();
+        List<Submission> page = submissions.stream()
+                .filter(submission -> submission.netId().equals(netId))
+                .filter(submission -> phase == null || submission.phase().equals(phase))
+                .filter(submission -> after == null || newestFirst.compare(cursorOf(submission), after) > 0)
+                .sorted(Comparator.comparing(this::cursorOf, newestFirst))
+                .limit(limit < 0 ? Long.MAX_VALUE : limit)
+                .toList();
+
+        try {
+            for (Submission submission : page) {
+                consumer.accept(submission);
+            }
+        } catch (IOException e) {
+            throw new DataAccessException("Error streaming submissions", e);
+        }
+        return limit >= 0 && !page.isEmpty() && page.size() == limit ? cursorOf(page.getLast()) : null;
+    }
+
+    private Cursor cursorOf(Submission submission) {
+        return new Cursor(submission.timestamp(), ids.get(submission));
+    }
+
     @Override
     public Submission getLastSubmissionForUser(String netId) throws DataAccessException {
         Collection<Submission> submissions = getSubmissionsForUser(netId);
@@ -53,6 +87,15 @@ public class SubmissionMemoryDao implements SubmissionDao {
         return latest;
     }
 
+    @Override
+    public Submission getSubmission(String netId, Phase phase, String headHash, Instant timestamp) {
+        return getSubmissionsForPhase(netId, phase)
+                .stream()
+                .filter(submission -> submission.headHash().equals(headHash) && submission.timestamp().equals(timestamp))
+                .reduce((first, second) -> second)
+                .orElse(null);
+    }
+
     @Override
     public Collection<Submission> getAllLatestSubmissions() {
         return getAllLatestSubmissions(-1);
@@ -80,10 +123,27 @@ public class SubmissionMemoryDao implements SubmissionDao {
         return latestSubmissions.values();
     }
 
+    @Override
+    public Collection<Submission> getAllLatestSubmissionSummaries(int batchSize) {
+        return getAllLatestSubmissions(batchSize).stream().map(Submission::summary).toList();
+    }
+
+    @Override
+    public void streamAllSubmissions(ItemConsumer<Submission> consumer) throws DataAccessException {
+        try {
+            for (Submission submission : List.copyOf(submissions)) {
+                consumer.accept(submission);
+            }
+        } catch (IOException e) {
+            throw new DataAccessException("Error streaming submissions", e);
+        }
+    }
+
     @Override
     public void removeSubmissionsByNetId(String netId, int daysOld) {
         submissions.removeIf(submission -> submission.netId().equals(netId) &&
                 submission.timestamp().compareTo(Instant.now().minus(daysOld, ChronoUnit.DAYS)) < 0);
+        ids.keySet().retainAll(submissions);
     }
 
     @Override
@@ -143,8 +203,10 @@ public class SubmissionMemoryDao implements SubmissionDao {
             if (!targetSubmission.equals(submission)) continue;
 
             iterator.remove();
-            submissions.add(submission.updateApproval(
-                    newScore, Submission.VerifiedStatus.ApprovedManually, scoreVerification));
+            Submission approved = submission.updateApproval(
+                    newScore, Submission.VerifiedStatus.ApprovedManually, scoreVerification);
+            submissions.add(approved);
+            ids.put(approved, ids.remove(submission));
             return; // We found it!
         }
 
@@ -4,6 +4,7 @@ import edu.byu.cs.dataAccess.DataAccessException;
 import edu.byu.cs.dataAccess.daoInterface.QueueDao;
 import edu.byu.cs.dataAccess.sql.helpers.ColumnDefinition;
 import edu.byu.cs.dataAccess.sql.helpers.SqlReader;
+import edu.byu.cs.dataAccess.sql.helpers.UnitOfWork;
 import edu.byu.cs.model.Phase;
 import edu.byu.cs.model.QueueItem;
 
@@ -28,6 +29,12 @@ public class QueueSqlDao implements QueueDao {
         );
     }
 
+    private static final String UPDATE_STARTED_STATEMENT = """
+            UPDATE %s
+            SET started = ?
+            WHERE net_id = ?
+            """;
+
     private final SqlReader<QueueItem> sqlReader = new SqlReader<QueueItem>(
             "queue", COLUMN_DEFINITIONS, QueueSqlDao::readQueueItem);
 
@@ -47,6 +54,19 @@ public class QueueSqlDao implements QueueDao {
         );
     }
 
+    @Override
+    public void remove(Collection<String> netIds) throws DataAccessException {
+        if (netIds.isEmpty()) return;
+        try (UnitOfWork work = new UnitOfWork()) {
+            for (String netId : netIds) {
+                sqlReader.executeUpdate(work,
+                        "DELETE FROM %s WHERE net_id = ?".formatted(sqlReader.getTableName()),
+                        ps -> ps.setString(1, netId));
+            }
+            work.commit();
+        }
+    }
+
     @Override
     public Collection<QueueItem> getAll() throws DataAccessException {
         return sqlReader.executeQuery("ORDER BY time_added");
@@ -70,13 +90,23 @@ public class QueueSqlDao implements QueueDao {
         updatedStartedField(netId, false);
     }
 
+    @Override
+    public void markNotStarted(Collection<String> netIds) throws DataAccessException {
+        if (netIds.isEmpty()) return;
+        try (UnitOfWork work = new UnitOfWork()) {
+            for (String netId : netIds) {
+                sqlReader.executeUpdate(work, UPDATE_STARTED_STATEMENT.formatted(sqlReader.getTableName()), ps -> {
+                    ps.setBoolean(1, false);
+                    ps.setString(2, netId);
+                });
+            }
+            work.commit();
+        }
+    }
+
     private void updatedStartedField(String netId, boolean started) throws DataAccessException {
         sqlReader.executeUpdate(
-                """
-                     UPDATE %s
-                     SET started = ?
-                     WHERE net_id = ?
-                     """.formatted(sqlReader.getTableName()),
+                UPDATE_STARTED_STATEMENT.formatted(sqlReader.getTableName()),
                 ps -> {
                     ps.setBoolean(1, started);
                     ps.setString(2, netId);
@@ -2,6 +2,7 @@ package edu.byu.cs.dataAccess.sql;
 
 import edu.byu.cs.dataAccess.DataAccessException;
 import edu.byu.cs.dataAccess.daoInterface.RubricConfigDao;
+import edu.byu.cs.dataAccess.sql.helpers.UnitOfWork;
 import edu.byu.cs.model.Phase;
 import edu.byu.cs.model.Rubric;
 import edu.byu.cs.model.RubricConfig;
@@ -27,15 +28,19 @@ public class RubricConfigSqlDao implements RubricConfigDao {
 
     @Override
     public void setDefaultConfigIfNotExists() throws DataAccessException {
-        for (Phase phase : Phase.values()){
-            RubricConfig config = getRubricConfig(phase);
-            RubricConfig defaultRubricConfig = RubricConfigDao.getDefaultRubricConfig(phase);
-            if (config.items().isEmpty() || isEmptyConfig(config)){
-                setRubricConfig(phase, defaultRubricConfig);
-            }
-            else if (!defaultRubricConfig.equals(config)){
-                suppressRubricIdWarnings(config);
+        // The defaults of every missing phase are inserted together
+        try (UnitOfWork work = new UnitOfWork()) {
+            for (Phase phase : Phase.values()){
+                RubricConfig config = getRubricConfig(phase);
+                RubricConfig defaultRubricConfig = RubricConfigDao.getDefaultRubricConfig(phase);
+                if (config.items().isEmpty() || isEmptyConfig(config)){
+                    addRubricConfigItems(work, phase, defaultRubricConfig);
+                }
+                else if (!defaultRubricConfig.equals(config)){
+                    suppressRubricIdWarnings(config);
+                }
             }
+            work.commit();
         }
     }
 
@@ -65,18 +70,32 @@ public class RubricConfigSqlDao implements RubricConfigDao {
     public RubricConfig getRubricConfig(Phase phase) throws DataAccessException {
         EnumMap<Rubric.RubricType, RubricConfig.RubricConfigItem> items = new EnumMap<>(Rubric.RubricType.class);
         for(Rubric.RubricType type : Rubric.RubricType.values()) {
-            items.put(type, getRubricItem(phase, type));
+            items.put(type, null);
+        }
+        // Every item of the phase is read with one query, rather than one query per type
+        try (var connection = SqlDb.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT * FROM rubric_config WHERE phase = ?")) {
+            statement.setString(1, phase.name());
+            try(ResultSet results = statement.executeQuery()) {
+                while (results.next()) {
+                    Rubric.RubricType type = readRubricType(results.getString("type"));
+                    if (type == null) continue;
+                    items.put(type, new RubricConfig.RubricConfigItem(results.getString("category"),
+                            results.getString("criteria"), results.getInt("points"),
+                            results.getString("rubric_id")));
+                }
+            }
+        } catch (Exception e) {
+            throw new DataAccessException("Error getting rubric items", e);
         }
         return new RubricConfig(phase, items);
     }
 
     @Override
     public void setRubricConfig(Phase phase, RubricConfig rubricConfig) throws DataAccessException {
-        for (Map.Entry<Rubric.RubricType, RubricConfig.RubricConfigItem> entry : rubricConfig.items().entrySet()) {
-            RubricConfig.RubricConfigItem item = entry.getValue();
-            if (item != null) {
-                addRubricConfigItem(phase, entry.getKey(), item.category(), item.criteria(), item.points(), item.rubric_id());
-            }
+        try (UnitOfWork work = new UnitOfWork()) {
+            addRubricConfigItems(work, phase, rubricConfig);
+            work.commit();
         }
     }
 
@@ -94,37 +113,33 @@ public class RubricConfigSqlDao implements RubricConfigDao {
         }
     }
 
-    private void addRubricConfigItem(Phase phase, Rubric.RubricType type, String category, String criteria, int points, String id) throws DataAccessException {
-        try (var connection = SqlDb.getConnection()) {
-            PreparedStatement statement = connection.prepareStatement("INSERT INTO rubric_config (phase, type, category, criteria, points, rubric_id) VALUES (?, ?, ?, ?, ?, ?)");
-            statement.setString(1, phase.name());
-            statement.setString(2, type.toString());
-            statement.setString(3, category);
-            statement.setString(4, criteria);
-            statement.setInt(5, points);
-            statement.setString(6, id);
-            statement.executeUpdate();
-        } catch (Exception e) {
-            throw new DataAccessException("Error getting rubric item", e);
+    private void addRubricConfigItems(UnitOfWork work, Phase phase, RubricConfig rubricConfig) throws DataAccessException {
+        for (Map.Entry<Rubric.RubricType, RubricConfig.RubricConfigItem> entry : rubricConfig.items().entrySet()) {
+            RubricConfig.RubricConfigItem item = entry.getValue();
+            if (item != null) {
+                work.addBatch(
+                        "INSERT INTO rubric_config (phase, type, category, criteria, points, rubric_id) VALUES (?, ?, ?, ?, ?, ?)",
+                        statement -> {
+                            statement.setString(1, phase.name());
+                            statement.setString(2, entry.getKey().toString());
+                            statement.setString(3, item.category());
+                            statement.setString(4, item.criteria());
+                            statement.setInt(5, item.points());
+                            statement.setString(6, item.rubric_id());
+                        });
+            }
         }
     }
 
-    private RubricConfig.RubricConfigItem getRubricItem(Phase phase, Rubric.RubricType type) throws DataAccessException {
-        try (var connection = SqlDb.getConnection();
-            PreparedStatement statement = connection.prepareStatement("SELECT * FROM rubric_config WHERE phase = ? AND type = ?")) {
-            statement.setString(1, phase.name());
-            statement.setString(2, type.toString());
-            try(ResultSet results = statement.executeQuery()) {
-                if (results.next()) {
-                    return new RubricConfig.RubricConfigItem(results.getString("category"),
-                            results.getString("criteria"), results.getInt("points"),
-                            results.getString("rubric_id"));
-                }
-            }
-        } catch (Exception e) {
-            throw new DataAccessException("Error getting rubric item", e);
+    /**
+     * @return the rubric type, or null for rows of a type that no longer exists
+     */
+    private static Rubric.RubricType readRubricType(String type) {
+        try {
+            return Rubric.RubricType.valueOf(type);
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Ignoring rubric config item of unknown type: {}", type);
+            return null;
         }
-
-        return null;
     }
 }
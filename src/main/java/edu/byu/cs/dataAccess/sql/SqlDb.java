@@ -12,6 +12,8 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 
@@ -53,6 +55,8 @@ public class SqlDb {
                     createTableStatement.executeUpdate(tableStatement);
                 }
             }
+            addMissingColumn(connection, "submission", "resource_usage", "JSON");
+            addMissingIndex(connection, "submission", "history_index", "(`net_id`,`timestamp`)");
 
             setupConnectionPool();
         } catch (SQLException e) {
@@ -61,6 +65,52 @@ public class SqlDb {
         }
     }
 
+    /**
+     * Adds a column to a table that was created before the column was added to the startup script.
+     * MySQL has no {@code ADD COLUMN IF NOT EXISTS}, so the column is looked up first.
+     */
+    private static void addMissingColumn(Connection connection, String table, String column, String definition)
+            throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("""
+                SELECT 1 FROM information_schema.COLUMNS
+                WHERE TABLE_SCHEMA = ? AND TABLE_NAME = ? AND COLUMN_NAME = ?
+                """)) {
+            ps.setString(1, DB_NAME);
+            ps.setString(2, table);
+            ps.setString(3, column);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) return;
+            }
+        }
+        LOGGER.info("Adding column {} to table {}", column, table);
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("ALTER TABLE `" + table + "` ADD COLUMN `" + column + "` " + definition);
+        }
+    }
+
+    /**
+     * Adds an index to a table that was created before the index was added to the startup script.
+     * MySQL has no {@code ADD INDEX IF NOT EXISTS}, so the index is looked up first.
+     */
+    private static void addMissingIndex(Connection connection, String table, String index, String columns)
+            throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("""
+                SELECT 1 FROM information_schema.STATISTICS
+                WHERE TABLE_SCHEMA = ? AND TABLE_NAME = ? AND INDEX_NAME = ?
+                """)) {
+            ps.setString(1, DB_NAME);
+            ps.setString(2, table);
+            ps.setString(3, index);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) return;
+            }
+        }
+        LOGGER.info("Adding index {} to table {}", index, table);
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("ALTER TABLE `" + table + "` ADD INDEX `" + index + "` " + columns);
+        }
+    }
+
     private static void setupConnectionPool(){
         HikariConfig config = new HikariConfig();
         config.setJdbcUrl(CONNECTION_STRING);
@@ -71,6 +121,8 @@ public class SqlDb {
         config.addDataSourceProperty("cachePrepStmts", "true");
         config.addDataSourceProperty("prepStmtCacheSize", "250");
         config.addDataSourceProperty("prepStmtCacheSqlLimit","2048");
+        // Lets batched inserts be sent as multi-row inserts, see UnitOfWork
+        config.addDataSourceProperty("rewriteBatchedStatements", "true");
 
 
 
@@ -86,4 +138,23 @@ public class SqlDb {
             throw new DataAccessException("Error connecting to database", e);
         }
     }
+
+    /**
+     * Opens a connection that isn't taken from the connection pool, for queries that hold their
+     * connection for as long as something outside the database takes, such as a client downloading
+     * an export. Holding a pooled connection that long would leave less of the pool for everything else.
+     *
+     * @return a new connection, which the caller must close
+     */
+    public static Connection openDedicatedConnection() throws DataAccessException {
+        try {
+            Connection connection = DriverManager.getConnection(CONNECTION_STRING, DB_USER, DB_PASSWORD);
+            connection.setCatalog(DB_NAME);
+            return connection;
+        } catch (SQLException e) {
+            LOGGER.error("Error connecting to database", e);
+
+            throw new DataAccessException("Error connecting to database", e);
+        }
+    }
 }
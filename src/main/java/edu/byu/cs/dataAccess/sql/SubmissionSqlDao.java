@@ -3,11 +3,14 @@ package edu.byu.cs.dataAccess.sql;
 import edu.byu.cs.autograder.git.CommitValidation.CommitVerificationContext;
 import edu.byu.cs.autograder.git.CommitVerificationResult;
 import edu.byu.cs.dataAccess.DataAccessException;
+import edu.byu.cs.dataAccess.ItemConsumer;
 import edu.byu.cs.dataAccess.ItemNotFoundException;
 import edu.byu.cs.dataAccess.daoInterface.SubmissionDao;
 import edu.byu.cs.dataAccess.sql.helpers.ColumnDefinition;
+import edu.byu.cs.dataAccess.sql.helpers.ItemBuilder;
 import edu.byu.cs.dataAccess.sql.helpers.SqlReader;
 import edu.byu.cs.model.Phase;
+import edu.byu.cs.model.ResourceUsage;
 import edu.byu.cs.model.Rubric;
 import edu.byu.cs.model.Submission;
 import edu.byu.cs.util.Serializer;
@@ -19,8 +22,10 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class SubmissionSqlDao implements SubmissionDao {
 
@@ -40,7 +45,8 @@ public class SubmissionSqlDao implements SubmissionDao {
             new ColumnDefinition<Submission>("verified_status", Submission::serializeVerifiedStatus),
             new ColumnDefinition<Submission>("commit_context", Submission::serializeCommitContext),
             new ColumnDefinition<Submission>("commit_result", Submission::serializeCommitResult),
-            new ColumnDefinition<Submission>("verification", Submission::serializeScoreVerification)
+            new ColumnDefinition<Submission>("verification", Submission::serializeScoreVerification),
+            new ColumnDefinition<Submission>("resource_usage", Submission::serializeResourceUsage)
     };
 
     private static Submission readSubmission(ResultSet rs) throws SQLException {
@@ -60,6 +66,7 @@ public class SubmissionSqlDao implements SubmissionDao {
         String commitContextJson = rs.getString("commit_context");
         String commitResultJson = rs.getString("commit_result");
         String verificationJson = rs.getString("verification");
+        String resourceUsageJson = rs.getString("resource_usage");
 
         Submission.VerifiedStatus verifiedStatus =
                 verifiedStatusStr == null ? null :
@@ -70,19 +77,51 @@ public class SubmissionSqlDao implements SubmissionDao {
                 Serializer.deserializeSafely(commitResultJson, CommitVerificationResult.class);
         Submission.ScoreVerification scoreVerification =
                 Serializer.deserializeSafely(verificationJson, Submission.ScoreVerification.class);
+        ResourceUsage resourceUsage =
+                Serializer.deserializeSafely(resourceUsageJson, ResourceUsage.class);
 
         return new Submission(
                 netId, repoUrl, headHash, timestamp, phase,
                 passed, score, rawScore, notes, rubric,
-                admin, verifiedStatus, commitContext, commitResult, scoreVerification);
+                admin, verifiedStatus, commitContext, commitResult, scoreVerification, resourceUsage);
     }
 
+    /**
+     * Reads only the columns of a {@link Submission#summary()}, leaving out the JSON columns
+     */
+    private static Submission readSubmissionSummary(ResultSet rs) throws SQLException {
+        String verifiedStatusStr = rs.getString("verified_status");
+        return new Submission(
+                rs.getString("net_id"),
+                rs.getString("repo_url"),
+                rs.getString("head_hash"),
+                rs.getTimestamp("timestamp").toInstant(),
+                Phase.valueOf(rs.getString("phase")),
+                rs.getBoolean("passed"),
+                rs.getFloat("score"),
+                rs.getFloat("raw_score"),
+                rs.getString("notes"),
+                null,
+                rs.getBoolean("admin"),
+                verifiedStatusStr == null ? null : Submission.VerifiedStatus.valueOf(verifiedStatusStr),
+                null, null, null, null);
+    }
+
+    /** The columns read by {@link #readSubmissionSummary(ResultSet)} */
+    private static final String[] SUMMARY_COLUMN_NAMES = {
+            "net_id", "repo_url", "head_hash", "timestamp", "phase", "passed",
+            "score", "raw_score", "notes", "admin", "verified_status"
+    };
+
     private final SqlReader<Submission> sqlReader = new SqlReader<Submission>(
             "submission", COLUMN_DEFINITIONS, SubmissionSqlDao::readSubmission);
 
     private final String optimizedGetAllSubmissionsSelect =
             SqlReader.joinColumnNames(Arrays.stream(sqlReader.allColumnNames).map(s -> "s." + s));
 
+    private final String summarySelect =
+            SqlReader.joinColumnNames(Arrays.stream(SUMMARY_COLUMN_NAMES).map(s -> "s." + s));
+
 
     @Override
     public void insertSubmission(Submission submission) throws DataAccessException {
@@ -107,6 +146,44 @@ public class SubmissionSqlDao implements SubmissionDao {
                 ps -> ps.setString(1, netId));
     }
 
+    @Override
+    public Cursor streamSubmissionsForUser(String netId, Phase phase, Cursor after, int limit,
+                                           ItemConsumer<Submission> consumer) throws DataAccessException {
+        String statement = "SELECT id, %s FROM %s WHERE net_id = ? ".formatted(
+                SqlReader.joinColumnNames(sqlReader.allColumnNames), sqlReader.getTableName()) +
+                (phase != null ? "AND phase = ? " : "") +
+                (after != null ? "AND (timestamp < ? OR (timestamp = ? AND id < ?)) " : "") +
+                "ORDER BY timestamp DESC, id DESC " +
+                (limit >= 0 ? "LIMIT ?" : "");
+
+        AtomicReference<Cursor> last = new AtomicReference<>();
+        int read = sqlReader.streamQuery(
+                statement,
+                ps -> {
+                    int i = 1;
+                    ps.setString(i++, netId);
+                    if (phase != null) {
+                        ps.setString(i++, phase.toString());
+                    }
+                    if (after != null) {
+                        Timestamp timestamp = Timestamp.from(after.timestamp());
+                        ps.setTimestamp(i++, timestamp);
+                        ps.setTimestamp(i++, timestamp);
+                        ps.setLong(i++, after.id());
+                    }
+                    if (limit >= 0) {
+                        ps.setInt(i, limit);
+                    }
+                },
+                rs -> {
+                    Submission submission = readSubmission(rs);
+                    last.set(new Cursor(submission.timestamp(), rs.getLong("id")));
+                    consumer.accept(submission);
+                }
+        );
+        return limit >= 0 && read == limit ? last.get() : null;
+    }
+
     @Override
     public Submission getLastSubmissionForUser(String netId) throws DataAccessException {
         var submissions = sqlReader.executeQuery(
@@ -124,6 +201,25 @@ public class SubmissionSqlDao implements SubmissionDao {
 
 
 
+    @Override
+    public Submission getSubmission(String netId, Phase phase, String headHash, Instant timestamp)
+            throws DataAccessException {
+        var submissions = sqlReader.executeQuery(
+                """
+                        WHERE net_id = ? AND phase = ? AND head_hash = ? AND timestamp = ?
+                        ORDER BY id DESC
+                        LIMIT 1
+                        """,
+                ps -> {
+                    ps.setString(1, netId);
+                    ps.setString(2, phase.toString());
+                    ps.setString(3, headHash);
+                    ps.setTimestamp(4, Timestamp.from(timestamp));
+                }
+        );
+        return sqlReader.expectOneItem(submissions);
+    }
+
     @Override
     public Collection<Submission> getAllLatestSubmissions() throws DataAccessException {
         return getAllLatestSubmissions(-1);
@@ -131,8 +227,24 @@ public class SubmissionSqlDao implements SubmissionDao {
 
     @Override
     public Collection<Submission> getAllLatestSubmissions(int batchSize) throws DataAccessException {
-        try (var connection = SqlDb.getConnection()) {
-            var statement = connection.prepareStatement(
+        return getAllLatestSubmissions(batchSize, optimizedGetAllSubmissionsSelect, SubmissionSqlDao::readSubmission);
+    }
+
+    @Override
+    public Collection<Submission> getAllLatestSubmissionSummaries(int batchSize) throws DataAccessException {
+        return getAllLatestSubmissions(batchSize, summarySelect, SubmissionSqlDao::readSubmissionSummary);
+    }
+
+    /**
+     * @param batchSize how many submissions to return, or a negative int for all of them
+     * @param columns the columns to select, each prefixed with {@code s.}
+     * @param itemBuilder reads a submission from the selected columns
+     * @return the most recent X latest submissions
+     */
+    private Collection<Submission> getAllLatestSubmissions(int batchSize, String columns, ItemBuilder<Submission> itemBuilder)
+            throws DataAccessException {
+        try (var connection = SqlDb.getConnection();
+             var statement = connection.prepareStatement(
                     """
                             SELECT %s
                             FROM submission s
@@ -142,18 +254,23 @@ public class SubmissionSqlDao implements SubmissionDao {
                                 GROUP BY net_id, phase
                             ) s2 ON s.net_id = s2.net_id AND s.phase = s2.phase AND s.timestamp = s2.max_timestamp
                             ORDER BY s2.max_timestamp DESC
-                            """.formatted(optimizedGetAllSubmissionsSelect) +
+                            """.formatted(columns) +
                             (batchSize >= 0 ? "LIMIT ?" : "")
-            );
+             )) {
             if (batchSize >= 0) {
                 statement.setInt(1, batchSize);
             }
-            return sqlReader.readItems(statement);
+            return sqlReader.readItems(statement, itemBuilder, ArrayList::new);
         } catch (SQLException e) {
             throw new DataAccessException("Error getting latest submissions", e);
         }
     }
 
+    @Override
+    public void streamAllSubmissions(ItemConsumer<Submission> consumer) throws DataAccessException {
+        sqlReader.streamItems("ORDER BY id", ps -> {}, SqlReader.FETCH_ROW_BY_ROW, consumer);
+    }
+
     @Override
     public void removeSubmissionsByNetId(String netId, int daysOld) throws DataAccessException {
         sqlReader.executeUpdate(
@@ -0,0 +1,18 @@
+package edu.byu.cs.dataAccess.sql.helpers;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * A {@link FunctionalInterface} that receives each row of a {@link ResultSet} as it is read
+ */
+@FunctionalInterface
+public interface RowConsumer {
+    /**
+     * @param resultSet A ResultSet with the iterator pointing at a valid row
+     * @throws SQLException When SQL has an issue
+     * @throws IOException When the row couldn't be passed on, such as to a closed response
+     */
+    void accept(ResultSet resultSet) throws SQLException, IOException;
+}
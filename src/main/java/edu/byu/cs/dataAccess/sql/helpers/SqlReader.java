@@ -1,6 +1,7 @@
 package edu.byu.cs.dataAccess.sql.helpers;
 
 import edu.byu.cs.dataAccess.DataAccessException;
+import edu.byu.cs.dataAccess.ItemConsumer;
 import edu.byu.cs.dataAccess.sql.SqlDb;
 import org.eclipse.jgit.annotations.NonNull;
 import org.eclipse.jgit.annotations.Nullable;
@@ -24,6 +25,16 @@ public class SqlReader <T> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SqlReader.class);
 
+    /**
+     * A fetch size that makes the MySQL driver read rows from the database one at a time as they
+     * are consumed, instead of reading the whole result into memory first. No other statement can
+     * use the connection until the result is closed, which {@link #streamQuery} takes care of.
+     * <br>
+     * Since the connection is held for as long as the consumer takes, such queries are run on a
+     * dedicated connection rather than one from the pool.
+     */
+    public static final int FETCH_ROW_BY_ROW = Integer.MIN_VALUE;
+
     /** Represents the name of our SQL table */
     private final String tableName;
     /** Represents all the columns in the table. */
@@ -157,7 +168,7 @@ public class SqlReader <T> {
      * @param item The item to add to the table.
      */
     public void insertItem(@NonNull T item) throws DataAccessException {
-        // CONSIDER: We could prepare the statement a single time, and avoid rebuilding it.
+        // Bulk inserts should use insertItems, which prepares the statement a single time
         try (var connection = getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(insertStatement)
         ) {
@@ -173,6 +184,39 @@ public class SqlReader <T> {
         }
     }
 
+    /**
+     * Inserts many items into the database in a single batch, on one connection with one
+     * prepared statement, rather than one round trip per item.
+     * <br>
+     * Either every item is inserted or, if any insert fails, none of them are.
+     *
+     * @param items The items to add to the table.
+     */
+    public void insertItems(@NonNull Collection<T> items) throws DataAccessException {
+        if (items.isEmpty()) return;
+        try (UnitOfWork work = new UnitOfWork()) {
+            insertItems(work, items);
+            work.commit();
+        }
+    }
+
+    /**
+     * Adds many items to be inserted as part of a larger {@link UnitOfWork}.
+     * They are inserted in a single batch when the work is committed.
+     *
+     * @param work The unit of work to insert the items in
+     * @param items The items to add to the table.
+     */
+    public void insertItems(@NonNull UnitOfWork work, @NonNull Collection<T> items) throws DataAccessException {
+        for (T item : items) {
+            work.addBatch(insertStatement, ps -> {
+                for (var colDef : columnDefinitions) {
+                    setValue(ps, insertWildCardIndexPositions.get(colDef.columnName()), item, colDef);
+                }
+            });
+        }
+    }
+
     /**
      * Gets the value of an {@code item} using the {@code columnDefinition} and sets the value
      * in the {@code ps} using {@link #setValue(PreparedStatement, int, Object)}
@@ -318,6 +362,93 @@ public class SqlReader <T> {
         );
     }
 
+    /**
+     * Executes a query and hands each item built from the results to the {@code consumer} as it is
+     * read, using the preconfigured {@link ItemBuilder<T>}.
+     * <br>
+     * It appends the provided SQL fragment with {@link SqlReader#selectAllStmt(String)}, like
+     * {@link SqlReader#executeQuery(String, StatementPreparer)}, but never holds more than one item
+     * in memory. With a {@code fetchSize} of {@link #FETCH_ROW_BY_ROW}, neither does the driver, so
+     * even queries over a whole table run in constant memory.
+     *
+     * @param additionalStatementClauses Additional query clauses narrowing the results.
+     * @param statementPreparer A method that can modify the <code>PreparedStatement</code> before it is executed.
+     * @param fetchSize How many rows the driver reads from the database at a time. See {@link #FETCH_ROW_BY_ROW}.
+     * @param consumer A method that receives each item as it is read
+     * @return The number of items read
+     */
+    public int streamItems(
+            @Nullable String additionalStatementClauses,
+            @NonNull StatementPreparer statementPreparer,
+            int fetchSize,
+            @NonNull ItemConsumer<T> consumer
+    ) throws DataAccessException {
+        return streamQuery(
+                selectAllStmt(additionalStatementClauses),
+                statementPreparer,
+                fetchSize,
+                resultSet -> consumer.accept(itemBuilder.readItem(resultSet)));
+    }
+
+    /**
+     * A specialized overload that uses the driver's default fetch size.
+     *
+     * @see SqlReader#streamQuery(String, StatementPreparer, int, RowConsumer) for more details
+     */
+    public int streamQuery(
+            @NonNull String statement,
+            @NonNull StatementPreparer statementPreparer,
+            @NonNull RowConsumer rowConsumer
+    ) throws DataAccessException {
+        return streamQuery(statement, statementPreparer, 0, rowConsumer);
+    }
+
+    /**
+     * Executes a query and hands each row of the results to the {@code rowConsumer} as it is read,
+     * rather than collecting the items into a collection first.
+     * <br>
+     * Like {@link SqlReader#executeQuery(String, StatementPreparer, ResultSetProcessor)}, this
+     * method does not prepend anything to the statement. Include the entire SQL statement in this input.
+     * <br>
+     * The connection is held until every row has been consumed, so consumers that wait on something
+     * slow, such as a client downloading the results, hold it for that long. Queries read with a
+     * {@code fetchSize} of {@link #FETCH_ROW_BY_ROW} are meant for such consumers, so they are run on
+     * a dedicated connection from {@link SqlDb#openDedicatedConnection()} instead of a pooled one.
+     *
+     * @param statement The full SQL statement to prepare
+     * @param statementPreparer A method that can modify the <code>PreparedStatement</code> before it is executed.
+     * @param fetchSize How many rows the driver reads from the database at a time, or 0 for the driver's
+     *                  default, which reads every row before the first is returned. See {@link #FETCH_ROW_BY_ROW}.
+     * @param rowConsumer A method that receives each row of the results
+     * @return The number of rows read
+     */
+    public int streamQuery(
+            @NonNull String statement,
+            @NonNull StatementPreparer statementPreparer,
+            int fetchSize,
+            @NonNull RowConsumer rowConsumer
+    ) throws DataAccessException {
+        try (
+                var connection = fetchSize == FETCH_ROW_BY_ROW ? SqlDb.openDedicatedConnection() : getConnection();
+                PreparedStatement ps = connection.prepareStatement(
+                        statement, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)
+        ) {
+            statementPreparer.prepare(ps);
+            ps.setFetchSize(fetchSize);
+            int rows = 0;
+            try (ResultSet resultSet = ps.executeQuery()) {
+                while (resultSet.next()) {
+                    rowConsumer.accept(resultSet);
+                    rows++;
+                }
+            }
+            return rows;
+        } catch (Exception e) {
+            LOGGER.error("Error streaming query: {}", statement, e);
+            throw new DataAccessException("Error streaming query", e);
+        }
+    }
+
     /**
      * A helper method that requests a connection, prepares a SQL statement, then
      * executes the statement and returns the results
@@ -371,6 +502,24 @@ public class SqlReader <T> {
         }
     }
 
+    /**
+     * Adds an update to be run as part of a larger {@link UnitOfWork}. Updates that use the same
+     * statement share one prepared statement and are run in a single batch when the work is committed.
+     * <br>
+     * Like {@link SqlReader#executeUpdate(String, StatementPreparer)}, include the entire SQL statement in this input.
+     *
+     * @param work The unit of work to run the update in
+     * @param statement The string statement to prepare
+     * @param statementPreparer A method that finishes preparing the statement (usually be filling wildcards)
+     */
+    public void executeUpdate(
+            @NonNull UnitOfWork work,
+            @NonNull String statement,
+            @NonNull StatementPreparer statementPreparer
+    ) throws DataAccessException {
+        work.addBatch(statement, statementPreparer);
+    }
+
     /**
      * A helper method returning a connection to the database.
      * This should be closed after use.
@@ -0,0 +1,169 @@
+package edu.byu.cs.dataAccess.sql.helpers;
+
+import edu.byu.cs.dataAccess.DataAccessException;
+import edu.byu.cs.dataAccess.sql.SqlDb;
+import org.eclipse.jgit.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <h1>{@link UnitOfWork} Class</h1>
+ * Groups many writes into a single transaction on a single connection, for bulk operations
+ * that would otherwise check out a connection and prepare a statement for every row.
+ * <h2>Provides</h2>
+ * <ul>
+ *     <li>Prepared statements that are reused: each distinct statement is prepared once, no matter
+ *     how many rows it is used for.</li>
+ *     <li>Batched writes: rows added with {@link #addBatch(String, StatementPreparer)} are sent to
+ *     the database together when the work is committed. Inserts into the same table are rewritten
+ *     into multi-row inserts by the driver.</li>
+ *     <li>All-or-nothing: nothing is written unless {@link #commit()} succeeds.</li>
+ * </ul>
+ * <h2>Usage Notes</h2>
+ * <p>
+ *     Use this in a try-with-resources block and call {@link #commit()} at the end of it. Closing
+ *     a unit of work that wasn't committed rolls back everything done in it.
+ * </p>
+ * <pre>
+ * try (UnitOfWork work = new UnitOfWork()) {
+ *     sqlReader.insertItems(work, items);
+ *     work.commit();
+ * }
+ * </pre>
+ * <p>
+ *     Batches are run in the order their statements were first added, so statements that depend
+ *     on each other should be added in the order they need to run.
+ * </p>
+ */
+public class UnitOfWork implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UnitOfWork.class);
+
+    private final Connection connection;
+    /** The statements prepared so far, in the order they were first used */
+    private final Map<String, PreparedStatement> statements = new LinkedHashMap<>();
+    /** Statements with rows added to their batch that haven't been run yet */
+    private final Map<String, PreparedStatement> pendingBatches = new LinkedHashMap<>();
+    private boolean committed = false;
+
+    /**
+     * Checks out a connection and starts a transaction on it
+     */
+    public UnitOfWork() throws DataAccessException {
+        connection = SqlDb.getConnection();
+        try {
+            connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            closeConnection();
+            throw new DataAccessException("Error starting transaction", e);
+        }
+    }
+
+    /**
+     * Adds a row to the batch of a statement, preparing the statement if it hasn't been prepared
+     * in this unit of work yet. The batch is run when the work is committed.
+     *
+     * @param statement The full SQL statement
+     * @param statementPreparer A method that fills the statement's wildcards for this row
+     */
+    public void addBatch(@NonNull String statement, @NonNull StatementPreparer statementPreparer)
+            throws DataAccessException {
+        try {
+            PreparedStatement ps = prepare(statement);
+            statementPreparer.prepare(ps);
+            ps.addBatch();
+            pendingBatches.putIfAbsent(statement, ps);
+        } catch (SQLException e) {
+            throw new DataAccessException("Error adding to batch", e);
+        }
+    }
+
+    /**
+     * Runs an update immediately, within the transaction, reusing the statement if it has
+     * already been prepared in this unit of work. Any batches added before it are run first, so
+     * that writes happen in the order they were made.
+     *
+     * @param statement The full SQL statement
+     * @param statementPreparer A method that fills the statement's wildcards
+     * @return the number of rows updated
+     */
+    public int executeUpdate(@NonNull String statement, @NonNull StatementPreparer statementPreparer)
+            throws DataAccessException {
+        try {
+            executeBatches();
+            PreparedStatement ps = prepare(statement);
+            statementPreparer.prepare(ps);
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new DataAccessException("Error executing update", e);
+        }
+    }
+
+    /**
+     * Runs every pending batch, then commits the transaction
+     */
+    public void commit() throws DataAccessException {
+        try {
+            executeBatches();
+            connection.commit();
+            committed = true;
+        } catch (SQLException e) {
+            throw new DataAccessException("Error committing unit of work", e);
+        }
+    }
+
+    /**
+     * Rolls back the transaction if it wasn't committed, then closes its statements and returns
+     * the connection
+     */
+    @Override
+    public void close() throws DataAccessException {
+        try {
+            if (!committed) {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            LOGGER.error("Error rolling back unit of work", e);
+        } finally {
+            for (PreparedStatement ps : statements.values()) {
+                try {
+                    ps.close();
+                } catch (SQLException e) {
+                    LOGGER.warn("Error closing statement", e);
+                }
+            }
+            closeConnection();
+        }
+    }
+
+    private PreparedStatement prepare(String statement) throws SQLException {
+        PreparedStatement ps = statements.get(statement);
+        if (ps == null) {
+            ps = connection.prepareStatement(statement);
+            statements.put(statement, ps);
+        }
+        return ps;
+    }
+
+    private void executeBatches() throws SQLException {
+        for (PreparedStatement ps : pendingBatches.values()) {
+            ps.executeBatch();
+        }
+        pendingBatches.clear();
+    }
+
+    private void closeConnection() throws DataAccessException {
+        try (connection) {
+            // The connection goes back to the pool, so it is returned the way it was checked out
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            throw new DataAccessException("Error closing connection", e);
+        }
+    }
+}
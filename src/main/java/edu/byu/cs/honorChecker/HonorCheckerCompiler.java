@@ -2,6 +2,7 @@ package edu.byu.cs.honorChecker;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
+import edu.byu.cs.autograder.git.GitHelper;
 import edu.byu.cs.canvas.CanvasException;
 import edu.byu.cs.canvas.CanvasService;
 import edu.byu.cs.canvas.model.CanvasSection;
@@ -9,8 +10,6 @@ import edu.byu.cs.dataAccess.DaoService;
 import edu.byu.cs.dataAccess.DataAccessException;
 import edu.byu.cs.model.User;
 import edu.byu.cs.util.FileUtils;
-import org.eclipse.jgit.api.CloneCommand;
-import org.eclipse.jgit.api.Git;
 
 import java.io.File;
 import java.io.FileWriter;
@@ -56,13 +55,8 @@ public class HonorCheckerCompiler {
                 File repoPath = new File(tmpDir, String.join("_", student.firstName().replace(' ', '_'),
                         student.lastName().replace(' ', '_'), student.netId()));
 
-                CloneCommand cloneCommand = Git.cloneRepository()
-                        .setURI(student.repoUrl())
-                        .setDirectory(repoPath);
-
                 try {
-                    Git git = cloneCommand.call();
-                    git.close();
+                    GitHelper.fetchRepoFromUrl(student.repoUrl(), repoPath, false);
                 } catch (Exception e) {
                     FileUtils.removeDirectory(repoPath);
                     continue;
@@ -12,12 +12,14 @@ import java.util.Map;
  * @param assignments A list containing information about an assignment in
  *                    Canvas for each {@link AssignmentConfig}.
  * @param holidays A list of holidays the AutoGrader doesn't count towards the late penalty
+ * @param graderThreadCount The number of submissions the AutoGrader grades at the same time
  */
 public record PrivateConfig(
     PenaltyConfig penalty,
     int courseNumber,
     List<AssignmentConfig> assignments,
-    String[] holidays
+    String[] holidays,
+    int graderThreadCount
 ) {
     /**
      * Represents the configuration information needed for penalties students may receive
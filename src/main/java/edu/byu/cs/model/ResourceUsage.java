@@ -0,0 +1,27 @@
+package edu.byu.cs.model;
+
+import java.util.Map;
+
+/**
+ * The resources used by the processes that graded a submission, grouped by grading stage.
+ * <br><br>
+ * Usage is sampled while each process runs, so CPU time is slightly undercounted.
+ * Resident memory is only measured on Linux.
+ *
+ * @param stages the usage of each stage, by the name of the stage, in the order the stages first ran
+ */
+public record ResourceUsage(Map<String, StageUsage> stages) {
+
+    /**
+     * @param processes how many processes the stage ran
+     * @param cpuMillis the CPU time used by the processes
+     * @param peakRssKilobytes the most memory that was resident at once in any one of the processes
+     * @param wallMillis the combined wall time of the processes
+     */
+    public record StageUsage(int processes, long cpuMillis, long peakRssKilobytes, long wallMillis) {
+        public StageUsage plus(StageUsage other) {
+            return new StageUsage(processes + other.processes, cpuMillis + other.cpuMillis,
+                    Math.max(peakRssKilobytes, other.peakRssKilobytes), wallMillis + other.wallMillis);
+        }
+    }
+}
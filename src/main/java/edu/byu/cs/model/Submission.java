@@ -50,6 +50,9 @@ import java.util.Objects;
  * @param commitResult Debug. Holds the raw commit verification results including computed values.
  * @param verification Represents the manual approval of the submission.
  *                     Added only after the submission is approved manually.
+ * @param resourceUsage Debug. The CPU time, memory, and wall time used by the processes
+ *                      that graded the submission, by grading stage.
+ *                      Old submissions and submissions that ran no processes will have a `null` value.
  */
 public record Submission(
         String netId,
@@ -66,7 +69,8 @@ public record Submission(
         @Nullable VerifiedStatus verifiedStatus,
         @Nullable CommitVerificationContext commitContext,
         @Nullable CommitVerificationResult commitResult,
-        @Nullable ScoreVerification verification
+        @Nullable ScoreVerification verification,
+        @Nullable ResourceUsage resourceUsage
 ) {
 
     /**
@@ -134,7 +138,38 @@ public record Submission(
                 newStatus,
                 this.commitContext(),
                 this.commitResult(),
-                newVerification
+                newVerification,
+                this.resourceUsage()
+        );
+    }
+
+    /**
+     * Generates a copy of this submission without the fields that are only needed to show the
+     * submission in detail: {@code rubric}, {@code commitContext}, {@code commitResult},
+     * {@code verification}, and {@code resourceUsage}.
+     * <br>
+     * These fields are stored as JSON and are by far the largest part of a submission, so
+     * views that list many submissions read summaries instead.
+     * @return {@link Submission} A new object
+     */
+    public Submission summary() {
+        return new Submission(
+                this.netId(),
+                this.repoUrl(),
+                this.headHash(),
+                this.timestamp(),
+                this.phase(),
+                this.passed(),
+                this.score(),
+                this.rawScore(),
+                this.notes(),
+                null,
+                this.admin(),
+                this.verifiedStatus(),
+                null,
+                null,
+                null,
+                null
         );
     }
 
@@ -179,6 +214,9 @@ public record Submission(
     public static String serializeCommitResult(@NonNull Submission submission) {
         return  serializeObject(submission.commitResult);
     }
+    public static String serializeResourceUsage(@NonNull Submission submission) {
+        return serializeObject(submission.resourceUsage);
+    }
     private static String serializeObject(@Nullable Object obj) {
         if (obj == null) return null;
         return Serializer.serialize(obj);
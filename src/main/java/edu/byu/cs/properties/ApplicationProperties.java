@@ -75,4 +75,62 @@ public class ApplicationProperties {
     public static boolean runCompilation() {
         return Boolean.parseBoolean(get("run-compilation", "true"));
     }
+
+    /**
+     * @return the Maven Daemon executable used to compile student code,
+     * or an empty string when every build should fork a new Maven process
+     */
+    public static String mavenDaemonCommand() {
+        return get("maven-daemon", "");
+    }
+
+    /**
+     * @return the directory where the AutoGrader keeps data it reuses between submissions
+     */
+    public static String cachePath() {
+        return get("cache-path", "./cache");
+    }
+
+    /**
+     * @return how many megabytes the local mirrors of student repos may take
+     */
+    public static long gitMirrorBudgetMegabytes() {
+        return Long.parseLong(get("git-mirror-budget-mb", "5120"));
+    }
+
+    /**
+     * @return whether tests are compiled with the Java compiler of the running JVM
+     * instead of a new {@code javac} process
+     */
+    public static boolean inProcessTestCompilation() {
+        return Boolean.parseBoolean(get("in-process-test-compilation", "false"));
+    }
+
+    /**
+     * @return the maximum heap in megabytes of the JVMs that run student code, or 0 for the JVM's default
+     */
+    public static int gradingHeapMegabytes() {
+        return Integer.parseInt(get("grading-heap-mb", "1024"));
+    }
+
+    /**
+     * @return how many seconds of CPU time a process running student code may use, or 0 for no limit
+     */
+    public static int gradingCpuSeconds() {
+        return Integer.parseInt(get("grading-cpu-seconds", "180"));
+    }
+
+    /**
+     * @return how many kilobytes of the output of a process running student code are kept
+     */
+    public static int gradingOutputKilobytes() {
+        return Integer.parseInt(get("grading-output-kb", "1024"));
+    }
+
+    /**
+     * @return how many seconds configuration values are cached before they are read from the database again
+     */
+    public static int configCacheSeconds() {
+        return Integer.parseInt(get("config-cache-seconds", "30"));
+    }
 }
@@ -1,5 +1,6 @@
 package edu.byu.cs.server;
 
+import edu.byu.cs.controller.SseController;
 import edu.byu.cs.controller.WebSocketController;
 import edu.byu.cs.controller.exception.*;
 import edu.byu.cs.server.endpointprovider.EndpointProvider;
@@ -104,6 +105,10 @@ public class Server {
 
                             get("/student/{netId}", provider.studentSubmissionsGet());
 
+                            get("/student/{netId}/{phase}", provider.studentSubmissionGet());
+
+                            get("/export", provider.submissionsExportGet());
+
                             post("/rerun", provider.submissionsReRunPost());
                         });
 
@@ -117,6 +122,8 @@ public class Server {
 
                         get("/sections", provider.sectionsGet());
 
+                        get("/metrics", provider.metricsGet());
+
                         path("/config", () -> {
                             get("", provider.getConfigAdmin());
 
@@ -133,6 +140,8 @@ public class Server {
                             post("/holidays", provider.updateHolidays());
 
                             post("/slackLink", provider.updateSlackLink());
+
+                            post("/graderThreads", provider.updateGraderThreadCount());
                         });
                     });
                 });
@@ -151,8 +160,11 @@ public class Server {
         .ws("/ws", (wsConfig) -> {
             wsConfig.onError(WebSocketController::onError);
             wsConfig.onMessage(WebSocketController::onMessage);
+            wsConfig.onClose(WebSocketController::onClose);
         })
 
+        .sse("/sse", SseController::onConnect)
+
         .exception(BadRequestException.class, haltWithCode(400))
         .exception(UnauthorizedException.class, haltWithCode(401))
         .exception(ResourceForbiddenException.class, haltWithCode(403))
@@ -21,6 +21,7 @@ public interface EndpointProvider {
     Handler commitAnalyticsGet();
     Handler honorCheckerZipGet();
     Handler sectionsGet();
+    Handler metricsGet();
 
     // AuthController
     Handler verifyAuthenticatedMiddleware();
@@ -43,6 +44,7 @@ public interface EndpointProvider {
     Handler updatePenalties();
     Handler updateHolidays();
     Handler updateSlackLink();
+    Handler updateGraderThreadCount();
 
     // SubmissionController
     Handler submitPost();
@@ -53,6 +55,8 @@ public interface EndpointProvider {
     Handler latestSubmissionsGet();
     Handler submissionsActiveGet();
     Handler studentSubmissionsGet();
+    Handler studentSubmissionGet();
+    Handler submissionsExportGet();
     Handler approveSubmissionPost();
     Handler submissionsReRunPost();
 
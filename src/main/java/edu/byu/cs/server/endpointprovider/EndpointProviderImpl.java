@@ -72,6 +72,11 @@ public class EndpointProviderImpl implements EndpointProvider {
         return AdminController.sectionsGet;
     }
 
+    @Override
+    public Handler metricsGet() {
+        return AdminController.metricsGet;
+    }
+
     // AuthController
 
     @Override
@@ -158,6 +163,11 @@ public class EndpointProviderImpl implements EndpointProvider {
         return ConfigController.updateSlackLink;
     }
 
+    @Override
+    public Handler updateGraderThreadCount() {
+        return ConfigController.updateGraderThreadCount;
+    }
+
     // SubmissionController
 
     @Override
@@ -200,6 +210,16 @@ public class EndpointProviderImpl implements EndpointProvider {
         return SubmissionController.studentSubmissionsGet;
     }
 
+    @Override
+    public Handler studentSubmissionGet() {
+        return SubmissionController.studentSubmissionGet;
+    }
+
+    @Override
+    public Handler submissionsExportGet() {
+        return SubmissionController.submissionsExportGet;
+    }
+
     @Override
     public Handler approveSubmissionPost() {
         return SubmissionController.approveSubmissionPost;
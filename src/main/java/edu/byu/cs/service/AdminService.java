@@ -1,13 +1,18 @@
 package edu.byu.cs.service;
 
 import edu.byu.cs.analytics.CommitAnalyticsRouter;
+import edu.byu.cs.autograder.GradingMetrics;
 import edu.byu.cs.canvas.CanvasException;
 import edu.byu.cs.canvas.CanvasService;
 import edu.byu.cs.canvas.model.CanvasSection;
+import edu.byu.cs.controller.TrafficController;
 import edu.byu.cs.controller.exception.ResourceNotFoundException;
+import edu.byu.cs.controller.netmodel.MetricsResponse;
 import edu.byu.cs.dataAccess.DaoService;
 import edu.byu.cs.dataAccess.DataAccessException;
 import edu.byu.cs.dataAccess.ItemNotFoundException;
+import edu.byu.cs.dataAccess.cache.CachingConfigurationDao;
+import edu.byu.cs.dataAccess.cache.CachingRubricConfigDao;
 import edu.byu.cs.dataAccess.daoInterface.UserDao;
 import edu.byu.cs.honorChecker.HonorCheckerCompiler;
 import edu.byu.cs.model.User;
@@ -32,6 +37,7 @@ import java.util.Collection;
  *     for more information on commit analytics</li>
  *     <li>Compile and get a .zip file of students' code in a section for the Honor Checker</li>
  *     <li>Gets all sections and all students in each section</li>
+ *     <li>Gets the timings of each stage of grading</li>
  * </ul>
  */
 public class AdminService {
@@ -213,4 +219,22 @@ public class AdminService {
         return CanvasService.getCanvasIntegration().getAllSections();
     }
 
+    /**
+     * Gets the timings of each stage of grading since the AutoGrader started, how the
+     * WebSocket sessions are keeping up with the messages sent to them, and how well
+     * configuration and rubric configs are being cached
+     *
+     * @return the timings of each stage, overall and for each phase, and the session and cache statistics
+     */
+    public static MetricsResponse getMetrics() {
+        CachingConfigurationDao.Stats configurationCache =
+                DaoService.getConfigurationDao() instanceof CachingConfigurationDao cachingDao ?
+                        cachingDao.getStats() : null;
+        CachingRubricConfigDao.Stats rubricConfigCache =
+                DaoService.getRubricConfigDao() instanceof CachingRubricConfigDao cachingDao ?
+                        cachingDao.getStats() : null;
+        return new MetricsResponse(GradingMetrics.getInstance().getReport(), TrafficController.getSessionStats(),
+                configurationCache, rubricConfigCache);
+    }
+
 }
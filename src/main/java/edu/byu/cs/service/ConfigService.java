@@ -2,6 +2,7 @@ package edu.byu.cs.service;
 
 import edu.byu.cs.canvas.CanvasException;
 import edu.byu.cs.canvas.CanvasIntegrationImpl;
+import edu.byu.cs.controller.TrafficController;
 import edu.byu.cs.dataAccess.daoInterface.ConfigurationDao;
 import edu.byu.cs.dataAccess.daoInterface.ConfigurationDao.Configuration;
 import edu.byu.cs.dataAccess.DaoService;
@@ -33,6 +34,7 @@ import static edu.byu.cs.util.PhaseUtils.isPhaseGraded;
  *     <li>The penalties that should be applied for insufficient commits and late submissions</li>
  *     <li>The course id and Canvas assignments to allow the AutoGrader to access Canvas
  *     and update grades</li>
+ *     <li>How many submissions the AutoGrader grades at the same time</li>
  * </ul>
  */
 public class ConfigService {
@@ -88,7 +90,8 @@ public class ConfigService {
                 generatePenaltyConfig(),
                 dao.getConfiguration(Configuration.COURSE_NUMBER, Integer.class),
                 generateAssignmentsConfig(),
-                generateHolidayConfig()
+                generateHolidayConfig(),
+                TrafficController.getInstance().getGraderThreadCount()
         );
     }
 
@@ -403,6 +406,21 @@ public class ConfigService {
         setConfigItem(user, Configuration.SLACK_LINK, slackLink, String.class);
     }
 
+    /**
+     * Update how many submissions are graded at the same time. The grading pool is resized
+     * immediately; graders that are already running are allowed to finish.
+     *
+     * @param user the user who updated the grader thread count
+     * @param graderThreadCount the number of graders that may run at the same time
+     * @throws DataAccessException if an issue arises updating the grader thread count in the database
+     */
+    public static void updateGraderThreadCount(User user, int graderThreadCount) throws DataAccessException {
+        validatePositiveInt(graderThreadCount, "Grader Thread Count");
+
+        setConfigItem(user, Configuration.GRADER_THREAD_COUNT, graderThreadCount, Integer.class);
+        TrafficController.getInstance().setGraderThreadCount(graderThreadCount);
+    }
+
     public static String getSlackLink() throws DataAccessException {
         return dao.getConfiguration(Configuration.SLACK_LINK, String.class);
     }
@@ -463,6 +481,17 @@ public class ConfigService {
         }
     }
 
+    /**
+     * throws IllegalArgumentException if value is not positive
+     * @param value number we're checking is > 0
+     * @param name name of the value, used when throwing the exception
+     */
+    private static void validatePositiveInt(int value, String name) {
+        if (value < 1) {
+            throw new IllegalArgumentException(name + " must be positive");
+        }
+    }
+
     private static <T> void setConfigItem(User admin, Configuration configKey, T value, Class<T> type) throws DataAccessException {
         ConfigurationDao dao = DaoService.getConfigurationDao();
 
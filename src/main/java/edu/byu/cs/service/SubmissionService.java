@@ -4,14 +4,18 @@ import edu.byu.cs.autograder.Grader;
 import edu.byu.cs.autograder.GradingException;
 import edu.byu.cs.autograder.GradingObserver;
 import edu.byu.cs.autograder.GradingObserverImpl;
+import edu.byu.cs.autograder.GradingScheduler;
 import edu.byu.cs.controller.exception.BadRequestException;
 import edu.byu.cs.controller.exception.InternalServerException;
+import edu.byu.cs.controller.exception.ResourceNotFoundException;
+import edu.byu.cs.controller.QueueView;
 import edu.byu.cs.controller.TrafficController;
 import edu.byu.cs.controller.netmodel.ApprovalRequest;
 import edu.byu.cs.controller.netmodel.GradeRequest;
 import edu.byu.cs.dataAccess.*;
 import edu.byu.cs.dataAccess.daoInterface.ConfigurationDao;
 import edu.byu.cs.dataAccess.daoInterface.QueueDao;
+import edu.byu.cs.dataAccess.daoInterface.SubmissionDao;
 import edu.byu.cs.dataAccess.daoInterface.UserDao;
 import edu.byu.cs.model.Phase;
 import edu.byu.cs.model.QueueItem;
@@ -92,11 +96,13 @@ public class SubmissionService {
     private static void startGrader(String netId, Phase phase, String repoUrl, boolean adminSubmission) throws DataAccessException, BadRequestException, InternalServerException {
         QueueItem qItem = new QueueItem(netId, phase, Instant.now(), false);
         DaoService.getQueueDao().add(qItem);
+        QueueView.getInstance().added(qItem);
 
+        boolean added;
         try {
             Grader grader = getGrader(netId, phase, repoUrl, adminSubmission);
 
-            TrafficController.getInstance().addGrader(grader);
+            added = TrafficController.getInstance().addGrader(qItem, getPriority(netId, phase, adminSubmission), grader);
 
         } catch (IllegalArgumentException e) {
             LOGGER.error("Invalid phase", e);
@@ -105,6 +111,22 @@ public class SubmissionService {
             LOGGER.error("Error starting grader", e);
             throw new InternalServerException("Error starting grader", e);
         }
+
+        if (!added) {
+            // No grader will run for this item, so it can't be left waiting in the queue
+            DaoService.getQueueDao().remove(netId);
+            QueueView.getInstance().removed(netId);
+            throw new BadRequestException("A submission for " + netId + " is already being graded");
+        }
+    }
+
+    private static GradingScheduler.Priority getPriority(String netId, Phase phase, boolean adminSubmission)
+            throws DataAccessException {
+        if (adminSubmission) {
+            return GradingScheduler.Priority.ADMIN;
+        }
+        return getMostRecentSubmission(netId, phase) == null ?
+                GradingScheduler.Priority.FIRST_ATTEMPT : GradingScheduler.Priority.RESUBMISSION;
     }
 
     private static void assertHasNewCommits(User user, Phase phase) throws DataAccessException, BadRequestException {
@@ -170,27 +192,68 @@ public class SubmissionService {
     }
 
     /**
-     * Gets all submissions from a user for a given phase. If {@code phase} is null, then all
-     * submission from the user is returned regardless of the phase.
+     * Gets a single submission of a user
      *
      * @param netId the netId of the user
-     * @param phase the phase to get submission from
-     * @return all submissions from the user (for a phase specified)
+     * @param phase the phase the submission was for
+     * @param headHash the hash of the commit that was submitted
+     * @param timestamp when the submission was made
+     * @return the {@link Submission}
+     * @throws DataAccessException if an error occurs accessing the database
+     * @throws ResourceNotFoundException if there is no such submission
+     */
+    public static Submission getSubmission(String netId, Phase phase, String headHash, Instant timestamp)
+            throws DataAccessException, ResourceNotFoundException {
+        Submission submission;
+        try {
+            submission = DaoService.getSubmissionDao().getSubmission(netId, phase, headHash, timestamp);
+        } catch (DataAccessException e) {
+            LOGGER.error("Error getting submission for user {}", netId, e);
+            throw e;
+        }
+        if (submission == null) {
+            throw new ResourceNotFoundException("Submission not found");
+        }
+        return submission;
+    }
+
+    /**
+     * Reads a page of a user's submissions, newest first, handing each submission to the
+     * {@code consumer} as it is read. See {@link SubmissionDao#streamSubmissionsForUser} for details.
+     *
+     * @param netId the netId of the user
+     * @param phase the phase to get submissions from, or null for all phases
+     * @param after the cursor returned with the previous page, or null for the first page
+     * @param limit the most submissions to read, or a negative number to read all of them
+     * @param consumer receives each submission as it is read
+     * @return the cursor of the next page, or null if there are no more submissions
      * @throws DataAccessException if an error occurred accessing the database
      */
-    public static Collection<Submission> getXSubmissionsForUser(String netId, Phase phase) throws DataAccessException {
-        Collection<Submission> submissions;
+    public static SubmissionDao.Cursor streamSubmissionsForUser(String netId, Phase phase, SubmissionDao.Cursor after,
+                                                                int limit, ItemConsumer<Submission> consumer)
+            throws DataAccessException {
         try {
-            if (phase == null) {
-                submissions = DaoService.getSubmissionDao().getSubmissionsForUser(netId);
-            } else {
-                submissions = DaoService.getSubmissionDao().getSubmissionsForPhase(netId, phase);
-            }
+            return DaoService.getSubmissionDao().streamSubmissionsForUser(netId, phase, after, limit, consumer);
         } catch (DataAccessException e) {
-            LOGGER.error("Error getting submissions for user {}", netId, e);
+            LOGGER.error("Error streaming submissions for user {}", netId, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Reads every submission graded by the AutoGrader, oldest first, handing each submission to
+     * the {@code consumer} as it is read
+     *
+     * @param consumer receives each submission as it is read
+     * @throws DataAccessException if an error occurred accessing the database
+     */
+    public static void streamAllSubmissions(ItemConsumer<Submission> consumer) throws DataAccessException {
+        try {
+            DaoService.getSubmissionDao().streamAllSubmissions(consumer);
+        } catch (DataAccessException e) {
+            LOGGER.error("Error exporting submissions", e);
             throw e;
         }
-        return submissions;
     }
 
     /**
@@ -211,6 +274,25 @@ public class SubmissionService {
         return submissions;
     }
 
+    /**
+     * Gets summaries of the latest submissions graded by the AutoGrader, without the fields that
+     * are only needed to show a submission in detail. See {@link Submission#summary()}.
+     *
+     * @param count the number of submissions to get
+     * @return a collection of summaries of the latest submissions
+     * @throws DataAccessException if an error occurred accessing the database
+     */
+    public static Collection<Submission> getLatestSubmissionSummaries(int count) throws DataAccessException {
+        Collection<Submission> submissions;
+        try {
+            submissions = DaoService.getSubmissionDao().getAllLatestSubmissionSummaries(count);
+        } catch (DataAccessException e) {
+            LOGGER.error("Error getting latest submission summaries", e);
+            throw e;
+        }
+        return submissions;
+    }
+
     /**
      * Gets all submissions in the queue currently NOT being graded (waiting to be graded)
      *
@@ -245,17 +327,6 @@ public class SubmissionService {
         return currentlyGrading;
     }
 
-    /**
-     * Gets all submissions from a user
-     *
-     * @param netId the netId of the user
-     * @return all submissions from the user
-     * @throws DataAccessException if an error occurs accessing the database
-     */
-    public static Collection<Submission> getSubmissionsForUser(String netId) throws DataAccessException {
-        return getXSubmissionsForUser(netId, null);
-    }
-
     /**
      * Approves a submission for a phase blocked by the AutoGrader due to insufficient commits
      *
@@ -300,20 +371,36 @@ public class SubmissionService {
         UserDao userDao = DaoService.getUserDao();
         Collection<QueueItem> inQueue = queueDao.getAll();
 
+        Map<QueueItem, User> toRerun = new LinkedHashMap<>();
+        List<String> toRemove = new ArrayList<>();
         for (QueueItem queueItem : inQueue) {
+            if (GradingScheduler.getInstance().isScheduled(queueItem.netId())) {
+                // Still waiting or being graded, so rerunning it would grade it twice
+                continue;
+            }
             User currentUser = userDao.getUser(queueItem.netId());
             if (currentUser.repoUrl() != null) {
-                queueDao.markNotStarted(queueItem.netId());
-
-                TrafficController.getInstance().addGrader(
-                        getGrader(queueItem.netId(),
-                                queueItem.phase(),
-                                currentUser.repoUrl(),
-                                currentUser.role() == User.Role.ADMIN));
+                toRerun.put(queueItem, currentUser);
             } else {
-                queueDao.remove(queueItem.netId());
+                toRemove.add(queueItem.netId());
             }
         }
+
+        // Written together before any grader starts, since a started grader marks its item started
+        queueDao.markNotStarted(toRerun.keySet().stream().map(QueueItem::netId).toList());
+        queueDao.remove(toRemove);
+
+        for (Map.Entry<QueueItem, User> entry : toRerun.entrySet()) {
+            QueueItem queueItem = entry.getKey();
+            User currentUser = entry.getValue();
+            // Reruns keep their original place in line
+            boolean admin = currentUser.role() == User.Role.ADMIN;
+            TrafficController.getInstance().addGrader(queueItem,
+                    admin ? GradingScheduler.Priority.ADMIN : GradingScheduler.Priority.FIRST_ATTEMPT,
+                    getGrader(queueItem.netId(), queueItem.phase(), currentUser.repoUrl(), admin));
+        }
+        QueueView.getInstance().reload();
+        TrafficController.broadcastQueueStatus();
     }
 
 }
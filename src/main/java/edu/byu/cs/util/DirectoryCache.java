@@ -0,0 +1,111 @@
+package edu.byu.cs.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A cache of directories on disk, where each entry is a copy of a directory stored under a key.
+ * Keys are expected to be derived from the content that produced the directory (such as a hash
+ * of the sources that were compiled into it), so an entry never needs to be updated once stored.
+ * <br><br>
+ * Entries are stored with an atomic rename, so several graders can share a cache without ever
+ * seeing a partially written entry. Entries that haven't been stored or restored for longer than
+ * the maximum entry age are evicted.
+ */
+public class DirectoryCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DirectoryCache.class);
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final File root;
+    private final Duration maxEntryAge;
+
+    /**
+     * @param root the directory the entries are stored in
+     * @param maxEntryAge how long an entry may go unused before it is evicted
+     */
+    public DirectoryCache(File root, Duration maxEntryAge) {
+        this.root = root.getAbsoluteFile();
+        this.maxEntryAge = maxEntryAge;
+    }
+
+    /**
+     * Copies the contents of an entry into a directory
+     *
+     * @param key the key of the entry
+     * @param destination the directory to copy the entry into, created if it doesn't exist
+     * @return true if the entry was restored, false if there is no such entry or it couldn't be copied
+     */
+    public boolean restore(String key, File destination) {
+        File entry = getEntry(key);
+        if (!entry.isDirectory()) return false;
+
+        try {
+            FileUtils.copyDirectory(entry, destination);
+            Files.setLastModifiedTime(entry.toPath(), FileTime.from(Instant.now()));
+            return true;
+        } catch (IOException e) {
+            LOGGER.warn("Could not restore cache entry {}", entry, e);
+            FileUtils.removeDirectory(destination);
+            return false;
+        }
+    }
+
+    /**
+     * Stores a copy of a directory under a key, unless an entry with that key already exists
+     *
+     * @param key the key of the entry
+     * @param source the directory to copy into the cache
+     */
+    public void store(String key, File source) {
+        File entry = getEntry(key);
+        if (entry.exists() || !source.isDirectory()) return;
+
+        File tempEntry = new File(root, key + "-" + UUID.randomUUID() + TEMP_SUFFIX);
+        try {
+            FileUtils.copyDirectory(source, tempEntry);
+            Files.move(tempEntry.toPath(), entry.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Another grader may have stored the same entry first, which is fine
+            if (!entry.exists()) {
+                LOGGER.warn("Could not store cache entry {}", entry, e);
+            }
+        } finally {
+            FileUtils.removeDirectory(tempEntry);
+        }
+        evictExpiredEntries();
+    }
+
+    public boolean contains(String key) {
+        return getEntry(key).isDirectory();
+    }
+
+    /**
+     * Removes every entry that hasn't been used within the maximum entry age
+     */
+    public void evictExpiredEntries() {
+        File[] entries = root.listFiles();
+        if (entries == null) return;
+
+        Instant cutoff = Instant.now().minus(maxEntryAge);
+        for (File entry : entries) {
+            if (Instant.ofEpochMilli(entry.lastModified()).isBefore(cutoff)) {
+                FileUtils.removeDirectory(entry);
+            }
+        }
+    }
+
+    private File getEntry(String key) {
+        return new File(root, key);
+    }
+}
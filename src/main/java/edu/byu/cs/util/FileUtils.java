@@ -6,6 +6,9 @@ import org.slf4j.LoggerFactory;
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
@@ -16,7 +19,8 @@ import java.util.zip.ZipOutputStream;
  * A utility class that provides methods for:
  * <ul>
  *     <li>Reading to and writing from a file</li>
- *     <li>Copying a file</li>
+ *     <li>Copying a file or a directory</li>
+ *     <li>Hashing the contents of files and directories</li>
  *     <li>Creating, modifying, and deleting directories</li>
  *     <li>Creating a .zip file from a directory</li>
  *     <li>Getting all the files and directories in a given directory</li>
@@ -189,6 +193,79 @@ public class FileUtils {
         }
     }
 
+    /**
+     * Recursively copies a directory, replacing any files that already exist at the destination
+     *
+     * @param source the directory to copy
+     * @param destination the directory to copy into, created if it doesn't exist
+     * @throws IOException if a file could not be copied
+     */
+    public static void copyDirectory(File source, File destination) throws IOException {
+        Path sourcePath = source.toPath();
+        Path destinationPath = destination.toPath();
+        try (Stream<Path> paths = Files.walk(sourcePath)) {
+            for (Path path : paths.toList()) {
+                Path target = destinationPath.resolve(sourcePath.relativize(path).toString());
+                if (Files.isDirectory(path)) {
+                    Files.createDirectories(target);
+                } else {
+                    Files.copy(path, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes a SHA-256 hash over the names and contents of the given files and directories.
+     * Directories are walked in a stable order, so the hash only changes when a file is
+     * added, removed, renamed, or modified. A file or directory that doesn't exist
+     * contributes its name to the hash, so creating it later also changes the hash.
+     *
+     * @param files the files and directories to hash, in a fixed order
+     * @return the hash as a lowercase hexadecimal string
+     * @throws IOException if a file could not be read
+     */
+    public static String hashContents(File... files) throws IOException {
+        MessageDigest digest = newDigest();
+        for (File file : files) {
+            Path root = file.toPath();
+            if (!file.exists()) {
+                digest.update(("missing:" + file.getName() + "\n").getBytes());
+                continue;
+            }
+            try (Stream<Path> paths = Files.walk(root)) {
+                for (Path path : paths.sorted().toList()) {
+                    String relativePath = root.relativize(path).toString().replace(File.separatorChar, '/');
+                    if (Files.isDirectory(path)) {
+                        digest.update(("dir:" + relativePath + "\n").getBytes());
+                    } else {
+                        digest.update(("file:" + relativePath + "\n").getBytes());
+                        digest.update(Files.readAllBytes(path));
+                    }
+                }
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Computes a SHA-256 hash of a string, such as a combination of other hashes
+     *
+     * @param value the string to hash
+     * @return the hash as a lowercase hexadecimal string
+     */
+    public static String hashString(String value) {
+        return HexFormat.of().formatHex(newDigest().digest(value.getBytes()));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
     /**
      * Receives a path to a file/directory and maps all file names the associated absolute paths.
      * <br>
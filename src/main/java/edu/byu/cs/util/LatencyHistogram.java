@@ -0,0 +1,118 @@
+package edu.byu.cs.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of durations in milliseconds that can be recorded from any thread without locking.
+ * <br><br>
+ * Durations are counted in buckets whose bounds follow a 1-2-5 progression from 1 ms to 1000 s,
+ * so the histogram takes the same small amount of memory no matter how many durations are recorded.
+ * Percentiles are estimated by interpolating within the bucket they fall in.
+ */
+public class LatencyHistogram {
+
+    /**
+     * The inclusive upper bound of every bucket but the last, which holds everything longer
+     */
+    private static final long[] BUCKET_BOUNDS = {
+            1, 2, 5, 10, 20, 50, 100, 200, 500, 1_000, 2_000, 5_000, 10_000, 20_000, 50_000, 100_000,
+            200_000, 500_000, 1_000_000
+    };
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_BOUNDS.length + 1);
+    private final AtomicLong totalMillis = new AtomicLong();
+    private final AtomicLong maxMillis = new AtomicLong();
+
+    /**
+     * @param millis the duration to record; negative durations are recorded as 0
+     */
+    public void record(long millis) {
+        millis = Math.max(0, millis);
+        counts.incrementAndGet(bucketOf(millis));
+        totalMillis.addAndGet(millis);
+        maxMillis.accumulateAndGet(millis, Math::max);
+    }
+
+    private static int bucketOf(long millis) {
+        for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+            if (millis <= BUCKET_BOUNDS[i]) return i;
+        }
+        return BUCKET_BOUNDS.length;
+    }
+
+    /**
+     * @return the durations recorded so far. Durations recorded while the snapshot is taken may be
+     * only partly included.
+     */
+    public Snapshot snapshot() {
+        long max = maxMillis.get();
+        long[] bucketCounts = new long[counts.length()];
+        long count = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            bucketCounts[i] = counts.get(i);
+            count += bucketCounts[i];
+        }
+
+        List<Bucket> buckets = new ArrayList<>();
+        for (int i = 0; i < bucketCounts.length; i++) {
+            if (bucketCounts[i] > 0) {
+                buckets.add(new Bucket(upperBound(i, max), bucketCounts[i]));
+            }
+        }
+
+        return new Snapshot(count, totalMillis.get(), max,
+                percentile(bucketCounts, count, max, 0.5),
+                percentile(bucketCounts, count, max, 0.9),
+                percentile(bucketCounts, count, max, 0.99),
+                buckets);
+    }
+
+    private static long percentile(long[] bucketCounts, long count, long max, double quantile) {
+        if (count == 0) return 0;
+        double rank = quantile * count;
+        long seen = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            if (bucketCounts[i] == 0) continue;
+            if (seen + bucketCounts[i] >= rank) {
+                long lower = i == 0 ? 0 : BUCKET_BOUNDS[i - 1];
+                long upper = upperBound(i, max);
+                double fraction = (rank - seen) / bucketCounts[i];
+                return Math.min(max, Math.round(lower + fraction * (upper - lower)));
+            }
+            seen += bucketCounts[i];
+        }
+        return max;
+    }
+
+    private static long upperBound(int bucket, long max) {
+        return bucket < BUCKET_BOUNDS.length ? BUCKET_BOUNDS[bucket] : Math.max(max, BUCKET_BOUNDS[bucket - 1]);
+    }
+
+    /**
+     * The durations in a histogram
+     *
+     * @param count how many durations were recorded
+     * @param totalMillis the sum of every duration
+     * @param maxMillis the longest duration
+     * @param p50Millis the estimated median duration
+     * @param p90Millis the estimated 90th percentile duration
+     * @param p99Millis the estimated 99th percentile duration
+     * @param buckets the buckets that hold at least one duration, from shortest to longest
+     */
+    public record Snapshot(long count, long totalMillis, long maxMillis,
+                           long p50Millis, long p90Millis, long p99Millis, List<Bucket> buckets) {
+        public long meanMillis() {
+            return count == 0 ? 0 : totalMillis / count;
+        }
+    }
+
+    /**
+     * @param upperBoundMillis the longest duration the bucket holds. The bucket of durations longer than
+     *                         every bound reports the longest duration recorded.
+     * @param count how many durations are in the bucket
+     */
+    public record Bucket(long upperBoundMillis, long count) {}
+}
@@ -346,6 +346,20 @@ public class PhaseUtils {
         };
     }
 
+    /**
+     * Determines whether the tests of the phase use the submission's database, in which case
+     * the phase's test suites can't run at the same time without interfering with each other
+     *
+     * @param phase the phase to determine
+     * @return a boolean indicating if the phase's tests use the database
+     */
+    public static boolean testsUseDatabase(Phase phase) {
+        return switch (phase) {
+            case Phase4, Phase5, Phase6 -> true;
+            case Phase0, Phase1, Phase3, Quality, GitHub -> false;
+        };
+    }
+
     /**
      * Determines whether the phase should get a penalty for insufficient commits when submitted
      *
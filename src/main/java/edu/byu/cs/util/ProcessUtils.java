@@ -1,16 +1,42 @@
 package edu.byu.cs.util;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.*;
+import java.util.stream.Stream;
 
 /**
  * A utility class that allows a {@link Process} to be run using a {@link ProcessBuilder}
- * and returns the result as {@link ProcessOutput}
+ * and returns the result as {@link ProcessOutput}. Only the beginning and end of very long
+ * outputs are kept; see {@link OutputLimit}. The resources the process uses are
+ * measured while it runs; see {@link ProcessUsage}.
  */
 public class ProcessUtils {
 
     private static final long DEFAULT_TIMEOUT = 90000;
 
+    /**
+     * Reads the output of every process. Readers spend their time blocked on the process's
+     * output, so they run on virtual threads shared by every call.
+     */
+    private static final ExecutorService OUTPUT_READERS = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * How often the CPU time and memory of a running process are sampled
+     */
+    private static final long USAGE_SAMPLE_INTERVAL = 200;
+
+    /**
+     * Resident memory is only reported by Linux, through {@code /proc}
+     */
+    private static final boolean PROC_AVAILABLE = new File("/proc/self/status").exists();
+
     /**
      * Runs a process given by a process builder and returns process output
      *
@@ -32,6 +58,18 @@ public class ProcessUtils {
         return runProcess(processBuilder, null, timeout);
     }
 
+    /**
+     * Runs a process given by a process builder and returns process output
+     *
+     * @param processBuilder process to run
+     * @param outputLimit how much of each output stream to keep
+     * @return output from process standard out
+     */
+    public static ProcessOutput runProcess(ProcessBuilder processBuilder, OutputLimit outputLimit)
+            throws ProcessException {
+        return runProcess(processBuilder, null, DEFAULT_TIMEOUT, outputLimit);
+    }
+
     /**
      * Runs a process given by a process builder and returns process output
      *
@@ -53,9 +91,24 @@ public class ProcessUtils {
      */
     public static ProcessOutput runProcess(ProcessBuilder processBuilder, String input, long timeout)
             throws ProcessException {
-        try (ExecutorService processOutputExecutor = Executors.newFixedThreadPool(2)){
+        return runProcess(processBuilder, input, timeout, OutputLimit.DEFAULT);
+    }
 
+    /**
+     * Runs a process given by a process builder and returns process output
+     *
+     * @param processBuilder process to run
+     * @param input string to write to standard in for process
+     * @param timeout length to wait for in ms
+     * @param outputLimit how much of each output stream to keep
+     * @return output from process standard out
+     */
+    public static ProcessOutput runProcess(ProcessBuilder processBuilder, String input, long timeout,
+                                           OutputLimit outputLimit) throws ProcessException {
+        try {
+            long start = System.nanoTime();
             Process process = processBuilder.start();
+            Future<ProcessUsage> processUsageFuture = OUTPUT_READERS.submit(new UsageSampler(process, start)::sampleUntilExit);
 
             /*
             Grab the output from the process asynchronously. Without this concurrency, if this is computed
@@ -63,8 +116,10 @@ public class ProcessUtils {
             writes to block, resulting in the process never finishing. This is usually the result of the tested
             code printing out too many lines to stdout as a means of logging/debugging
              */
-            Future<String> processOutputFuture = processOutputExecutor.submit(() -> getOutputFromInputStream(process.getInputStream()));
-            Future<String> processErrorFuture = processOutputExecutor.submit(() -> getOutputFromInputStream(process.getErrorStream()));
+            Future<CapturedOutput> processOutputFuture =
+                    OUTPUT_READERS.submit(() -> capture(process.getInputStream(), outputLimit));
+            Future<CapturedOutput> processErrorFuture =
+                    OUTPUT_READERS.submit(() -> capture(process.getErrorStream(), outputLimit));
 
             if(input != null) {
                 try (OutputStream os = process.getOutputStream()) {
@@ -73,47 +128,258 @@ public class ProcessUtils {
             }
 
             if (!process.waitFor(timeout, TimeUnit.MILLISECONDS)) {
+                process.descendants().forEach(ProcessHandle::destroyForcibly);
                 process.destroyForcibly();
                 throw new ProcessException("Process timed out. Try again or come see a TA if this error persists");
             }
-            String output = processOutputFuture.get(1000, TimeUnit.MILLISECONDS);
-            String error = processErrorFuture.get(1000, TimeUnit.MILLISECONDS);
+            CapturedOutput output = processOutputFuture.get(1000, TimeUnit.MILLISECONDS);
+            CapturedOutput error = processErrorFuture.get(1000, TimeUnit.MILLISECONDS);
+            ProcessUsage usage = processUsageFuture.get(1000, TimeUnit.MILLISECONDS);
 
-            return new ProcessOutput(output, error, process.waitFor());
+            return new ProcessOutput(output.text(), error.text(), process.waitFor(), output.info(), error.info(), usage);
         } catch (IOException | InterruptedException | ExecutionException | TimeoutException e) {
             throw new ProcessException(e);
         }
     }
 
     /**
-     * Extracts the output as a string from an input stream
+     * Reads an output stream of a process until it ends, keeping only its beginning and its end
      *
      * @param is The input stream to extract the output from
-     * @return The output of the process as a string
+     * @param limit How much of the beginning and end of the output to keep
+     * @return The output of the process
      * @throws IOException If an error occurs while reading the output
      */
-    private static String getOutputFromInputStream(InputStream is) throws IOException {
-        try (InputStreamReader isr = new InputStreamReader(is);
-             BufferedReader br = new BufferedReader(isr)){
+    private static CapturedOutput capture(InputStream is, OutputLimit limit) throws IOException {
+        BoundedBuffer buffer = new BoundedBuffer(limit);
+        try (is) {
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = is.read(chunk)) != -1) {
+                buffer.write(chunk, read);
+            }
+        }
+        return buffer.toCapturedOutput();
+    }
+
+    /**
+     * Keeps the first {@link OutputLimit#headBytes()} bytes written to it, and the last
+     * {@link OutputLimit#tailBytes()} bytes in a ring buffer. Memory is only allocated as the
+     * output grows, so short outputs stay cheap.
+     */
+    private static class BoundedBuffer {
+        private final OutputLimit limit;
+        private final ByteArrayOutputStream head = new ByteArrayOutputStream();
+        private byte[] tail;
+        private int tailPosition;
+        private int tailLength;
+        private long totalBytes;
+
+        BoundedBuffer(OutputLimit limit) {
+            this.limit = limit;
+        }
+
+        void write(byte[] bytes, int length) {
+            totalBytes += length;
+            int toHead = Math.min(length, limit.headBytes() - head.size());
+            head.write(bytes, 0, toHead);
+            if (toHead < length) {
+                writeTail(bytes, toHead, length - toHead);
+            }
+        }
 
-            String line;
-            StringBuilder sb = new StringBuilder();
-            while ((line = br.readLine()) != null) {
-                sb.append(line);
-                sb.append('\n');
+        private void writeTail(byte[] bytes, int offset, int length) {
+            if (limit.tailBytes() == 0) return;
+            if (tail == null) tail = new byte[limit.tailBytes()];
+            if (length > tail.length) {
+                offset += length - tail.length;
+                length = tail.length;
             }
-            return sb.toString();
+            int first = Math.min(length, tail.length - tailPosition);
+            System.arraycopy(bytes, offset, tail, tailPosition, first);
+            System.arraycopy(bytes, offset + first, tail, 0, length - first);
+            tailPosition = (tailPosition + length) % tail.length;
+            tailLength = Math.min(tail.length, tailLength + length);
+        }
+
+        private byte[] tailBytes() {
+            byte[] bytes = new byte[tailLength];
+            if (tailLength == 0) return bytes;
+            int start = Math.floorMod(tailPosition - tailLength, tail.length);
+            int first = Math.min(tailLength, tail.length - start);
+            System.arraycopy(tail, start, bytes, 0, first);
+            System.arraycopy(tail, 0, bytes, first, tailLength - first);
+            return bytes;
+        }
+
+        CapturedOutput toCapturedOutput() {
+            long omittedBytes = totalBytes - head.size() - tailLength;
+            String text;
+            if (omittedBytes == 0) {
+                head.writeBytes(tailBytes());
+                text = head.toString(StandardCharsets.UTF_8);
+            } else {
+                // The omitted bytes may start or end in the middle of a character, so the rest of that
+                // character is omitted too rather than decoded on its own
+                byte[] headBytes = head.toByteArray();
+                byte[] tailBytes = tailBytes();
+                int headLength = withoutPartialCharacterAtEnd(headBytes);
+                int tailStart = partialCharacterAtStart(tailBytes);
+                omittedBytes += headBytes.length - headLength + tailStart;
+                text = new String(headBytes, 0, headLength, StandardCharsets.UTF_8)
+                        + "\n...(" + omittedBytes + " bytes omitted)...\n"
+                        + new String(tailBytes, tailStart, tailBytes.length - tailStart, StandardCharsets.UTF_8);
+            }
+            return new CapturedOutput(normalizeLines(text), new OutputInfo(totalBytes, omittedBytes));
+        }
+
+        /**
+         * @return the length of the UTF-8 bytes without the start of a character that is cut off at their end
+         */
+        private static int withoutPartialCharacterAtEnd(byte[] bytes) {
+            for (int i = bytes.length - 1; i >= Math.max(0, bytes.length - 4); i--) {
+                int b = bytes[i] & 0xFF;
+                if ((b & 0xC0) == 0x80) continue;
+                int characterLength = b < 0x80 ? 1 : b >= 0xF0 ? 4 : b >= 0xE0 ? 3 : 2;
+                return i + characterLength > bytes.length ? i : bytes.length;
+            }
+            return bytes.length;
+        }
+
+        /**
+         * @return how many UTF-8 bytes at the start are the rest of a character whose start was cut off
+         */
+        private static int partialCharacterAtStart(byte[] bytes) {
+            int continuationBytes = 0;
+            while (continuationBytes < Math.min(3, bytes.length) && (bytes[continuationBytes] & 0xC0) == 0x80) {
+                continuationBytes++;
+            }
+            return continuationBytes;
+        }
+    }
+
+    /**
+     * Samples the CPU time and resident memory of a process and its descendants until the process exits.
+     * Because usage is only sampled, the CPU time used after the last sample before a process exits isn't
+     * counted, so short-lived processes may report little or no CPU time.
+     */
+    private static class UsageSampler {
+        private final Process process;
+        private final long startNanos;
+        private final Map<Long, Long> cpuMillisByPid = new HashMap<>();
+        private long peakRssKilobytes;
+
+        UsageSampler(Process process, long startNanos) {
+            this.process = process;
+            this.startNanos = startNanos;
+        }
+
+        ProcessUsage sampleUntilExit() throws InterruptedException {
+            do {
+                sample();
+            } while (!process.waitFor(USAGE_SAMPLE_INTERVAL, TimeUnit.MILLISECONDS));
+            long wallMillis = (System.nanoTime() - startNanos) / 1_000_000;
+            long cpuMillis = cpuMillisByPid.values().stream().mapToLong(Long::longValue).sum();
+            return new ProcessUsage(cpuMillis, peakRssKilobytes, wallMillis);
+        }
+
+        private void sample() {
+            long rssKilobytes = 0;
+            List<ProcessHandle> handles = Stream.concat(Stream.of(process.toHandle()), process.descendants()).toList();
+            for (ProcessHandle handle : handles) {
+                handle.info().totalCpuDuration().map(Duration::toMillis)
+                        .ifPresent(cpu -> cpuMillisByPid.merge(handle.pid(), cpu, Math::max));
+                rssKilobytes += readStatusKilobytes(handle.pid(), "VmRSS:");
+                // The high-water mark catches peaks between samples of the process itself
+                peakRssKilobytes = Math.max(peakRssKilobytes, readStatusKilobytes(handle.pid(), "VmHWM:"));
+            }
+            peakRssKilobytes = Math.max(peakRssKilobytes, rssKilobytes);
+        }
+
+        private static long readStatusKilobytes(long pid, String field) {
+            if (!PROC_AVAILABLE) return 0;
+            try (Stream<String> lines = Files.lines(Path.of("/proc", String.valueOf(pid), "status"))) {
+                return lines.filter(line -> line.startsWith(field))
+                        .map(line -> line.substring(field.length()).trim().split("\\s+")[0])
+                        .mapToLong(Long::parseLong)
+                        .findFirst()
+                        .orElse(0);
+            } catch (IOException | UncheckedIOException | NumberFormatException e) {
+                // The process exited since it was listed
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Ends every line with a single {@code \n}, as if the output had been read line by line
+     */
+    private static String normalizeLines(String text) {
+        text = text.replace("\r\n", "\n").replace('\r', '\n');
+        return text.isEmpty() || text.endsWith("\n") ? text : text + "\n";
+    }
+
+    private record CapturedOutput(String text, OutputInfo info) {}
+
+    /**
+     * How much of each output stream of a process to keep. When a stream is longer than
+     * {@code headBytes + tailBytes}, the bytes in between are dropped and replaced by a marker
+     * saying how many were dropped.
+     *
+     * @param headBytes how many bytes to keep from the start of the stream
+     * @param tailBytes how many bytes to keep from the end of the stream
+     */
+    public record OutputLimit(int headBytes, int tailBytes) {
+        public static final OutputLimit DEFAULT = new OutputLimit(256 * 1024, 256 * 1024);
+
+        public OutputLimit {
+            if (headBytes < 0 || tailBytes < 0) {
+                throw new IllegalArgumentException("Output limits cannot be negative");
+            }
+        }
+    }
+
+    /**
+     * How much a process wrote to one of its output streams
+     *
+     * @param totalBytes the number of bytes the process wrote
+     * @param omittedBytes the number of bytes dropped because of the {@link OutputLimit}
+     */
+    public record OutputInfo(long totalBytes, long omittedBytes) {
+        public boolean truncated() {
+            return omittedBytes > 0;
         }
     }
 
+    /**
+     * The resources used by a process and its descendants while it ran
+     *
+     * @param cpuMillis the CPU time used, as of the last sample before the process exited
+     * @param peakRssKilobytes the most memory that was resident at once, or 0 where this can't be measured
+     * @param wallMillis how long the process ran
+     */
+    public record ProcessUsage(long cpuMillis, long peakRssKilobytes, long wallMillis) {
+        public static final ProcessUsage NONE = new ProcessUsage(0, 0, 0);
+    }
+
     /**
      * The output of running a process
      *
      * @param stdOut the standard output from running the process
      * @param stdErr the error output from running the process
      * @param statusCode the status code from running the process, 0 if successful, error otherwise
+     * @param stdOutInfo how much the process wrote to standard output
+     * @param stdErrInfo how much the process wrote to standard error
+     * @param usage the resources the process used
      */
-    public record ProcessOutput(String stdOut, String stdErr, int statusCode){}
+    public record ProcessOutput(String stdOut, String stdErr, int statusCode,
+                                OutputInfo stdOutInfo, OutputInfo stdErrInfo, ProcessUsage usage) {
+        public ProcessOutput(String stdOut, String stdErr, int statusCode) {
+            this(stdOut, stdErr, statusCode,
+                    new OutputInfo(stdOut.getBytes().length, 0), new OutputInfo(stdErr.getBytes().length, 0),
+                    ProcessUsage.NONE);
+        }
+    }
 
     /**
      * Thrown if an issue arises running a process
@@ -10,6 +10,7 @@ import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.io.Writer;
 import java.lang.reflect.Type;
 import java.time.Instant;
 import java.time.ZoneId;
@@ -60,6 +61,38 @@ public class Serializer {
         }
     }
 
+    /**
+     * Creates a {@link JsonWriter} that writes JSON to a {@link Writer} as it is produced, so that
+     * large results can be written without building the whole JSON string in memory first.
+     * Objects are written to it with {@link #serialize(Object, Type, JsonWriter)}.
+     *
+     * @param writer the {@link Writer} to write JSON to
+     * @return a {@link JsonWriter} using this serializer's settings
+     */
+    public static JsonWriter newJsonWriter(Writer writer) {
+        try {
+            return GSON.newJsonWriter(writer);
+        } catch (Exception e) {
+            throw new SerializationException(e);
+        }
+    }
+
+    /**
+     * Serializes an object directly to a {@link JsonWriter}.
+     * See {@link Gson#toJson(Object, Type, JsonWriter)} for more information.
+     *
+     * @param obj the object to serialize
+     * @param type the object's genericized type
+     * @param writer the {@link JsonWriter} to write the JSON to
+     */
+    public static void serialize(Object obj, Type type, JsonWriter writer) {
+        try {
+            GSON.toJson(obj, type, writer);
+        } catch (Exception e) {
+            throw new SerializationException(e);
+        }
+    }
+
     /**
      * Safely deserializes, allowing {@code jsonStr} to be null, a JSON string into an
      * object of the specified class
@@ -25,14 +25,34 @@ export const approveSubmissionPost = (netId: string, phase: Phase, penalize: boo
   );
 };
 
-export const submissionsLatestGet = (batchSize?: number): Promise<Submission[]> => {
+/**
+ * @param batchSize how many submissions to get, or all of them if left out
+ * @param summary whether to get only the fields shown in lists, leaving out the rubric,
+ * commit verification, and resource usage, which are fetched when a submission is opened
+ */
+export const submissionsLatestGet = (
+  batchSize?: number,
+  summary: boolean = false,
+): Promise<Submission[]> => {
   batchSize = batchSize ? batchSize : -1;
   return ServerCommunicator.getRequestGuaranteed<Submission[]>(
-    "/api/admin/submissions/latest/" + batchSize,
+    "/api/admin/submissions/latest/" + batchSize + (summary ? "?summary=true" : ""),
     [],
   );
 };
 
+/**
+ * Gets every field of a single submission, such as one of the summaries from submissionsLatestGet
+ * when it is opened
+ */
+export const submissionGet = (summary: Submission): Promise<Submission | null> => {
+  const params = new URLSearchParams({ headHash: summary.headHash, timestamp: summary.timestamp });
+  return ServerCommunicator.getRequestGuaranteed<Submission | null>(
+    `/api/admin/submissions/student/${summary.netId}/${summary.phase}?${params}`,
+    null,
+  );
+};
+
 export const testStudentModeGet = (): Promise<null> => {
   return ServerCommunicator.getRequestGuaranteed<null>("/api/admin/test_mode", null);
 };
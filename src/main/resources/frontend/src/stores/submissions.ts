@@ -52,13 +52,62 @@ export const useSubmissionStore = defineStore("submission", () => {
 });
 
 export const subscribeToGradingUpdates = (eventHandler: (event: MessageEvent) => void) => {
+  if (typeof EventSource !== "undefined") {
+    subscribeWithEventSource(eventHandler);
+  } else {
+    subscribeWithWebSocket(eventHandler);
+  }
+};
+
+/**
+ * Unwraps the messages the server sent together as a batch, and remembers the
+ * `seq` of the last grading event so that a reconnect only receives what was missed
+ */
+const handleMessage = (
+  event: MessageEvent,
+  eventHandler: (event: MessageEvent) => void,
+  onEvent: (message: any) => void,
+) => {
+  const message = JSON.parse(event.data);
+  const messages = message.type === "batch" ? message.events : [message];
+  for (const single of messages) {
+    onEvent(single);
+    eventHandler(
+      message.type === "batch" ? new MessageEvent("message", { data: JSON.stringify(single) }) : event,
+    );
+  }
+};
+
+const subscribeWithEventSource = (eventHandler: (event: MessageEvent) => void) => {
+  const sseBackendUrl = useConfigStore().backendUrl + "/sse";
+  let lastSeq = 0;
+  let finished = false;
+  const connect = () => {
+    const source = new EventSource(`${sseBackendUrl}?lastSeq=${lastSeq}`, { withCredentials: true });
+    source.onmessage = (event) => {
+      handleMessage(event, eventHandler, (message) => {
+        if (message.seq) lastSeq = message.seq;
+        if (message.type === "results" || message.type === "error") finished = true;
+      });
+      if (finished) source.close();
+    };
+    source.onerror = () => {
+      // Reconnect ourselves so that the events already received aren't sent again
+      source.close();
+      if (!finished) setTimeout(connect, 1000);
+    };
+  };
+  connect();
+};
+
+const subscribeWithWebSocket = (eventHandler: (event: MessageEvent) => void) => {
   const wsBackendUrl = useConfigStore().backendUrl.replace(/^http/, "ws") + "/ws";
   const ws = new WebSocket(wsBackendUrl);
   ws.onopen = () => {
     ws.send("");
   };
   ws.onmessage = (event) => {
-    eventHandler(event);
+    handleMessage(event, eventHandler, () => {});
   };
   ws.onerror = (event) => {
     console.error("ws error", event);
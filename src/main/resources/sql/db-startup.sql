@@ -24,9 +24,11 @@ CREATE TABLE IF NOT EXISTS `submission` (
     `commit_context` JSON,
     `commit_result` JSON,
     `verification` JSON,
+    `resource_usage` JSON,
     `admin` BOOL NOT NULL,
     PRIMARY KEY (`id`),
     INDEX sort_index (`net_id`,`phase`,`passed`,`score`,`timestamp`),
+    INDEX history_index (`net_id`,`timestamp`),
     CONSTRAINT `submission_net_id`
         FOREIGN KEY (`net_id`)
         REFERENCES `user` (`net_id`)
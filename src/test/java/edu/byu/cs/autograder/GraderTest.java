@@ -0,0 +1,159 @@
+package edu.byu.cs.autograder;
+
+import edu.byu.cs.dataAccess.DataAccessException;
+import edu.byu.cs.model.Phase;
+import edu.byu.cs.model.Rubric;
+import edu.byu.cs.model.Rubric.RubricType;
+import edu.byu.cs.util.PhaseUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraderTest {
+
+    private static final List<RubricType> ALL_TYPES = List.of(RubricType.PASSOFF_TESTS, RubricType.UNIT_TESTS,
+            RubricType.EXTRA_CREDIT, RubricType.QUALITY, RubricType.GITHUB_REPO);
+
+    @Test
+    void planLanes__concurrentTests() {
+        List<List<RubricType>> lanes = Grader.planLanes(ALL_TYPES, PhaseUtils.testsUseDatabase(Phase.Phase3));
+
+        assertEquals(List.of(List.of(RubricType.PASSOFF_TESTS), List.of(RubricType.UNIT_TESTS),
+                List.of(RubricType.EXTRA_CREDIT), List.of(RubricType.QUALITY), List.of(RubricType.GITHUB_REPO)), lanes);
+    }
+
+    @Test
+    void planLanes__databaseTests() {
+        List<List<RubricType>> lanes = Grader.planLanes(ALL_TYPES, PhaseUtils.testsUseDatabase(Phase.Phase4));
+
+        assertEquals(List.of(List.of(RubricType.PASSOFF_TESTS, RubricType.UNIT_TESTS, RubricType.EXTRA_CREDIT),
+                List.of(RubricType.QUALITY), List.of(RubricType.GITHUB_REPO)), lanes);
+    }
+
+    @Test
+    void planLanes__keepsOrder() {
+        List<List<RubricType>> lanes = Grader.planLanes(
+                List.of(RubricType.QUALITY, RubricType.UNIT_TESTS, RubricType.PASSOFF_TESTS), true);
+
+        assertEquals(List.of(List.of(RubricType.QUALITY), List.of(RubricType.UNIT_TESTS, RubricType.PASSOFF_TESTS)),
+                lanes);
+    }
+
+    @Test
+    void runLanes__serializesDatabaseTests() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<RubricType> started = Collections.synchronizedList(new ArrayList<>());
+        List<List<RubricType>> lanes = Grader.planLanes(
+                List.of(RubricType.PASSOFF_TESTS, RubricType.UNIT_TESTS, RubricType.EXTRA_CREDIT), true);
+
+        EnumMap<RubricType, Rubric.Results> results = Grader.runLanes(lanes, type -> {
+            started.add(type);
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep();
+            running.decrementAndGet();
+            return result(type);
+        });
+
+        assertEquals(1, maxRunning.get(), "Tests that use the database must not run at the same time");
+        assertEquals(List.of(RubricType.PASSOFF_TESTS, RubricType.UNIT_TESTS, RubricType.EXTRA_CREDIT), started);
+        assertEquals(3, results.size());
+        assertEquals("UNIT_TESTS", results.get(RubricType.UNIT_TESTS).notes());
+    }
+
+    @Test
+    void runLanes__runsLanesConcurrently() throws Exception {
+        List<List<RubricType>> lanes = Grader.planLanes(ALL_TYPES, false);
+        CountDownLatch allStarted = new CountDownLatch(lanes.size());
+
+        EnumMap<RubricType, Rubric.Results> results = Grader.runLanes(lanes, type -> {
+            allStarted.countDown();
+            // Only finishes if every lane is running at once
+            await(allStarted);
+            return result(type);
+        });
+
+        assertEquals(ALL_TYPES, List.copyOf(results.keySet()));
+    }
+
+    @Test
+    void runLanes__skipsNullResults() throws Exception {
+        List<List<RubricType>> lanes = Grader.planLanes(List.of(RubricType.QUALITY, RubricType.GIT_COMMITS), false);
+
+        EnumMap<RubricType, Rubric.Results> results = Grader.runLanes(lanes,
+                type -> type == RubricType.GIT_COMMITS ? null : result(type));
+
+        assertEquals(List.of(RubricType.QUALITY), List.copyOf(results.keySet()));
+    }
+
+    @Test
+    void runLanes__gradingException() {
+        List<List<RubricType>> lanes = Grader.planLanes(ALL_TYPES, true);
+        List<RubricType> graded = Collections.synchronizedList(new ArrayList<>());
+        GradingException failure = new GradingException("Error compiling tests");
+
+        GradingException thrown = assertThrows(GradingException.class, () -> Grader.runLanes(lanes, type -> {
+            if (type == RubricType.UNIT_TESTS) throw failure;
+            graded.add(type);
+            return result(type);
+        }));
+
+        assertSame(failure, thrown);
+        assertFalse(graded.contains(RubricType.EXTRA_CREDIT), "A lane should stop at its first failure");
+    }
+
+    @Test
+    void runLanes__dataAccessException() {
+        List<List<RubricType>> lanes = Grader.planLanes(ALL_TYPES, false);
+        DataAccessException failure = new DataAccessException("Error reading config");
+
+        DataAccessException thrown = assertThrows(DataAccessException.class, () -> Grader.runLanes(lanes, type -> {
+            if (type == RubricType.QUALITY) throw failure;
+            return result(type);
+        }));
+
+        assertSame(failure, thrown);
+    }
+
+    @Test
+    void runLanes__unexpectedException() {
+        List<List<RubricType>> lanes = Grader.planLanes(List.of(RubricType.QUALITY), false);
+        IllegalStateException failure = new IllegalStateException("Unexpected");
+
+        GradingException thrown = assertThrows(GradingException.class, () -> Grader.runLanes(lanes, type -> {
+            throw failure;
+        }));
+
+        assertSame(failure, thrown.getCause());
+    }
+
+    private static Rubric.Results result(RubricType type) {
+        return new Rubric.Results(type.name(), 1f, 1, null, null);
+    }
+
+    private static void await(CountDownLatch latch) throws GradingException {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                throw new GradingException("Lanes did not run concurrently");
+            }
+        } catch (InterruptedException e) {
+            throw new GradingException(e);
+        }
+    }
+
+    private static void sleep() throws GradingException {
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            throw new GradingException(e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package edu.byu.cs.autograder;
+
+import edu.byu.cs.model.Phase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradingSchedulerTest {
+
+    private static final Instant NOW = Instant.parse("2024-09-01T12:00:00Z");
+
+    private GradingScheduler scheduler;
+    private List<String> graded;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new GradingScheduler(Clock.fixed(NOW, ZoneOffset.UTC), phase -> Duration.ofMinutes(3));
+        graded = new ArrayList<>();
+    }
+
+    private void enqueue(String netId, GradingScheduler.Priority priority, Instant timeAdded) {
+        scheduler.enqueue(netId, Phase.Phase0, priority, timeAdded, () -> graded.add(netId));
+    }
+
+    private void runAll() {
+        Runnable next;
+        while ((next = scheduler.next()) != null) {
+            next.run();
+        }
+    }
+
+    @Test
+    void next__priorities() {
+        enqueue("admin", GradingScheduler.Priority.ADMIN, NOW.minusSeconds(60));
+        enqueue("resubmit", GradingScheduler.Priority.RESUBMISSION, NOW.minusSeconds(30));
+        enqueue("first", GradingScheduler.Priority.FIRST_ATTEMPT, NOW);
+
+        runAll();
+
+        assertEquals(List.of("first", "resubmit", "admin"), graded);
+    }
+
+    @Test
+    void next__olderSubmissionsOutwaitPriority() {
+        enqueue("admin", GradingScheduler.Priority.ADMIN, NOW.minus(Duration.ofMinutes(10)));
+        enqueue("first", GradingScheduler.Priority.FIRST_ATTEMPT, NOW);
+
+        runAll();
+
+        assertEquals(List.of("admin", "first"), graded);
+    }
+
+    @Test
+    void next__fairShare() {
+        enqueue("busy", GradingScheduler.Priority.FIRST_ATTEMPT, NOW.minusSeconds(10));
+        runAll();
+
+        enqueue("busy", GradingScheduler.Priority.FIRST_ATTEMPT, NOW.minusSeconds(5));
+        enqueue("other", GradingScheduler.Priority.FIRST_ATTEMPT, NOW);
+        runAll();
+
+        assertEquals(List.of("busy", "other", "busy"), graded);
+    }
+
+    @Test
+    void enqueue__duplicate() {
+        assertTrue(scheduler.enqueue("a", Phase.Phase0, GradingScheduler.Priority.FIRST_ATTEMPT, NOW, () -> {}));
+        assertFalse(scheduler.enqueue("a", Phase.Phase1, GradingScheduler.Priority.FIRST_ATTEMPT, NOW, () -> {}));
+        assertTrue(scheduler.isScheduled("a"));
+    }
+
+    @Test
+    void estimate() {
+        enqueue("running", GradingScheduler.Priority.FIRST_ATTEMPT, NOW.minusSeconds(60));
+        Runnable running = scheduler.next();
+        enqueue("second", GradingScheduler.Priority.RESUBMISSION, NOW);
+        enqueue("first", GradingScheduler.Priority.FIRST_ATTEMPT, NOW);
+
+        List<GradingScheduler.Estimate> estimates = scheduler.estimate(1);
+
+        assertEquals(List.of(
+                new GradingScheduler.Estimate("running", Phase.Phase0, true, 0, NOW),
+                new GradingScheduler.Estimate("first", Phase.Phase0, false, 1, NOW.plus(Duration.ofMinutes(3))),
+                new GradingScheduler.Estimate("second", Phase.Phase0, false, 2, NOW.plus(Duration.ofMinutes(6)))
+        ), estimates);
+
+        running.run();
+        assertFalse(scheduler.isScheduled("running"));
+        assertEquals(NOW, scheduler.estimate(2).get(1).estimatedStart());
+    }
+}
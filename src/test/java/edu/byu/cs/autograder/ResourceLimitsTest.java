@@ -0,0 +1,55 @@
+package edu.byu.cs.autograder;
+
+import edu.byu.cs.util.ProcessUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceLimitsTest {
+
+    @Test
+    void apply__cpuLimitExceeded() throws ProcessUtils.ProcessException {
+        ResourceLimits limits = new ResourceLimits(0, 1, ProcessUtils.OutputLimit.DEFAULT);
+        ProcessBuilder processBuilder = limits.apply(new ProcessBuilder("bash", "-c",
+                "end=$((SECONDS + 5)); while [ $SECONDS -lt $end ]; do :; done; echo finished"));
+
+        ProcessUtils.ProcessOutput processOutput = ProcessUtils.runProcess(processBuilder, 10000);
+
+        assertEquals(ResourceLimits.CPU_LIMIT_EXIT_STATUS, processOutput.statusCode());
+        assertEquals("", processOutput.stdOut());
+    }
+
+    @Test
+    void apply__keepsArguments() throws ProcessUtils.ProcessException {
+        ResourceLimits limits = new ResourceLimits(0, 10, ProcessUtils.OutputLimit.DEFAULT);
+        ProcessBuilder processBuilder = limits.apply(new ProcessBuilder("echo", "two words", "$HOME"));
+
+        ProcessUtils.ProcessOutput processOutput = ProcessUtils.runProcess(processBuilder);
+
+        assertEquals(0, processOutput.statusCode());
+        assertEquals("two words $HOME\n", processOutput.stdOut());
+    }
+
+    @Test
+    void apply__noLimit() {
+        ProcessBuilder processBuilder = ResourceLimits.NONE.apply(new ProcessBuilder("echo", "hello"));
+
+        assertEquals(List.of("echo", "hello"), processBuilder.command());
+    }
+
+    @Test
+    void forCompiling__noCpuLimit() {
+        ResourceLimits limits = ResourceLimits.forCompiling();
+
+        assertEquals(0, limits.cpuSeconds());
+        assertEquals(List.of("mvn", "package"), limits.apply(new ProcessBuilder("mvn", "package")).command());
+    }
+
+    @Test
+    void jvmOptions() {
+        assertEquals(List.of("-Xmx256m"), new ResourceLimits(256, 0, ProcessUtils.OutputLimit.DEFAULT).jvmOptions());
+        assertEquals(List.of(), ResourceLimits.NONE.jvmOptions());
+    }
+}
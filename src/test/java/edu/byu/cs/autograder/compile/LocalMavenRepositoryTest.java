@@ -0,0 +1,108 @@
+package edu.byu.cs.autograder.compile;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalMavenRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private File repositoryDir;
+    private File phasesDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        repositoryDir = tempDir.resolve("repository").toFile();
+        phasesDir = tempDir.resolve("phases").toFile();
+        Files.createDirectories(phasesDir.toPath().resolve("pom/server"));
+        Files.writeString(phasesDir.toPath().resolve("pom/pom.xml"), "<project/>");
+        Files.writeString(phasesDir.toPath().resolve("pom/server/pom.xml"), "<project/>");
+        Files.createDirectories(phasesDir.toPath().resolve("libs"));
+        Files.writeString(phasesDir.toPath().resolve("libs/passoff-dependencies.jar"), "jar");
+    }
+
+    @Test
+    void seed__buildsOffline() {
+        LocalMavenRepository repository = newRepository("true");
+
+        repository.seed();
+
+        assertTrue(repository.isSeeded());
+        try (LocalMavenRepository.ReadAccess access = repository.readAccess()) {
+            assertTrue(access.buildArguments().contains("--offline"));
+            assertTrue(access.buildArguments().contains("-Dmaven.repo.local=" + repositoryDir.getAbsolutePath()));
+        }
+    }
+
+    @Test
+    void seed__failedBuild() {
+        LocalMavenRepository repository = newRepository("false");
+
+        repository.seed();
+
+        assertFalse(repository.isSeeded());
+        try (LocalMavenRepository.ReadAccess access = repository.readAccess()) {
+            assertFalse(access.buildArguments().contains("--offline"), "An unseeded repository can't be used offline");
+            assertTrue(access.buildArguments().contains("-Dmaven.repo.local=" + repositoryDir.getAbsolutePath()));
+        }
+    }
+
+    @Test
+    void seed__reusesSeed() {
+        newRepository("true").seed();
+
+        // A failing build shows that the seed wasn't built again
+        LocalMavenRepository repository = newRepository("false");
+        repository.seed();
+
+        assertTrue(repository.isSeeded());
+    }
+
+    @Test
+    void seed__pomsChanged() throws IOException {
+        newRepository("true").seed();
+        Files.writeString(phasesDir.toPath().resolve("pom/server/pom.xml"), "<project><changed/></project>");
+
+        LocalMavenRepository repository = newRepository("false");
+        repository.seed();
+
+        assertFalse(repository.isSeeded(), "Changing the poms should require seeding again");
+    }
+
+    @Test
+    void readAccess__whileSeeding() throws IOException, InterruptedException {
+        Path release = tempDir.resolve("release");
+        Path script = tempDir.resolve("seed.sh");
+        Files.writeString(script, "#!/bin/sh\nwhile [ ! -e '%s' ]; do sleep 0.05; done\n".formatted(release));
+        assertTrue(script.toFile().setExecutable(true));
+        LocalMavenRepository repository = newRepository(script.toString());
+
+        repository.seedInBackground();
+        try (LocalMavenRepository.ReadAccess access = repository.readAccess()) {
+            assertEquals(0, access.buildArguments().size(), "Builds shouldn't wait for seeding or use the repository");
+        }
+
+        Files.createFile(release);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!repository.isSeeded() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertTrue(repository.isSeeded());
+        try (LocalMavenRepository.ReadAccess access = repository.readAccess()) {
+            assertTrue(access.buildArguments().contains("--offline"));
+        }
+    }
+
+    private LocalMavenRepository newRepository(String mavenCommand) {
+        return new LocalMavenRepository(repositoryDir, phasesDir, new MavenBuildRunner("", mavenCommand));
+    }
+}
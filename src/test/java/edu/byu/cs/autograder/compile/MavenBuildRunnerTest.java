@@ -0,0 +1,103 @@
+package edu.byu.cs.autograder.compile;
+
+import edu.byu.cs.util.ProcessUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MavenBuildRunnerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void runBuild__noDaemon() throws ProcessUtils.ProcessException {
+        MavenBuildRunner runner = new MavenBuildRunner("", "echo");
+
+        ProcessUtils.ProcessOutput output = runner.runBuild(tempDir.toFile(), 1000, List.of("package"));
+
+        assertEquals("package\n", output.stdOut());
+        assertTimings(runner, 0, 1);
+    }
+
+    @Test
+    void runBuild__daemonSucceeds() throws ProcessUtils.ProcessException, IOException {
+        MavenBuildRunner runner = new MavenBuildRunner(script("echo daemon", 0), "echo");
+
+        ProcessUtils.ProcessOutput output = runner.runBuild(tempDir.toFile(), 1000, List.of("package"));
+
+        assertEquals("daemon\n", output.stdOut());
+        assertTimings(runner, 1, 0);
+    }
+
+    @Test
+    void runBuild__daemonReportsBuildFailure() throws ProcessUtils.ProcessException, IOException {
+        MavenBuildRunner runner = new MavenBuildRunner(script("echo '[INFO] BUILD FAILURE'", 1), "echo");
+
+        ProcessUtils.ProcessOutput output = runner.runBuild(tempDir.toFile(), 1000, List.of("package"));
+
+        assertEquals(1, output.statusCode());
+        assertTimings(runner, 1, 0);
+    }
+
+    @Test
+    void runBuild__daemonCrashes() throws ProcessUtils.ProcessException, IOException {
+        MavenBuildRunner runner = new MavenBuildRunner(script("echo 'daemon died'", 1), "echo");
+
+        ProcessUtils.ProcessOutput output = runner.runBuild(tempDir.toFile(), 1000, List.of("package"));
+
+        assertEquals(0, output.statusCode());
+        assertEquals("package\n", output.stdOut());
+        assertTimings(runner, 1, 1);
+    }
+
+    @Test
+    void runBuild__daemonMissing() throws ProcessUtils.ProcessException {
+        String missingDaemon = new File(tempDir.toFile(), "missing-mvnd").getAbsolutePath();
+        MavenBuildRunner runner = new MavenBuildRunner(missingDaemon, "echo");
+
+        ProcessUtils.ProcessOutput output = runner.runBuild(tempDir.toFile(), 1000, List.of("package"));
+
+        assertEquals("package\n", output.stdOut());
+        assertTimings(runner, 1, 1);
+    }
+
+    @Test
+    void runBuild__daemonTimesOut() throws IOException {
+        MavenBuildRunner runner = new MavenBuildRunner(script("sleep 5", 0), "echo");
+
+        assertThrows(ProcessUtils.ProcessException.class,
+                () -> runner.runBuild(tempDir.toFile(), 200, List.of("package")));
+        assertTimings(runner, 1, 0);
+    }
+
+    @Test
+    void runBuild__daemonUsesWholeTimeout() throws IOException {
+        MavenBuildRunner runner = new MavenBuildRunner(script("sleep 0.5", 1), "sleep");
+
+        assertThrows(ProcessUtils.ProcessException.class,
+                () -> runner.runBuild(tempDir.toFile(), 1000, List.of("1")));
+        assertTimings(runner, 1, 1);
+    }
+
+    private String script(String body, int exitCode) throws IOException {
+        Path script = Files.createTempFile(tempDir, "mvnd", ".sh");
+        Files.writeString(script, "#!/bin/sh\n%s\nexit %d\n".formatted(body, exitCode));
+        assertTrue(script.toFile().setExecutable(true));
+        return script.toString();
+    }
+
+    private static void assertTimings(MavenBuildRunner runner, long daemonBuilds, long forkBuilds) {
+        for (MavenBuildRunner.BuildTiming timing : runner.getTimings()) {
+            long expected = timing.path() == MavenBuildRunner.BuildPath.DAEMON ? daemonBuilds : forkBuilds;
+            assertEquals(expected, timing.builds(), "Unexpected build count for " + timing.path());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package edu.byu.cs.autograder.compile;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModuleOutputCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ModuleOutputCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ModuleOutputCache(tempDir.resolve("cache").toFile());
+    }
+
+    @Test
+    void restore__emptyCache() throws IOException {
+        File repo = createRepo("first", "class A {}");
+
+        Set<String> restored = cache.restore(repo, cache.computeKeys(repo));
+
+        assertTrue(restored.isEmpty());
+    }
+
+    @Test
+    void restore__unchangedRepo() throws IOException {
+        File first = createRepo("first", "class A {}");
+        buildAndStore(first);
+
+        File second = createRepo("second", "class A {}");
+        Set<String> restored = cache.restore(second, cache.computeKeys(second));
+
+        assertEquals(Set.of("shared", "server", "client"), restored);
+        assertTrue(new File(second, "shared/target/classes/Compiled.class").exists());
+        assertTrue(new File(second, "server/target/test-classes/Compiled.class").exists());
+    }
+
+    @Test
+    void restore__changedDownstreamModule() throws IOException {
+        File first = createRepo("first", "class A {}");
+        buildAndStore(first);
+
+        File second = createRepo("second", "class A {}");
+        Files.writeString(second.toPath().resolve("client/src/main/java/Client.java"), "class Client { int x; }");
+        Set<String> restored = cache.restore(second, cache.computeKeys(second));
+
+        assertEquals(Set.of("shared", "server"), restored);
+        assertFalse(new File(second, "client/target").exists());
+    }
+
+    @Test
+    void restore__changedUpstreamModule() throws IOException {
+        File first = createRepo("first", "class A {}");
+        buildAndStore(first);
+
+        File second = createRepo("second", "class B {}");
+        Set<String> restored = cache.restore(second, cache.computeKeys(second));
+
+        assertTrue(restored.isEmpty(), "Modules depending on a changed module must be rebuilt");
+    }
+
+    @Test
+    void computeKeys__changedRootPom() throws IOException {
+        File repo = createRepo("first", "class A {}");
+        Map<String, String> before = cache.computeKeys(repo);
+
+        Files.writeString(repo.toPath().resolve("pom.xml"), "<project><changed/></project>");
+
+        Map<String, String> after = cache.computeKeys(repo);
+        for (String module : before.keySet()) {
+            assertNotEquals(before.get(module), after.get(module));
+        }
+    }
+
+    private void buildAndStore(File repo) throws IOException {
+        for (String module : new String[]{"shared", "server", "client"}) {
+            for (String outputDir : new String[]{"classes", "test-classes"}) {
+                Path output = repo.toPath().resolve(module + "/target/" + outputDir);
+                Files.createDirectories(output);
+                Files.writeString(output.resolve("Compiled.class"), module + outputDir);
+            }
+        }
+        cache.store(repo, cache.computeKeys(repo));
+    }
+
+    private File createRepo(String name, String sharedSource) throws IOException {
+        Path repo = tempDir.resolve(name);
+        Files.createDirectories(repo);
+        Files.writeString(repo.resolve("pom.xml"), "<project/>");
+        for (String module : new String[]{"shared", "server", "client"}) {
+            Path sources = repo.resolve(module + "/src/main/java");
+            Files.createDirectories(sources);
+            Files.writeString(repo.resolve(module + "/pom.xml"), "<project>" + module + "</project>");
+        }
+        Files.writeString(repo.resolve("shared/src/main/java/Shared.java"), sharedSource);
+        Files.writeString(repo.resolve("server/src/main/java/Server.java"), "class Server {}");
+        Files.writeString(repo.resolve("client/src/main/java/Client.java"), "class Client {}");
+        return repo.toFile();
+    }
+}
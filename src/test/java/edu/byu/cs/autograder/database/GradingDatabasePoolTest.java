@@ -0,0 +1,109 @@
+package edu.byu.cs.autograder.database;
+
+import edu.byu.cs.autograder.GradingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class GradingDatabasePoolTest {
+
+    private final List<String> executed = new ArrayList<>();
+    private String failingStatement;
+    private GradingDatabasePool pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenAnswer(invocation -> statement(invocation.getArgument(0)));
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        pool = new GradingDatabasePool("test_", dataSource);
+    }
+
+    @Test
+    void acquire__createsDatabase() throws GradingException {
+        GradingDatabasePool.GradingDatabase database = pool.acquire();
+
+        assertEquals("chessDb_test_0", database.name());
+        assertEquals("dbUser_test_0", database.user());
+        assertEquals(1, pool.size());
+        assertTrue(executed.contains("DROP DATABASE IF EXISTS `chessDb_test_0`"), "A new database should start empty");
+    }
+
+    @Test
+    void release__reusesDatabase() throws GradingException {
+        GradingDatabasePool.GradingDatabase first = pool.acquire();
+        pool.release(first);
+        GradingDatabasePool.GradingDatabase second = pool.acquire();
+
+        assertEquals(first.name(), second.name());
+        assertNotEquals(first.password(), second.password(), "A reused database should get a new password");
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    void acquire__failedCreateIsNotCounted() throws GradingException {
+        failingStatement = "GRANT";
+        assertThrows(GradingException.class, pool::acquire);
+        assertEquals(0, pool.size());
+
+        failingStatement = null;
+        GradingDatabasePool.GradingDatabase database = pool.acquire();
+
+        assertEquals("chessDb_test_0", database.name(), "The position of a failed database should be used again");
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    void release__failedResetIsReplaced() throws GradingException {
+        GradingDatabasePool.GradingDatabase first = pool.acquire();
+        failingStatement = "DROP DATABASE";
+        pool.release(first);
+        assertEquals(0, pool.size());
+
+        failingStatement = null;
+        executed.clear();
+        GradingDatabasePool.GradingDatabase replacement = pool.acquire();
+
+        assertEquals(first.name(), replacement.name());
+        assertTrue(executed.contains("DROP DATABASE IF EXISTS `chessDb_test_0`"),
+                "The replacement should reset the database that couldn't be reset");
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    void provision() throws GradingException {
+        pool.provision(3);
+        assertEquals(3, pool.size());
+
+        executed.clear();
+        pool.acquire();
+        assertTrue(executed.stream().noneMatch(statement -> statement.startsWith("CREATE USER")),
+                "A provisioned database should be used instead of creating one");
+        assertEquals(3, pool.size());
+    }
+
+    private PreparedStatement statement(String sql) throws SQLException {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.executeUpdate()).thenAnswer(invocation -> {
+            if (failingStatement != null && sql.startsWith(failingStatement)) {
+                throw new SQLException("Failed: " + sql);
+            }
+            executed.add(sql);
+            return 0;
+        });
+        ResultSet resultSet = mock(ResultSet.class);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        return statement;
+    }
+}
@@ -0,0 +1,204 @@
+package edu.byu.cs.autograder.git;
+
+import edu.byu.cs.autograder.GradingException;
+import edu.byu.cs.util.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepoMirrorCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private File mirrors;
+
+    @BeforeEach
+    void setUp() {
+        mirrors = tempDir.resolve("mirrors").toFile();
+    }
+
+    @Test
+    void cloneInto__newRepo() throws Exception {
+        RepoMirrorCache cache = new RepoMirrorCache(mirrors, Duration.ofDays(1), Long.MAX_VALUE);
+        File origin = tempDir.resolve("origin").toFile();
+        RevCommit head = commit(origin, "first");
+
+        File clone = tempDir.resolve("clone").toFile();
+        cache.cloneInto(origin.toURI().toString(), clone, true);
+
+        try (Git git = Git.open(clone)) {
+            assertEquals(head.getId(), git.getRepository().resolve(Constants.HEAD));
+            assertEquals(origin.toURI().toString(),
+                    git.getRepository().getConfig().getString("remote", "origin", "url"));
+        }
+        assertTrue(new File(clone, "file.txt").exists());
+        assertEquals(1, Objects.requireNonNull(mirrors.list()).length);
+    }
+
+    @Test
+    void cloneInto__fetchesNewCommits() throws Exception {
+        RepoMirrorCache cache = new RepoMirrorCache(mirrors, Duration.ofDays(1), Long.MAX_VALUE);
+        File origin = tempDir.resolve("origin").toFile();
+        commit(origin, "first");
+        cache.cloneInto(origin.toURI().toString(), tempDir.resolve("clone1").toFile(), true);
+
+        RevCommit second = commit(origin, "second");
+        File clone = tempDir.resolve("clone2").toFile();
+        cache.cloneInto(origin.toURI().toString(), clone, true);
+
+        try (Git git = Git.open(clone)) {
+            assertEquals(second.getId(), git.getRepository().resolve(Constants.HEAD));
+        }
+        assertEquals(1, Objects.requireNonNull(mirrors.list()).length);
+    }
+
+    @Test
+    void cloneInto__gcInForeground() throws Exception {
+        RepoMirrorCache cache = new RepoMirrorCache(mirrors, Duration.ofDays(1), Long.MAX_VALUE);
+        File origin = tempDir.resolve("origin").toFile();
+        commit(origin, "first");
+        cache.cloneInto(origin.toURI().toString(), tempDir.resolve("clone").toFile(), true);
+
+        File mirror = Objects.requireNonNull(mirrors.listFiles())[0];
+        try (Git git = Git.open(mirror)) {
+            assertFalse(git.getRepository().getConfig().getBoolean("gc", "autoDetach", true),
+                    "Automatic gc must not keep writing to a mirror after it is unlocked");
+        }
+    }
+
+    @Test
+    void cloneInto__withoutHistory() throws Exception {
+        RepoMirrorCache cache = new RepoMirrorCache(mirrors, Duration.ofDays(1), Long.MAX_VALUE);
+        File origin = tempDir.resolve("origin").toFile();
+        commit(origin, "first");
+        writeFile(origin, "server/src/Server.java", "class Server {}");
+        writeFile(origin, "docs/notes.md", "notes");
+        RevCommit head = commit(origin, "second");
+
+        File clone = tempDir.resolve("clone").toFile();
+        cache.cloneInto(origin.toURI().toString(), clone, false);
+
+        try (Git git = Git.open(clone)) {
+            assertEquals(head.getId(), git.getRepository().resolve(Constants.HEAD));
+            assertEquals(1, countCommits(git), "Only the head commit should be fetched");
+        }
+        assertTrue(new File(clone, "file.txt").exists());
+        assertTrue(new File(clone, "server/src/Server.java").exists());
+        assertFalse(new File(clone, "docs").exists(), "Directories outside the modules should not be checked out");
+    }
+
+    @Test
+    void cloneInto__missingRepo() {
+        RepoMirrorCache cache = new RepoMirrorCache(mirrors, Duration.ofDays(1), Long.MAX_VALUE);
+        String missing = tempDir.resolve("missing").toUri().toString();
+
+        assertThrows(GradingException.class, () -> cache.cloneInto(missing, tempDir.resolve("clone").toFile(), true));
+    }
+
+    @Test
+    void cloneInto__unreachableRepoKeepsMirror() throws Exception {
+        RepoMirrorCache cache = new RepoMirrorCache(mirrors, Duration.ofDays(1), Long.MAX_VALUE);
+        File mirror = mirrorRepo(cache, "origin");
+        File origin = tempDir.resolve("origin").toFile();
+        String repoUrl = origin.toURI().toString();
+        assertTrue(origin.renameTo(tempDir.resolve("moved").toFile()));
+
+        assertThrows(GradingException.class, () -> cache.cloneInto(repoUrl, tempDir.resolve("clone").toFile(), true));
+        assertTrue(mirror.exists(), "A mirror should not be removed because its repo couldn't be reached");
+    }
+
+    @Test
+    void cloneInto__damagedMirror() throws Exception {
+        RepoMirrorCache cache = new RepoMirrorCache(mirrors, Duration.ofDays(1), Long.MAX_VALUE);
+        File mirror = mirrorRepo(cache, "origin");
+        FileUtils.removeDirectory(new File(mirror, "objects"));
+        File origin = tempDir.resolve("origin").toFile();
+        RevCommit second = commit(origin, "second");
+
+        File clone = tempDir.resolve("clone").toFile();
+        cache.cloneInto(origin.toURI().toString(), clone, true);
+
+        try (Git git = Git.open(clone)) {
+            assertEquals(second.getId(), git.getRepository().resolve(Constants.HEAD));
+        }
+        assertEquals(1, Objects.requireNonNull(mirrors.list()).length);
+    }
+
+    @Test
+    void evictMirrors__expired() throws Exception {
+        RepoMirrorCache cache = new RepoMirrorCache(mirrors, Duration.ofDays(1), Long.MAX_VALUE);
+        File oldMirror = mirrorRepo(cache, "old");
+        File recentMirror = mirrorRepo(cache, "recent");
+        assertTrue(oldMirror.setLastModified(Instant.now().minus(Duration.ofDays(2)).toEpochMilli()));
+
+        cache.evictMirrors();
+
+        assertFalse(oldMirror.exists());
+        assertTrue(recentMirror.exists());
+    }
+
+    @Test
+    void evictMirrors__overBudget() throws Exception {
+        RepoMirrorCache cache = new RepoMirrorCache(mirrors, Duration.ofDays(1), 1);
+        File leastRecent = mirrorRepo(cache, "least-recent");
+        File mostRecent = mirrorRepo(cache, "most-recent");
+        assertTrue(leastRecent.setLastModified(Instant.now().minusSeconds(60).toEpochMilli()));
+
+        cache.evictMirrors();
+
+        assertFalse(leastRecent.exists(), "The least recently used mirror should be evicted first");
+        assertFalse(mostRecent.exists(), "Mirrors should be evicted until they fit in the budget");
+    }
+
+    private File mirrorRepo(RepoMirrorCache cache, String name) throws IOException, GitAPIException, GradingException {
+        File origin = tempDir.resolve(name).toFile();
+        commit(origin, name);
+        String[] before = Objects.requireNonNullElse(mirrors.list(), new String[0]);
+        cache.cloneInto(origin.toURI().toString(), tempDir.resolve(name + "-clone").toFile(), true);
+
+        File[] after = Objects.requireNonNull(mirrors.listFiles());
+        assertEquals(before.length + 1, after.length);
+        for (File mirror : after) {
+            if (!List.of(before).contains(mirror.getName())) return mirror;
+        }
+        throw new AssertionError("No mirror was created for " + name);
+    }
+
+    private static int countCommits(Git git) throws GitAPIException {
+        int count = 0;
+        for (RevCommit ignored : git.log().call()) {
+            count++;
+        }
+        return count;
+    }
+
+    private static void writeFile(File repo, String path, String contents) throws IOException {
+        Path file = repo.toPath().resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, contents);
+    }
+
+    private static RevCommit commit(File repo, String contents) throws IOException, GitAPIException {
+        try (Git git = repo.exists() ? Git.open(repo) : Git.init().setDirectory(repo).call()) {
+            Files.writeString(new File(repo, "file.txt").toPath(), contents);
+            git.add().addFilepattern(".").call();
+            return git.commit().setMessage(contents).setSign(false).call();
+        }
+    }
+}
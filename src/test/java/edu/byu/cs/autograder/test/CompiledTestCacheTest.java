@@ -0,0 +1,161 @@
+package edu.byu.cs.autograder.test;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledTestCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static final String DEFAULT_SERVER =
+            "public class Server { public static final int PORT = 8080; public int run() { return 1; } }";
+    private static final String DEFAULT_CLIENT = "public class Client { public void run() {} }";
+
+    private CompiledTestCache cache;
+    private File phasesDir;
+    private File testSource;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        phasesDir = tempDir.resolve("phases").toFile();
+        writeFile(phasesDir.toPath().resolve("libs/passoff-dependencies.jar"), "jar");
+        writeFile(phasesDir.toPath().resolve("pom/pom.xml"), "<project/>");
+        testSource = writeFile(tempDir.resolve("passoff/ServerTests.java"), "class ServerTests {}");
+        cache = new CompiledTestCache(tempDir.resolve("cache").toFile(), phasesDir);
+    }
+
+    @Test
+    void computeKey__unchangedRepo() throws IOException {
+        assertEquals(computeKey(createRepo("first")), computeKey(createRepo("second")));
+    }
+
+    @Test
+    void computeKey__changedImplementation() throws IOException {
+        File first = createRepo("first");
+        File second = createRepo("second",
+                "public class Server { public static final int PORT = 8080; private int count; "
+                        + "public int run() { return count++; } private void reset() { count = 0; } }",
+                DEFAULT_CLIENT);
+
+        assertEquals(computeKey(first), computeKey(second),
+                "Tests compiled against the same API can be reused");
+    }
+
+    @Test
+    void computeKey__changedApi() throws IOException {
+        File first = createRepo("first");
+        File second = createRepo("second",
+                "public class Server { public static final int PORT = 8080; public long run() { return 1; } }",
+                DEFAULT_CLIENT);
+
+        assertNotEquals(computeKey(first), computeKey(second),
+                "Tests must be recompiled when a class they compile against changes its API");
+    }
+
+    @Test
+    void computeKey__changedConstant() throws IOException {
+        File first = createRepo("first");
+        File second = createRepo("second",
+                "public class Server { public static final int PORT = 8081; public int run() { return 0; } }",
+                DEFAULT_CLIENT);
+
+        assertNotEquals(computeKey(first), computeKey(second),
+                "Constants are copied into the tests that use them");
+    }
+
+    @Test
+    void computeKey__changedUpstreamModule() throws IOException {
+        File first = createRepo("first");
+        File second = createRepo("second");
+        compile(second.toPath(), "shared", "public class Shared { public String name(int id) { return \"shared\"; } }");
+
+        assertNotEquals(computeKey(first), computeKey(second),
+                "Tests must be recompiled when a module they compile against changes its API");
+    }
+
+    @Test
+    void computeKey__changedDownstreamModule() throws IOException {
+        File first = createRepo("first");
+        File second = createRepo("second", DEFAULT_SERVER, "public class Client { public void quit() {} }");
+
+        assertEquals(computeKey(first), computeKey(second),
+                "Server tests don't compile against the client module");
+    }
+
+    @Test
+    void computeKey__changedTests() throws IOException {
+        File repo = createRepo("first");
+        String before = computeKey(repo);
+
+        Files.writeString(testSource.toPath(), "class ServerTests { void test() {} }");
+
+        assertNotEquals(before, computeKey(repo));
+    }
+
+    @Test
+    void computeKey__changedDependencies() throws IOException {
+        File repo = createRepo("first");
+        String before = computeKey(repo);
+
+        Files.writeString(phasesDir.toPath().resolve("libs/passoff-dependencies.jar"), "new jar");
+
+        assertNotEquals(before, computeKey(repo));
+    }
+
+    @Test
+    void restore__storedTests() throws IOException {
+        String key = computeKey(createRepo("first"));
+        File compiledTests = tempDir.resolve("compiled").toFile();
+        writeFile(compiledTests.toPath().resolve("passoff/ServerTests.class"), "compiled");
+        File restored = tempDir.resolve("restored").toFile();
+
+        assertFalse(cache.restore(key, restored));
+        cache.store(key, compiledTests);
+
+        assertTrue(cache.restore(key, restored));
+        assertEquals("compiled", Files.readString(restored.toPath().resolve("passoff/ServerTests.class")));
+    }
+
+    private String computeKey(File repo) throws IOException {
+        return cache.computeKey(Map.of("passoff/ServerTests.java", testSource), repo, "server");
+    }
+
+    private File createRepo(String name) throws IOException {
+        return createRepo(name, DEFAULT_SERVER, DEFAULT_CLIENT);
+    }
+
+    private File createRepo(String name, String server, String client) throws IOException {
+        Path repo = tempDir.resolve(name);
+        compile(repo, "shared", "public class Shared { public String name() { return \"shared\"; } }");
+        compile(repo, "server", server);
+        compile(repo, "client", client);
+        return repo.toFile();
+    }
+
+    private static void compile(Path repo, String module, String source) throws IOException {
+        String className = source.substring("public class ".length(), source.indexOf(' ', "public class ".length()));
+        File sourceFile = writeFile(repo.resolve(module + "/src/main/java/" + className + ".java"), source);
+        File classes = repo.resolve(module + "/target/classes").toFile();
+        Files.createDirectories(classes.toPath());
+        int result = ToolProvider.getSystemJavaCompiler().run(null, null, null,
+                "-d", classes.getPath(), sourceFile.getPath());
+        assertEquals(0, result, "Failed to compile " + className);
+    }
+
+    private static File writeFile(Path file, String contents) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, contents);
+        return file.toFile();
+    }
+}
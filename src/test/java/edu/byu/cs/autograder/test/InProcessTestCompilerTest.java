@@ -0,0 +1,124 @@
+package edu.byu.cs.autograder.test;
+
+import edu.byu.cs.autograder.GradingException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class InProcessTestCompilerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final InProcessTestCompiler compiler = new InProcessTestCompiler();
+
+    @Test
+    void compile__success() throws IOException, GradingException {
+        Path tests = createTests("Helper.java", "package passoff; class Helper { static int value() { return 1; } }");
+        Files.writeString(tests.resolve("passoff/UsesHelper.java"),
+                "package passoff; class UsesHelper { int value = Helper.value(); }");
+        File output = tempDir.resolve("output").toFile();
+
+        TestCompiler.Result result = compiler.compile(tests.toFile(), output,
+                List.of(), Map.of("passoff/UsesHelper.java", tests.resolve("passoff/UsesHelper.java").toFile()));
+
+        assertTrue(result.success(), result.output());
+        assertTrue(new File(output, "passoff/UsesHelper.class").exists());
+        assertTrue(new File(output, "passoff/Helper.class").exists(), "Sources next to the tests should be found");
+    }
+
+    @Test
+    void compile__error() throws IOException, GradingException {
+        Path tests = createTests("Broken.java", "package passoff; class Broken { int value = missing(); }");
+
+        TestCompiler.Result result = compiler.compile(tests.toFile(), tempDir.resolve("output").toFile(),
+                List.of(), Map.of("passoff/Broken.java", tests.resolve("passoff/Broken.java").toFile()));
+
+        assertFalse(result.success());
+        assertTrue(result.output().startsWith("./passoff/Broken.java:1: error: cannot find symbol"), result.output());
+        assertFalse(result.output().contains(tempDir.toString()), "Paths on the server shouldn't be shown to students");
+        assertTrue(result.output().contains("1 error"), result.output());
+    }
+
+    @Test
+    void compile__errorInOverride() throws IOException, GradingException {
+        Path tests = createTests("Broken.java", "package passoff; class Broken {}");
+        Path override = tempDir.resolve("overrides/passoff/Broken.java");
+        Files.createDirectories(override.getParent());
+        Files.writeString(override, "package passoff; class Broken { int value = missing(); }");
+
+        TestCompiler.Result result = compiler.compile(tests.toFile(), tempDir.resolve("output").toFile(),
+                List.of(), Map.of("passoff/Broken.java", override.toFile()));
+
+        assertFalse(result.success());
+        assertTrue(result.output().startsWith("./passoff/Broken.java:1: error: cannot find symbol"), result.output());
+    }
+
+    @Test
+    void compile__reusedAfterError() throws IOException, GradingException {
+        Path broken = createTests("Broken.java", "package passoff; class Broken { int value = missing(); }");
+        compiler.compile(broken.toFile(), tempDir.resolve("broken").toFile(),
+                List.of(), Map.of("passoff/Broken.java", broken.resolve("passoff/Broken.java").toFile()));
+
+        Path working = tempDir.resolve("working/passoff");
+        Files.createDirectories(working);
+        Files.writeString(working.resolve("Working.java"), "package passoff; class Working {}");
+        TestCompiler.Result result = compiler.compile(working.getParent().toFile(), tempDir.resolve("output").toFile(),
+                List.of(), Map.of("passoff/Working.java", working.resolve("Working.java").toFile()));
+
+        assertTrue(result.success(), result.output());
+    }
+
+    @Test
+    void compile__releasesClasspathJars() throws IOException, GradingException {
+        Path openFiles = Path.of("/proc/self/fd");
+        assumeTrue(Files.isDirectory(openFiles), "Open files can only be listed on Linux");
+
+        Path library = tempDir.resolve("library");
+        Files.createDirectories(library.resolve("lib"));
+        Files.writeString(library.resolve("lib/Library.java"), "package lib; public class Library {}");
+        assertEquals(0, ToolProvider.getSystemJavaCompiler().run(null, null, null,
+                library.resolve("lib/Library.java").toString()));
+        Path jar = tempDir.resolve("library.jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new JarEntry("lib/Library.class"));
+            out.write(Files.readAllBytes(library.resolve("lib/Library.class")));
+        }
+
+        Path tests = createTests("UsesLibrary.java", "package passoff; class UsesLibrary { lib.Library library; }");
+        TestCompiler.Result result = compiler.compile(tests.toFile(), tempDir.resolve("output").toFile(),
+                List.of(jar.toString()), Map.of("passoff/UsesLibrary.java", tests.resolve("passoff/UsesLibrary.java").toFile()));
+        assertTrue(result.success(), result.output());
+
+        try (Stream<Path> descriptors = Files.list(openFiles)) {
+            List<Path> open = descriptors.map(descriptor -> {
+                try {
+                    return Files.readSymbolicLink(descriptor);
+                } catch (IOException e) {
+                    return descriptor;
+                }
+            }).toList();
+            assertFalse(open.contains(jar.toAbsolutePath()), "The jar of a submission must not be kept open");
+        }
+    }
+
+    private Path createTests(String fileName, String source) throws IOException {
+        Path tests = tempDir.resolve("tests");
+        Files.createDirectories(tests.resolve("passoff"));
+        Files.writeString(tests.resolve("passoff/" + fileName), source);
+        return tests;
+    }
+}
@@ -0,0 +1,61 @@
+package edu.byu.cs.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradingEventLogTest {
+
+    @Test
+    void append__numbersEvents() {
+        GradingEventLog log = new GradingEventLog();
+
+        Map<String, Object> started = log.append(Map.of("type", "started"));
+        Map<String, Object> update = log.append(Map.of("type", "update", "message", "Compiling code..."));
+
+        assertEquals(1L, started.get("seq"));
+        assertEquals(2L, update.get("seq"));
+        assertEquals("Compiling code...", update.get("message"));
+    }
+
+    @Test
+    void eventsAfter() {
+        GradingEventLog log = new GradingEventLog();
+        log.append(Map.of("type", "started"));
+        log.append(Map.of("type", "update", "message", "Fetching repo..."));
+        log.append(Map.of("type", "update", "message", "Verifying commits..."));
+
+        assertEquals(3, log.eventsAfter(0).size());
+        assertEquals(List.of(3L), log.eventsAfter(2).stream().map(event -> event.get("seq")).toList());
+        assertEquals(List.of(), log.eventsAfter(3));
+    }
+
+    @Test
+    void append__dropsOldestEvents() {
+        GradingEventLog log = new GradingEventLog();
+        for (int i = 0; i < GradingEventLog.MAX_EVENTS + 10; i++) {
+            log.append(Map.of("type", "update", "message", "update " + i));
+        }
+
+        List<Map<String, Object>> events = log.eventsAfter(0);
+
+        assertEquals(GradingEventLog.MAX_EVENTS, events.size());
+        assertEquals(11L, events.getFirst().get("seq"));
+    }
+
+    @Test
+    void finish__expiresAfterRetention() {
+        GradingEventLog log = new GradingEventLog();
+        assertFalse(log.isFinished());
+
+        log.finish();
+
+        assertTrue(log.isFinished());
+        assertFalse(log.isExpired(Instant.now()));
+        assertTrue(log.isExpired(Instant.now().plus(GradingEventLog.RETENTION).plusSeconds(1)));
+    }
+}
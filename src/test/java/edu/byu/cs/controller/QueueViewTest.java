@@ -0,0 +1,75 @@
+package edu.byu.cs.controller;
+
+import edu.byu.cs.dataAccess.DaoService;
+import edu.byu.cs.dataAccess.memory.QueueMemoryDao;
+import edu.byu.cs.model.Phase;
+import edu.byu.cs.model.QueueItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueueViewTest {
+
+    private static final Instant NOW = Instant.parse("2024-09-01T12:00:00Z");
+
+    private Map<String, Map<String, Object>> sent;
+    private QueueView queueView;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DaoService.setQueueDao(new QueueMemoryDao());
+        DaoService.getQueueDao().add(new QueueItem("a", Phase.Phase0, NOW, false));
+        DaoService.getQueueDao().add(new QueueItem("b", Phase.Phase0, NOW.plusSeconds(1), false));
+        DaoService.getQueueDao().add(new QueueItem("running", Phase.Phase0, NOW.minusSeconds(1), true));
+
+        sent = new LinkedHashMap<>();
+        queueView = new QueueView(sent::put);
+    }
+
+    @Test
+    void broadcast__loadsQueue() {
+        queueView.broadcast();
+
+        assertEquals(Map.of("type", "queueStatus", "position", 1, "total", 2), sent.get("a"));
+        assertEquals(Map.of("type", "queueStatus", "position", 2, "total", 2), sent.get("b"));
+        assertFalse(sent.containsKey("running"));
+    }
+
+    @Test
+    void broadcast__onlyChanges() throws Exception {
+        queueView.broadcast();
+        sent.clear();
+
+        queueView.broadcast();
+        assertEquals(Map.of(), sent);
+
+        DaoService.getQueueDao().markStarted("a");
+        queueView.started("a");
+        queueView.broadcast();
+        assertEquals(Map.of("b", Map.of("type", "queueStatus", "position", 1, "total", 1)), sent);
+    }
+
+    @Test
+    void broadcast__trackedWithoutReadingQueue() throws Exception {
+        queueView.broadcast();
+        sent.clear();
+
+        // Changes are taken from the view rather than the table once it is loaded
+        DaoService.setQueueDao(new QueueMemoryDao());
+        QueueItem c = new QueueItem("c", Phase.Phase1, NOW.plusSeconds(2), false);
+        queueView.added(c);
+        queueView.resend("a");
+        queueView.broadcast();
+
+        assertEquals(Map.of(
+                "a", Map.of("type", "queueStatus", "position", 1, "total", 3),
+                "b", Map.of("type", "queueStatus", "position", 2, "total", 3),
+                "c", Map.of("type", "queueStatus", "position", 3, "total", 3)
+        ), sent);
+    }
+}
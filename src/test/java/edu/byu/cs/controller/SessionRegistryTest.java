@@ -0,0 +1,140 @@
+package edu.byu.cs.controller;
+
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SessionRegistryTest {
+
+    private Session session;
+    private RemoteEndpoint remote;
+
+    @BeforeEach
+    void setUp() {
+        session = mock(Session.class);
+        remote = mock(RemoteEndpoint.class);
+        when(session.isOpen()).thenReturn(true);
+        when(session.getRemote()).thenReturn(remote);
+        doAnswer(invocation -> {
+            invocation.getArgument(1, WriteCallback.class).writeSuccess();
+            return null;
+        }).when(remote).sendString(anyString(), any(WriteCallback.class));
+    }
+
+    @Test
+    void send__inOrder() throws Exception {
+        SessionRegistry registry = new SessionRegistry(Runnable::run);
+        registry.add("a", StatusChannel.of(session));
+
+        registry.send("a", "one");
+        registry.send("a", "two");
+        registry.send("b", "other");
+
+        InOrder inOrder = inOrder(remote);
+        inOrder.verify(remote).sendString(eq("one"), any());
+        inOrder.verify(remote).sendString(eq("two"), any());
+        verifyNoMoreInteractions(remote);
+        assertEquals(2, registry.getStats().messagesSent());
+    }
+
+    @Test
+    void send__removesClosedSessions() {
+        SessionRegistry registry = new SessionRegistry(Runnable::run);
+        registry.add("a", StatusChannel.of(session));
+        when(session.isOpen()).thenReturn(false);
+
+        registry.send("a", "one");
+
+        assertFalse(registry.contains("a"));
+        assertEquals(1, registry.getStats().messagesDropped());
+    }
+
+    @Test
+    void send__closesSlowConsumers() {
+        List<Runnable> writes = new ArrayList<>();
+        SessionRegistry registry = new SessionRegistry(writes::add);
+        registry.add("a", StatusChannel.of(session));
+
+        for (int i = 0; i <= SessionRegistry.MAX_PENDING_MESSAGES; i++) {
+            registry.send("a", "message " + i);
+        }
+
+        verify(session).close();
+        assertFalse(registry.contains("a", StatusChannel.of(session)));
+        SessionRegistry.Stats stats = registry.getStats();
+        assertEquals(1, stats.slowConsumersClosed());
+        assertEquals(SessionRegistry.MAX_PENDING_MESSAGES, stats.maxPendingMessages());
+    }
+
+    @Test
+    void closeAll__writesPendingMessagesFirst() throws Exception {
+        List<Runnable> writes = new ArrayList<>();
+        SessionRegistry registry = new SessionRegistry(writes::add);
+        registry.add("a", StatusChannel.of(session));
+
+        registry.send("a", "results");
+        registry.closeAll("a");
+        assertFalse(registry.contains("a"));
+        verify(session, never()).close();
+
+        while (!writes.isEmpty()) {
+            writes.removeFirst().run();
+        }
+
+        InOrder inOrder = inOrder(remote, session);
+        inOrder.verify(remote).sendString(eq("results"), any());
+        inOrder.verify(session).close();
+    }
+
+    @Test
+    void closeAll__whileFinishingWrite() throws Exception {
+        List<Runnable> writes = new ArrayList<>();
+        SessionRegistry registry = new SessionRegistry(writes::add);
+        registry.add("a", StatusChannel.of(session));
+        registry.send("a", "results");
+        writes.removeFirst().run();
+
+        // Closes the outbox after its last write has checked whether to close, but before it has finished
+        AtomicBoolean closeRequested = new AtomicBoolean();
+        when(session.isOpen()).thenAnswer(invocation -> {
+            if (closeRequested.compareAndSet(false, true)) {
+                registry.closeAll("a");
+            }
+            return true;
+        });
+        while (!writes.isEmpty()) {
+            writes.removeFirst().run();
+        }
+
+        assertTrue(closeRequested.get());
+        verify(session).close();
+    }
+
+    @Test
+    void send__batchesQueuedMessages() {
+        List<Runnable> writes = new ArrayList<>();
+        SessionRegistry registry = new SessionRegistry(writes::add);
+        registry.add("a", StatusChannel.of(session));
+
+        registry.send("a", "{\"type\":\"update\",\"seq\":1}");
+        registry.send("a", "{\"type\":\"update\",\"seq\":2}");
+        while (!writes.isEmpty()) {
+            writes.removeFirst().run();
+        }
+
+        verify(remote).sendString(
+                eq("{\"type\":\"batch\",\"events\":[{\"type\":\"update\",\"seq\":1},{\"type\":\"update\",\"seq\":2}]}"),
+                any());
+        assertEquals(2, registry.getStats().messagesSent());
+    }
+}
@@ -0,0 +1,111 @@
+package edu.byu.cs.controller;
+
+import edu.byu.cs.dataAccess.DaoService;
+import edu.byu.cs.model.Phase;
+import edu.byu.cs.model.QueueItem;
+import edu.byu.cs.util.JwtUtils;
+import io.javalin.http.Context;
+import io.javalin.http.sse.SseClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SseControllerTest {
+
+    private static final String NET_ID = "sseTestStudent";
+
+    private SseClient client;
+    private Context ctx;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DaoService.initializeMemoryDAOs();
+        client = mock(SseClient.class);
+        ctx = mock(Context.class);
+        when(client.ctx()).thenReturn(ctx);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TrafficController.clearSessions(NET_ID);
+    }
+
+    @Test
+    void onConnect__invalidToken() {
+        when(ctx.cookie("token")).thenReturn("invalid");
+
+        SseController.onConnect(client);
+
+        verify(client, timeout(5000)).sendEvent(eq("message"), contains("Invalid token"));
+        verify(client, timeout(5000)).close();
+        assertFalse(SseController.isConnected(new StatusChannel.SseChannel(client)));
+    }
+
+    @Test
+    void onConnect__subscribes() throws Exception {
+        DaoService.getQueueDao().add(new QueueItem(NET_ID, Phase.Phase3, Instant.now(), false));
+        when(ctx.cookie("token")).thenReturn(JwtUtils.generateToken(NET_ID));
+        StatusChannel.SseChannel channel = new StatusChannel.SseChannel(client);
+
+        SseController.onConnect(client);
+
+        verify(client).keepAlive();
+        assertTrue(SseController.isConnected(channel));
+        assertTrue(TrafficController.hasSession(NET_ID, channel));
+        verify(client, never()).close();
+    }
+
+    @Test
+    void onClose__removesChannel() throws Exception {
+        DaoService.getQueueDao().add(new QueueItem(NET_ID, Phase.Phase3, Instant.now(), false));
+        when(ctx.cookie("token")).thenReturn(JwtUtils.generateToken(NET_ID));
+        StatusChannel.SseChannel channel = new StatusChannel.SseChannel(client);
+        ArgumentCaptor<Runnable> onClose = ArgumentCaptor.forClass(Runnable.class);
+
+        SseController.onConnect(client);
+        verify(client).onClose(onClose.capture());
+        onClose.getValue().run();
+
+        assertFalse(SseController.isConnected(channel));
+        assertFalse(TrafficController.hasSession(NET_ID, channel));
+    }
+
+    @Test
+    void sendHeartbeats() throws Exception {
+        DaoService.getQueueDao().add(new QueueItem(NET_ID, Phase.Phase3, Instant.now(), false));
+        when(ctx.cookie("token")).thenReturn(JwtUtils.generateToken(NET_ID));
+        SseController.onConnect(client);
+
+        SseController.sendHeartbeats();
+
+        verify(client).sendComment("heartbeat");
+    }
+
+    @Test
+    void sendHeartbeats__removesTerminatedStreams() throws Exception {
+        DaoService.getQueueDao().add(new QueueItem(NET_ID, Phase.Phase3, Instant.now(), false));
+        when(ctx.cookie("token")).thenReturn(JwtUtils.generateToken(NET_ID));
+        StatusChannel.SseChannel channel = new StatusChannel.SseChannel(client);
+        SseController.onConnect(client);
+        when(client.terminated()).thenReturn(true);
+
+        SseController.sendHeartbeats();
+
+        verify(client, never()).sendComment(anyString());
+        assertFalse(SseController.isConnected(channel));
+    }
+
+    @Test
+    void getLastSeq() {
+        assertEquals(12, SseController.getLastSeq("12"));
+        assertEquals(0, SseController.getLastSeq(null));
+        assertEquals(0, SseController.getLastSeq(" "));
+        assertEquals(0, SseController.getLastSeq("twelve"));
+    }
+}
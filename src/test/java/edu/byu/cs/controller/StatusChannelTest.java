@@ -0,0 +1,63 @@
+package edu.byu.cs.controller;
+
+import io.javalin.http.sse.SseClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StatusChannelTest {
+
+    private SseClient client;
+    private StatusChannel.SseChannel channel;
+
+    @BeforeEach
+    void setUp() {
+        client = mock(SseClient.class);
+        channel = new StatusChannel.SseChannel(client);
+    }
+
+    @Test
+    void sseWrite() {
+        CompletableFuture<Void> written = channel.write("{\"type\":\"queueStatus\"}");
+
+        verify(client).sendEvent("message", "{\"type\":\"queueStatus\"}");
+        assertTrue(written.isDone());
+        assertFalse(written.isCompletedExceptionally());
+    }
+
+    @Test
+    void sseWrite__terminated() {
+        when(client.terminated()).thenReturn(true);
+
+        CompletableFuture<Void> written = channel.write("{}");
+
+        assertTrue(written.isCompletedExceptionally(), "Writes to a closed stream should fail");
+        assertFalse(channel.isOpen());
+    }
+
+    @Test
+    void sseHeartbeat() {
+        channel.heartbeat();
+
+        verify(client).sendComment("heartbeat");
+        verify(client, never()).sendEvent(anyString(), any());
+    }
+
+    @Test
+    void sseClose() {
+        assertTrue(channel.isOpen());
+
+        channel.close();
+
+        verify(client).close();
+    }
+
+    @Test
+    void sseEquals() {
+        assertEquals(channel, StatusChannel.of(client), "Channels of the same stream should be the same session");
+    }
+}
@@ -95,6 +95,7 @@ public abstract class ConfigurationDaoTest {
                  PHASE4_ASSIGNMENT_NUMBER, PHASE5_ASSIGNMENT_NUMBER, PHASE6_ASSIGNMENT_NUMBER
                     -> random.nextInt(1000000,2000000);
             case MAX_ERROR_OUTPUT_CHARS -> random.nextInt(1, 10000);
+            case GRADER_THREAD_COUNT -> random.nextInt(1, 16);
             case GRADER_SHUTDOWN_WARNING_MILLISECONDS -> 86400000; //24 hours in milliseconds
             case GIT_COMMIT_PENALTY, PER_DAY_LATE_PENALTY -> random.nextFloat(0, 1);
             case SLACK_LINK, BANNER_LINK, BANNER_COLOR, BANNER_MESSAGE-> "https://slack.com";
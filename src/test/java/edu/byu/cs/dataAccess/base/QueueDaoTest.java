@@ -165,6 +165,39 @@ public abstract class QueueDaoTest {
         Assertions.assertEquals(item, obtained);
     }
 
+    @ParameterizedTest
+    @MethodSource ("queueSizeRange")
+    void markNotStartedMany(int queueSize) throws DataAccessException {
+        QueueItem noise = generateQueueItem();
+        dao.add(noise);
+        dao.markStarted(noise.netId());
+        Collection<QueueItem> queue = generateQueue(queueSize);
+        for (QueueItem item : queue){
+            dao.add(item);
+            dao.markStarted(item.netId());
+        }
+        dao.markNotStarted(queue.stream().map(QueueItem::netId).toList());
+        for (QueueItem item : queue){
+            Assertions.assertEquals(item, dao.get(item.netId()));
+        }
+        Assertions.assertTrue(dao.get(noise.netId()).started());
+    }
+
+    @ParameterizedTest
+    @MethodSource ("queueSizeRange")
+    void removeMany(int queueSize) throws DataAccessException {
+        QueueItem keepMe = generateQueueItem();
+        dao.add(keepMe);
+        Collection<QueueItem> queue = generateQueue(queueSize);
+        for (QueueItem item : queue){
+            dao.add(item);
+        }
+        dao.remove(queue.stream().map(QueueItem::netId).toList());
+        Collection<QueueItem> obtainedQueue = dao.getAll();
+        Assertions.assertEquals(1, obtainedQueue.size());
+        Assertions.assertTrue(obtainedQueue.contains(keepMe));
+    }
+
     @ParameterizedTest
     @MethodSource ("queueSizeRange")
     void get(int queueSize) throws DataAccessException {
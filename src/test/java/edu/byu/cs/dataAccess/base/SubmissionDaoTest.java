@@ -6,6 +6,7 @@ import edu.byu.cs.dataAccess.ItemNotFoundException;
 import edu.byu.cs.dataAccess.daoInterface.SubmissionDao;
 import edu.byu.cs.dataAccess.daoInterface.UserDao;
 import edu.byu.cs.model.Phase;
+import edu.byu.cs.model.ResourceUsage;
 import edu.byu.cs.model.Submission;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -144,6 +145,81 @@ public abstract class SubmissionDaoTest {
         }
     }
 
+    @Test
+    void getSubmission() throws DataAccessException {
+        Collection<Submission> userSubmissions = generateSubmissionDummyData(userID);
+        generateStudentDummyData(DaoTestUtils.generateID());
+
+        for (Submission expected : userSubmissions) {
+            Submission actual = dao.getSubmission(expected.netId(), expected.phase(), expected.headHash(),
+                    expected.timestamp());
+            Assertions.assertEquals(expected, actual, "Did not get the requested submission");
+        }
+        Submission any = userSubmissions.iterator().next();
+        Assertions.assertNull(dao.getSubmission(any.netId(), any.phase(), any.headHash(),
+                any.timestamp().minusSeconds(1)), "Got a submission made at a different time");
+    }
+
+    @Test
+    void streamSubmissionsForUser() throws DataAccessException {
+        Collection<Submission> expectedSubmissions = generateSubmissionDummyData(userID);
+        generateStudentDummyData(DaoTestUtils.generateID());
+        String netId = DaoTestUtils.generateNetID(userID);
+
+        List<Submission> streamed = new ArrayList<>();
+        SubmissionDao.Cursor cursor = null;
+        int pages = 0;
+        do {
+            cursor = dao.streamSubmissionsForUser(netId, null, cursor, 3, streamed::add);
+            pages++;
+        } while (cursor != null && pages <= expectedSubmissions.size());
+
+        Assertions.assertEquals(expectedSubmissions.size(), streamed.size(),
+                "Did not stream every submission exactly once");
+        Assertions.assertEquals(new HashSet<>(expectedSubmissions), new HashSet<>(streamed),
+                "Streamed submissions did not match the inserted submissions");
+        for (int i = 1; i < streamed.size(); i++) {
+            Assertions.assertFalse(streamed.get(i).timestamp().isAfter(streamed.get(i - 1).timestamp()),
+                    "Submissions were not streamed newest first");
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = Phase.class)
+    void streamSubmissionsForUserAndPhase(Phase phase) throws DataAccessException {
+        generateSubmissionDummyData(userID);
+        String netId = DaoTestUtils.generateNetID(userID);
+
+        List<Submission> streamed = new ArrayList<>();
+        SubmissionDao.Cursor cursor = dao.streamSubmissionsForUser(netId, phase, null, -1, streamed::add);
+
+        Assertions.assertNull(cursor, "Reading every submission should not return a cursor");
+        Assertions.assertEquals(new HashSet<>(dao.getSubmissionsForPhase(netId, phase)), new HashSet<>(streamed),
+                "Did not stream the submissions for the given phase");
+    }
+
+    @Test
+    void streamAllSubmissions() throws DataAccessException {
+        clearSubmissions();
+        Collection<Submission> expectedSubmissions = generateSubmissionDummyData(userID);
+        expectedSubmissions.addAll(generateStudentDummyData(DaoTestUtils.generateID()));
+
+        List<Submission> streamed = new ArrayList<>();
+        dao.streamAllSubmissions(streamed::add);
+
+        Assertions.assertEquals(expectedSubmissions.size(), streamed.size(),
+                "Did not stream every submission exactly once");
+        Assertions.assertEquals(new HashSet<>(expectedSubmissions), new HashSet<>(streamed),
+                "Streamed submissions did not match the inserted submissions");
+    }
+
+    @Test
+    void cursorEncoding() {
+        SubmissionDao.Cursor cursor = new SubmissionDao.Cursor(Instant.ofEpochSecond(1_700_000_000), 42);
+        Assertions.assertEquals(cursor, SubmissionDao.Cursor.decode(cursor.encode()));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SubmissionDao.Cursor.decode("not-a-cursor"));
+    }
+
     @ParameterizedTest(name = "with {0} submissions")
     @ValueSource(ints = {0, 1, 2, 7})
     void getLastSubmissionForUser(int submissionCount) throws DataAccessException{
@@ -184,6 +260,26 @@ public abstract class SubmissionDaoTest {
         }
     }
 
+    @Test
+    void getAllLatestSubmissionSummaries() throws DataAccessException {
+        clearSubmissions();
+        generateSubmissionDummyData(userID);
+        generateStudentDummyData(DaoTestUtils.generateID());
+        Collection<Submission> latest = dao.getAllLatestSubmissions(-1);
+        Collection<Submission> summaries = dao.getAllLatestSubmissionSummaries(-1);
+
+        Assertions.assertEquals(new HashSet<>(latest), new HashSet<>(summaries),
+                "Summaries were not of the latest submissions");
+        for (Submission summary : summaries) {
+            Submission full = latest.stream().filter(summary::equals).findFirst().orElseThrow();
+            Assertions.assertEquals(full.score(), summary.score(), "Summary score did not match");
+            Assertions.assertEquals(full.verifiedStatus(), summary.verifiedStatus(), "Summary status did not match");
+            Assertions.assertNull(summary.rubric(), "Summary included the rubric");
+            Assertions.assertNull(summary.verification(), "Summary included the verification");
+            Assertions.assertNull(summary.resourceUsage(), "Summary included the resource usage");
+        }
+    }
+
     @ParameterizedTest(name = "batch of {0}")
     @MethodSource("latestSubmissionRange")
     void getAllLatestSubmissions(int batch) throws DataAccessException {
@@ -454,7 +550,8 @@ public abstract class SubmissionDaoTest {
                 true,
                 verification ? Submission.VerifiedStatus.ApprovedManually : null,
                 null, null,
-                verification ? new Submission.ScoreVerification(100.1f, "cosmo_boss", Instant.now(), 0) : null
+                verification ? new Submission.ScoreVerification(100.1f, "cosmo_boss", Instant.now(), 0) : null,
+                new ResourceUsage(Map.of("compile", new ResourceUsage.StageUsage(1, 4200, 350000, 6100)))
         );
     }
 
@@ -0,0 +1,83 @@
+package edu.byu.cs.dataAccess.cache;
+
+import edu.byu.cs.dataAccess.DataAccessException;
+import edu.byu.cs.dataAccess.base.ConfigurationDaoTest;
+import edu.byu.cs.dataAccess.daoInterface.ConfigurationDao;
+import edu.byu.cs.dataAccess.memory.ConfigurationMemoryDao;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+public class CachingConfigurationDaoTest extends ConfigurationDaoTest {
+
+    private static final ConfigurationDao.Configuration KEY = ConfigurationDao.Configuration.MAX_ERROR_OUTPUT_CHARS;
+
+    private ConfigurationDao delegate;
+    private MutableClock clock;
+
+    @Override
+    protected ConfigurationDao getConfigurationDao() {
+        return new CachingConfigurationDao(delegate, Duration.ofSeconds(30), clock);
+    }
+
+    @Override
+    protected void clearConfigurationItems() {
+        delegate = new ConfigurationMemoryDao();
+        clock = new MutableClock(Instant.parse("2024-09-01T12:00:00Z"));
+    }
+
+    @Test
+    void getConfiguration__cached() throws DataAccessException {
+        delegate.setConfiguration(KEY, 100, Integer.class);
+        Assertions.assertEquals(100, dao.getConfiguration(KEY, Integer.class));
+
+        // Changed without going through the cache
+        delegate.setConfiguration(KEY, 200, Integer.class);
+        Assertions.assertEquals(100, dao.getConfiguration(KEY, Integer.class));
+
+        clock.instant = clock.instant.plusSeconds(31);
+        Assertions.assertEquals(200, dao.getConfiguration(KEY, Integer.class));
+
+        CachingConfigurationDao.Stats stats = ((CachingConfigurationDao) dao).getStats();
+        Assertions.assertEquals(1, stats.hits());
+        Assertions.assertEquals(2, stats.misses());
+    }
+
+    @Test
+    void setConfiguration__invalidates() throws DataAccessException {
+        dao.setConfiguration(KEY, 100, Integer.class);
+        Assertions.assertEquals(100, dao.getConfiguration(KEY, Integer.class));
+
+        dao.setConfiguration(KEY, 200, Integer.class);
+
+        Assertions.assertEquals(200, dao.getConfiguration(KEY, Integer.class));
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package edu.byu.cs.dataAccess.cache;
+
+import edu.byu.cs.dataAccess.DataAccessException;
+import edu.byu.cs.dataAccess.base.RubricConfigDaoTest;
+import edu.byu.cs.dataAccess.daoInterface.RubricConfigDao;
+import edu.byu.cs.dataAccess.memory.RubricConfigMemoryDao;
+import edu.byu.cs.model.Phase;
+import edu.byu.cs.model.Rubric;
+import edu.byu.cs.model.RubricConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+
+public class CachingRubricConfigDaoTest extends RubricConfigDaoTest {
+
+    private RubricConfigMemoryDao delegate;
+
+    @Override
+    protected RubricConfigDao getRubricConfigDao() {
+        delegate = new RubricConfigMemoryDao();
+        return new CachingRubricConfigDao(delegate);
+    }
+
+    @Override
+    protected void clearRubricConfigDao() throws DataAccessException {
+        for (Phase phase : Phase.values()) {
+            dao.setRubricConfig(phase, null);
+        }
+    }
+
+    @Test
+    void getRubricConfig__readOnce() throws DataAccessException {
+        CachingRubricConfigDao cachingDao = new CachingRubricConfigDao(new RubricConfigMemoryDao());
+        cachingDao.preload();
+
+        RubricConfig config = cachingDao.getRubricConfig(Phase.Phase3);
+        config.items().remove(Rubric.RubricType.QUALITY);
+
+        Assertions.assertEquals(RubricConfigDao.getDefaultRubricConfig(Phase.Phase3), cachingDao.getRubricConfig(Phase.Phase3));
+        CachingRubricConfigDao.Stats stats = cachingDao.getStats();
+        Assertions.assertEquals(Phase.values().length, stats.refreshes());
+        Assertions.assertEquals(2, stats.hits());
+        Assertions.assertEquals(0, stats.misses());
+    }
+
+    @Test
+    void setRubricIdAndPoints__refreshes() throws DataAccessException {
+        RubricConfigMemoryDao memoryDao = new RubricConfigMemoryDao();
+        // The memory DAO changes the rubric config it holds, so it mustn't hold a shared default
+        RubricConfig defaultConfig = RubricConfigDao.getDefaultRubricConfig(Phase.Phase3);
+        memoryDao.setRubricConfig(Phase.Phase3, new RubricConfig(Phase.Phase3, new EnumMap<>(defaultConfig.items())));
+        CachingRubricConfigDao cachingDao = new CachingRubricConfigDao(memoryDao);
+        cachingDao.preload();
+
+        cachingDao.setRubricIdAndPoints(Phase.Phase3, Rubric.RubricType.QUALITY, 42, "new_id");
+
+        RubricConfig.RubricConfigItem item = cachingDao.getRubricConfig(Phase.Phase3).items().get(Rubric.RubricType.QUALITY);
+        Assertions.assertEquals(42, item.points());
+        Assertions.assertEquals("new_id", item.rubric_id());
+    }
+}
@@ -26,7 +26,8 @@ class ServerTest {
                 Arguments.of("POST", "/api/admin/repo", "setRepoUrlAdmin", "netId"),
                 Arguments.of( "GET", "/api/admin/honorChecker/zip", "honorCheckerZipGet", "section"),
                 Arguments.of( "GET", "/api/admin/submissions/latest", "latestSubmissionsGet", "count"),
-                Arguments.of( "GET", "/api/admin/submissions/student", "studentSubmissionsGet", "netId")
+                Arguments.of( "GET", "/api/admin/submissions/student", "studentSubmissionsGet", "netId"),
+                Arguments.of( "GET", "/api/admin/submissions/student/testNetId", "studentSubmissionGet", "phase")
         );
         // api/admin/config/penalties
     }
@@ -53,16 +54,19 @@ class ServerTest {
                 Arguments.of("POST", "/api/admin/config/phases", "updateLivePhases"),
                 Arguments.of("POST", "/api/admin/config/phases/shutdown", "scheduleShutdown"),
                 Arguments.of("POST", "/api/admin/config/holidays", "updateHolidays"),
+                Arguments.of("POST", "/api/admin/config/graderThreads", "updateGraderThreadCount"),
 
                 Arguments.of( "GET", "/api/admin/submissions/active", "submissionsActiveGet"),
                 Arguments.of("POST", "/api/admin/submissions/approve", "approveSubmissionPost"),
                 Arguments.of( "GET", "/api/admin/submissions/latest", "latestSubmissionsGet"),
+                Arguments.of( "GET", "/api/admin/submissions/export", "submissionsExportGet"),
                 Arguments.of("POST", "/api/admin/submissions/rerun", "submissionsReRunPost"),
                 Arguments.of("POST", "/api/admin/submit", "adminRepoSubmitPost"),
 
                 Arguments.of( "GET", "/api/admin/analytics/commit", "commitAnalyticsGet"),
                 Arguments.of( "GET", "/api/admin/repo/history", "repoHistoryAdminGet"),
                 Arguments.of( "GET", "/api/admin/sections", "sectionsGet"),
+                Arguments.of( "GET", "/api/admin/metrics", "metricsGet"),
                 Arguments.of( "GET", "/api/admin/test_mode", "testModeGet"),
                 Arguments.of( "GET", "/api/admin/users", "usersGet")
                 );
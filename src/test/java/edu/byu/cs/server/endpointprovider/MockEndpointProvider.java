@@ -95,6 +95,11 @@ public class MockEndpointProvider implements EndpointProvider {
         return (ctx) -> extractRequestInfo("sectionsGet", ctx);
     }
 
+    @Override
+    public Handler metricsGet() {
+        return (ctx) -> extractRequestInfo("metricsGet", ctx);
+    }
+
     @Override
     public Handler verifyAuthenticatedMiddleware() {
         return (ctx) -> extractRequestInfo("verifyAuthenticatedMiddleware", ctx);
@@ -170,6 +175,11 @@ public class MockEndpointProvider implements EndpointProvider {
         return (ctx) -> extractRequestInfo("updateSlackLink", ctx);
     }
 
+    @Override
+    public Handler updateGraderThreadCount() {
+        return (ctx) -> extractRequestInfo("updateGraderThreadCount", ctx);
+    }
+
     @Override
     public Handler updatePenalties() {
         return (ctx) -> extractRequestInfo("updatePenalties", ctx);
@@ -215,6 +225,16 @@ public class MockEndpointProvider implements EndpointProvider {
         return (ctx) -> extractRequestInfo("studentSubmissionsGet", ctx);
     }
 
+    @Override
+    public Handler studentSubmissionGet() {
+        return (ctx) -> extractRequestInfo("studentSubmissionGet", ctx);
+    }
+
+    @Override
+    public Handler submissionsExportGet() {
+        return (ctx) -> extractRequestInfo("submissionsExportGet", ctx);
+    }
+
     @Override
     public Handler approveSubmissionPost() {
         return (ctx) -> extractRequestInfo("approveSubmissionPost", ctx);
@@ -0,0 +1,105 @@
+package edu.byu.cs.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectoryCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private DirectoryCache cache;
+    private File root;
+    private File source;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        root = tempDir.resolve("cache").toFile();
+        cache = new DirectoryCache(root, Duration.ofDays(1));
+        source = tempDir.resolve("source").toFile();
+        writeFile(source.toPath().resolve("nested/file.txt"), "original");
+    }
+
+    @Test
+    void restore__missingEntry() {
+        File destination = tempDir.resolve("destination").toFile();
+
+        assertFalse(cache.restore("key", destination));
+        assertFalse(cache.contains("key"));
+        assertFalse(destination.exists());
+    }
+
+    @Test
+    void restore__storedEntry() throws IOException {
+        cache.store("key", source);
+        File destination = tempDir.resolve("destination").toFile();
+
+        assertTrue(cache.contains("key"));
+        assertTrue(cache.restore("key", destination));
+        assertEquals("original", Files.readString(destination.toPath().resolve("nested/file.txt")));
+    }
+
+    @Test
+    void store__existingEntry() throws IOException {
+        cache.store("key", source);
+        Files.writeString(source.toPath().resolve("nested/file.txt"), "changed");
+
+        cache.store("key", source);
+
+        File destination = tempDir.resolve("destination").toFile();
+        assertTrue(cache.restore("key", destination));
+        assertEquals("original", Files.readString(destination.toPath().resolve("nested/file.txt")),
+                "An entry is never replaced once stored");
+        assertArrayEquals(new String[]{"key"}, root.list(), "No temporary entries should be left behind");
+    }
+
+    @Test
+    void store__missingSource() {
+        cache.store("key", tempDir.resolve("missing").toFile());
+
+        assertFalse(cache.contains("key"));
+    }
+
+    @Test
+    void evictExpiredEntries() throws IOException {
+        cache.store("old", source);
+        cache.store("recent", source);
+        setLastModified("old", Instant.now().minus(Duration.ofDays(2)));
+
+        cache.evictExpiredEntries();
+
+        assertFalse(cache.contains("old"));
+        assertTrue(cache.contains("recent"));
+    }
+
+    @Test
+    void restore__keepsEntryFresh() throws IOException {
+        cache.store("key", source);
+        setLastModified("key", Instant.now().minus(Duration.ofDays(2)));
+
+        assertTrue(cache.restore("key", tempDir.resolve("destination").toFile()));
+        cache.evictExpiredEntries();
+
+        assertTrue(cache.contains("key"), "Restoring an entry should count as using it");
+    }
+
+    private void setLastModified(String key, Instant time) throws IOException {
+        Files.setLastModifiedTime(root.toPath().resolve(key), FileTime.from(time));
+    }
+
+    private static void writeFile(Path file, String contents) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, contents);
+    }
+}
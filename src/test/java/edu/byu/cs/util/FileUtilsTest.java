@@ -0,0 +1,86 @@
+package edu.byu.cs.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileUtilsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void copyDirectory() throws IOException {
+        Path source = tempDir.resolve("source");
+        writeFile(source.resolve("top.txt"), "top");
+        writeFile(source.resolve("nested/deeper/file.txt"), "nested");
+        Files.createDirectories(source.resolve("empty"));
+        Path destination = tempDir.resolve("destination");
+        writeFile(destination.resolve("top.txt"), "old");
+        writeFile(destination.resolve("kept.txt"), "kept");
+
+        FileUtils.copyDirectory(source.toFile(), destination.toFile());
+
+        assertEquals("top", Files.readString(destination.resolve("top.txt")), "Existing files should be replaced");
+        assertEquals("nested", Files.readString(destination.resolve("nested/deeper/file.txt")));
+        assertTrue(Files.isDirectory(destination.resolve("empty")));
+        assertEquals("kept", Files.readString(destination.resolve("kept.txt")));
+    }
+
+    @Test
+    void hashContents__stable() throws IOException {
+        Path directory = tempDir.resolve("directory");
+        writeFile(directory.resolve("a.txt"), "a");
+        writeFile(directory.resolve("nested/b.txt"), "b");
+
+        Path copy = tempDir.resolve("copy");
+        FileUtils.copyDirectory(directory.toFile(), copy.toFile());
+
+        assertEquals(FileUtils.hashContents(directory.toFile()), FileUtils.hashContents(directory.toFile()));
+        assertEquals(FileUtils.hashContents(directory.toFile()), FileUtils.hashContents(copy.toFile()),
+                "The hash should only depend on the names and contents of the files");
+    }
+
+    @Test
+    void hashContents__changes() throws IOException {
+        Path directory = tempDir.resolve("directory");
+        Path file = directory.resolve("nested/b.txt");
+        writeFile(directory.resolve("a.txt"), "a");
+        writeFile(file, "b");
+        String original = FileUtils.hashContents(directory.toFile());
+
+        Files.writeString(file, "changed");
+        String modified = FileUtils.hashContents(directory.toFile());
+        assertNotEquals(original, modified, "Modifying a file should change the hash");
+
+        Files.move(file, directory.resolve("nested/c.txt"));
+        String renamed = FileUtils.hashContents(directory.toFile());
+        assertNotEquals(modified, renamed, "Renaming a file should change the hash");
+
+        writeFile(directory.resolve("added.txt"), "");
+        assertNotEquals(renamed, FileUtils.hashContents(directory.toFile()), "Adding a file should change the hash");
+    }
+
+    @Test
+    void hashContents__missingFile() throws IOException {
+        File missing = tempDir.resolve("missing.jar").toFile();
+        String before = FileUtils.hashContents(missing);
+
+        writeFile(missing.toPath(), "jar");
+
+        assertNotEquals(before, FileUtils.hashContents(missing), "Creating a missing file should change the hash");
+        assertNotEquals(FileUtils.hashContents(missing), FileUtils.hashContents(missing, missing),
+                "Every file should be part of the hash");
+    }
+
+    private static void writeFile(Path file, String contents) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, contents);
+    }
+}
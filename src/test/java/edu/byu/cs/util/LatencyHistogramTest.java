@@ -0,0 +1,51 @@
+package edu.byu.cs.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void snapshot__empty() {
+        LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+
+        assertEquals(0, snapshot.count());
+        assertEquals(0, snapshot.meanMillis());
+        assertEquals(0, snapshot.p99Millis());
+        assertEquals(List.of(), snapshot.buckets());
+    }
+
+    @Test
+    void snapshot__percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 100L);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(100, snapshot.count());
+        assertEquals(5050, snapshot.meanMillis());
+        assertEquals(10_000, snapshot.maxMillis());
+        assertEquals(5_000, snapshot.p50Millis(), 1_000);
+        assertEquals(9_000, snapshot.p90Millis(), 1_000);
+        assertTrue(snapshot.p99Millis() <= snapshot.maxMillis());
+        assertTrue(snapshot.p50Millis() <= snapshot.p90Millis() && snapshot.p90Millis() <= snapshot.p99Millis());
+    }
+
+    @Test
+    void snapshot__longerThanEveryBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(3_000_000);
+        histogram.record(-5);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(List.of(new LatencyHistogram.Bucket(1, 1), new LatencyHistogram.Bucket(3_000_000, 1)),
+                snapshot.buckets());
+        assertEquals(3_000_000, snapshot.p99Millis(), 100_000);
+    }
+}
@@ -6,6 +6,11 @@ import static org.junit.jupiter.api.Assertions.*;
 
 class ProcessUtilsTest {
 
+    /**
+     * Large enough to keep all the output of the massive output tests, which is more than the default keeps
+     */
+    private static final ProcessUtils.OutputLimit ENTIRE_OUTPUT = new ProcessUtils.OutputLimit(16 * 1024 * 1024, 0);
+
     @Test
     void runProcess__noInput() {
         ProcessBuilder processBuilder = new ProcessBuilder("echo", "Hello, World!");
@@ -61,7 +66,7 @@ class ProcessUtilsTest {
 
         ProcessUtils.ProcessOutput processOutput = null;
         try {
-            processOutput = ProcessUtils.runProcess(processBuilder, input, timeout);
+            processOutput = ProcessUtils.runProcess(processBuilder, input, timeout, ENTIRE_OUTPUT);
         } catch (ProcessUtils.ProcessException e) {
             fail("Process failed to run", e);
         }
@@ -80,7 +85,7 @@ class ProcessUtilsTest {
 
         ProcessUtils.ProcessOutput processOutput = null;
         try {
-            processOutput = ProcessUtils.runProcess(processBuilder, input, timeout);
+            processOutput = ProcessUtils.runProcess(processBuilder, input, timeout, ENTIRE_OUTPUT);
         } catch (ProcessUtils.ProcessException e) {
             fail("Process failed to run", e);
         }
@@ -99,7 +104,7 @@ class ProcessUtilsTest {
 
         ProcessUtils.ProcessOutput processOutput = null;
         try {
-            processOutput = ProcessUtils.runProcess(processBuilder, input, timeout);
+            processOutput = ProcessUtils.runProcess(processBuilder, input, timeout, ENTIRE_OUTPUT);
         } catch (ProcessUtils.ProcessException e) {
             fail("Process failed to run", e);
         }
@@ -137,4 +142,81 @@ class ProcessUtilsTest {
         assertEquals("", processOutput.stdErr());
         assertEquals(1, processOutput.statusCode());
     }
+
+    @Test
+    void runProcess__outputLimit() {
+        ProcessBuilder processBuilder = new ProcessBuilder("bash", "-c", "for i in {1..1000}; do echo line$i; done");
+        ProcessUtils.OutputLimit outputLimit = new ProcessUtils.OutputLimit(12, 11);
+
+        ProcessUtils.ProcessOutput processOutput = null;
+        try {
+            processOutput = ProcessUtils.runProcess(processBuilder, null, 1000, outputLimit);
+        } catch (ProcessUtils.ProcessException e) {
+            fail("Process failed to run", e);
+        }
+
+        assertNotNull(processOutput);
+        assertTrue(processOutput.stdOut().startsWith("line1\nline2\n"), processOutput.stdOut());
+        assertTrue(processOutput.stdOut().endsWith("\nline1000\n"), processOutput.stdOut());
+        assertTrue(processOutput.stdOutInfo().truncated());
+        assertEquals(7893, processOutput.stdOutInfo().totalBytes());
+        assertEquals(7893 - 12 - 11, processOutput.stdOutInfo().omittedBytes());
+        assertTrue(processOutput.stdOut().contains("(" + (7893 - 12 - 11) + " bytes omitted)"));
+        assertFalse(processOutput.stdErrInfo().truncated());
+    }
+
+    @Test
+    void runProcess__outputLimitSplitsCharacters() {
+        ProcessBuilder processBuilder = new ProcessBuilder("bash", "-c", "printf '\\303\\251%.0s' {1..5}");
+        ProcessUtils.OutputLimit outputLimit = new ProcessUtils.OutputLimit(3, 3);
+
+        ProcessUtils.ProcessOutput processOutput = null;
+        try {
+            processOutput = ProcessUtils.runProcess(processBuilder, null, 1000, outputLimit);
+        } catch (ProcessUtils.ProcessException e) {
+            fail("Process failed to run", e);
+        }
+
+        assertNotNull(processOutput);
+        assertEquals("\u00e9\n...(6 bytes omitted)...\n\u00e9\n", processOutput.stdOut());
+        assertEquals(10, processOutput.stdOutInfo().totalBytes());
+        assertEquals(6, processOutput.stdOutInfo().omittedBytes());
+    }
+
+    @Test
+    void runProcess__outputWithinLimit() {
+        ProcessBuilder processBuilder = new ProcessBuilder("bash", "-c", "printf 'a\\r\\nb'");
+        ProcessUtils.OutputLimit outputLimit = new ProcessUtils.OutputLimit(2, 2);
+
+        ProcessUtils.ProcessOutput processOutput = null;
+        try {
+            processOutput = ProcessUtils.runProcess(processBuilder, null, 1000, outputLimit);
+        } catch (ProcessUtils.ProcessException e) {
+            fail("Process failed to run", e);
+        }
+
+        assertNotNull(processOutput);
+        assertEquals("a\nb\n", processOutput.stdOut());
+        assertEquals(4, processOutput.stdOutInfo().totalBytes());
+        assertFalse(processOutput.stdOutInfo().truncated());
+    }
+
+    @Test
+    void runProcess__usage() {
+        ProcessBuilder processBuilder = new ProcessBuilder("bash", "-c",
+                "end=$((SECONDS + 2)); while [ $SECONDS -lt $end ]; do :; done");
+
+        ProcessUtils.ProcessOutput processOutput = null;
+        try {
+            processOutput = ProcessUtils.runProcess(processBuilder, null, 5000);
+        } catch (ProcessUtils.ProcessException e) {
+            fail("Process failed to run", e);
+        }
+
+        assertNotNull(processOutput);
+        assertTrue(processOutput.usage().wallMillis() >= 1000, processOutput.usage().toString());
+        assertTrue(processOutput.usage().cpuMillis() > 0, processOutput.usage().toString());
+        assertTrue(processOutput.usage().cpuMillis() <= processOutput.usage().wallMillis() + 100,
+                processOutput.usage().toString());
+    }
 }